@@ -0,0 +1,68 @@
+-- xx_user 查询基准脚本
+-- 不随应用打包；迁移脚本位于 src/main/resources/database/migration
+-- 用法：
+--   1. 在独立的测试库中执行 V1__init_schema.sql 和 V1_1（不要执行 V2）
+--   2. 执行本脚本的「造数」部分，写入 100 万用户
+--   3. 执行「测量」部分，记录各查询耗时与执行计划（索引前）
+--   4. 执行 V2__add_user_lookup_indexes.sql 后再次执行「测量」部分（索引后）
+-- 对比方式：
+--   索引前：email / phone / open_id / user_name 查询的执行计划为全表扫描（type=ALL，rows≈100 万）
+--   索引后：上述查询应变为 const / ref 访问（rows≈1）；按主键读取资料始终为 const 访问
+--   耗时以 SHOW PROFILES 中的 Duration 为准，请在同一台机器上先后执行两次后对比
+
+-- ------------------------------------------------------------
+-- 造数
+-- ------------------------------------------------------------
+SET SESSION cte_max_recursion_depth = 1000000;
+
+INSERT INTO `xx_user` (`user_name`, `nick_name`, `email`, `open_id`, `create_time`, `update_time`,
+                       `is_deleted`, `password`, `salt`, `phone`)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 1000000
+)
+SELECT CONCAT('bench_', n),
+       'new_user',
+       CONCAT('bench_', n, '@example.com'),
+       CONCAT('openid_', n),
+       NOW(),
+       NOW(),
+       0,
+       MD5(CONCAT('password{', n, '}')),
+       LEFT(MD5(n), 8),
+       CONCAT('139', LPAD(n, 8, '0'))
+FROM seq;
+
+ANALYZE TABLE `xx_user`;
+
+-- ------------------------------------------------------------
+-- 测量
+-- ------------------------------------------------------------
+SET profiling = 1;
+
+-- 邮箱密码登录、注册查重
+SELECT * FROM `xx_user` WHERE `email` = 'bench_654321@example.com' AND `is_deleted` = 0 LIMIT 1;
+-- 手机号登录
+SELECT * FROM `xx_user` WHERE `phone` = '13900654321' AND `is_deleted` = 0 LIMIT 1;
+-- 微信登录
+SELECT `id`, `open_id` FROM `xx_user` WHERE `open_id` = 'openid_654321' AND `is_deleted` = 0;
+-- 用户名密码登录
+SELECT * FROM `xx_user` WHERE `user_name` = 'bench_654321' AND `is_deleted` = 0 LIMIT 1;
+-- 获取用户资料（按主键）
+SELECT * FROM `xx_user` WHERE `id` = 654321 AND `is_deleted` = 0;
+
+SHOW PROFILES;
+
+EXPLAIN SELECT * FROM `xx_user` WHERE `email` = 'bench_654321@example.com' AND `is_deleted` = 0 LIMIT 1;
+EXPLAIN SELECT * FROM `xx_user` WHERE `phone` = '13900654321' AND `is_deleted` = 0 LIMIT 1;
+EXPLAIN SELECT `id`, `open_id` FROM `xx_user` WHERE `open_id` = 'openid_654321' AND `is_deleted` = 0;
+EXPLAIN SELECT * FROM `xx_user` WHERE `user_name` = 'bench_654321' AND `is_deleted` = 0 LIMIT 1;
+EXPLAIN SELECT * FROM `xx_user` WHERE `id` = 654321 AND `is_deleted` = 0;
+
+SET profiling = 0;
+
+-- ------------------------------------------------------------
+-- 清理
+-- ------------------------------------------------------------
+-- DELETE FROM `xx_user` WHERE `user_name` LIKE 'bench\_%';
@@ -0,0 +1,107 @@
+package com.basis.cache;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 值的紧凑二进制编码
+ * 注册类型的对象编码为 [魔数][版本][类型编号][Smile 数据]，不带类名；
+ * 字符串、数字等标量及未注册类型仍使用原 JSON 编码，Lua 脚本比较、INCR 等依赖原始格式的操作不受影响。
+ * 读取时按首字节区分，JSON 文本不会以魔数开头，滚动发布期间新旧格式可同时读取
+ */
+public final class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * UTF-8 多字节前导字节，合法 JSON 不会以它开头
+     */
+    static final byte MAGIC = (byte) 0xC5;
+
+    static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private final RedisSerializer<Object> legacy;
+
+    private final RedisTypeRegistry registry;
+
+    private final ObjectMapper mapper;
+
+    /**
+     * 为 false 时只写 JSON，用于发布第一阶段：所有节点先具备读取能力，再切换写入格式
+     */
+    private final boolean writeCompact;
+
+    public CompactRedisSerializer(RedisSerializer<Object> legacy, RedisTypeRegistry registry, boolean writeCompact, Module... modules) {
+        this.legacy = legacy;
+        this.registry = registry;
+        this.writeCompact = writeCompact;
+        // 类型由头部决定，Smile 自身的 4 字节文件头省略
+        SmileFactory factory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+        this.mapper = new ObjectMapper(factory);
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        // 新旧版本节点字段不一致时忽略多余字段
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.registerModules(modules);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (Objects.isNull(value)) {
+            return new byte[0];
+        }
+        int typeId = writeCompact ? registry.idOf(value.getClass()) : 0;
+        if (typeId == 0) {
+            return legacy.serialize(value);
+        }
+        try {
+            byte[] payload = mapper.writeValueAsBytes(value);
+            byte[] bytes = new byte[HEADER_LENGTH + payload.length];
+            bytes[0] = MAGIC;
+            bytes[1] = VERSION;
+            bytes[2] = (byte) typeId;
+            System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+            return bytes;
+        } catch (IOException e) {
+            throw new SerializationException("Could not write compact value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return legacy.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported compact value version: " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+        Class<?> type = registry.typeOf(bytes[2] & 0xFF);
+        if (type == null) {
+            throw new SerializationException("Unknown compact value type id: " + (bytes[2] & 0xFF));
+        }
+        try {
+            return mapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, type);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read compact value: " + e.getMessage(), e);
+        }
+    }
+}
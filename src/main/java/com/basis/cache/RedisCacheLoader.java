@@ -0,0 +1,293 @@
+package com.basis.cache;
+
+import com.basis.utils.RedisUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.basis.model.constant.BasicConstant.CACHE_LOADER_LOCK_SUFFIX;
+import static com.basis.model.constant.BasicConstant.CACHE_LOADER_PREFIX;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 防击穿的 Redis 缓存加载
+ * 热点 key 过期时只有一个请求回源：进程内同一 key 的并发加载合并为一次，节点之间通过短期 Redis 锁合并，
+ * 未拿到锁的节点等待持锁节点写入。过期前按 XFetch 算法以一定概率提前异步刷新，加载越慢、越接近过期越容易触发；
+ * 逻辑过期后的 stale 窗口内直接返回旧值并异步刷新。
+ * 缓存以 hash 保存：v 为值，e 为逻辑过期时间（毫秒），d 为上次加载耗时（毫秒），Redis 过期时间为逻辑过期加 stale 窗口
+ */
+@Slf4j
+@Component
+public class RedisCacheLoader {
+
+    private static final String FIELD_VALUE = "v";
+
+    private static final String FIELD_EXPIRE_AT = "e";
+
+    private static final String FIELD_DELTA = "d";
+
+    /**
+     * 等待其他节点加载时查询缓存的间隔
+     */
+    private static final long WAIT_POLL_MS = 20;
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.loader.lock-ms}")
+    private Long lockMs;
+
+    @Value("${cache.loader.beta}")
+    private Double beta;
+
+    @Value("${cache.loader.refresh-workers}")
+    private Integer refreshWorkers;
+
+    private final String nodeName = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * 本节点正在同步加载的 key
+     */
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点正在异步刷新的 key
+     */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor refresher;
+
+    private Counter loads;
+
+    private Counter staleServed;
+
+    private Counter earlyRefreshes;
+
+    @PostConstruct
+    public void start() {
+        loads = Counter.builder("cache_loader").tag("event", "load").register(meterRegistry);
+        staleServed = Counter.builder("cache_loader").tag("event", "stale").register(meterRegistry);
+        earlyRefreshes = Counter.builder("cache_loader").tag("event", "early_refresh").register(meterRegistry);
+        AtomicInteger counter = new AtomicInteger();
+        // 刷新任务积压时直接丢弃，调用方继续使用旧值，之后的请求会再次触发刷新
+        refresher = new ThreadPoolExecutor(refreshWorkers, refreshWorkers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshWorkers * 100), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * 读取缓存，未命中时回源
+     *
+     * @param key          业务 key，实际 Redis key 带 CACHE_LOADER_PREFIX 前缀
+     * @param ttlSeconds   逻辑有效期
+     * @param staleSeconds 逻辑过期后仍可返回旧值的时间，0 表示过期后必须同步回源
+     * @param type         值类型，缓存中类型不符时视为未命中
+     * @param loader       回源加载，返回 null 时不缓存
+     */
+    public <T> T get(final String key, final long ttlSeconds, final long staleSeconds, final Class<T> type, final Supplier<T> loader) {
+        String cacheKey = CACHE_LOADER_PREFIX + key;
+        Entry<T> entry = read(cacheKey, type);
+        long now = System.currentTimeMillis();
+        if (entry != null) {
+            if (now < entry.expireAt) {
+                // XFetch：now - delta * beta * ln(rand) >= expireAt 时提前刷新
+                if (now - entry.delta * beta * Math.log(ThreadLocalRandom.current().nextDouble()) >= entry.expireAt
+                        && refreshAsync(cacheKey, ttlSeconds, staleSeconds, loader)) {
+                    earlyRefreshes.increment();
+                }
+                return entry.value;
+            }
+            if (now < entry.expireAt + staleSeconds * 1000) {
+                staleServed.increment();
+                refreshAsync(cacheKey, ttlSeconds, staleSeconds, loader);
+                return entry.value;
+            }
+        }
+        return loadCoalesced(cacheKey, ttlSeconds, staleSeconds, type, loader);
+    }
+
+    /**
+     * 删除缓存，需在数据源更新之后调用；删除后不再返回旧值
+     */
+    public void evict(final String key) {
+        redisUtils.delKey(CACHE_LOADER_PREFIX + key);
+    }
+
+    /**
+     * 进程内合并：同一 key 只有一个线程回源，其余线程等待其结果
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T loadCoalesced(String cacheKey, long ttlSeconds, long staleSeconds, Class<T> type, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(cacheKey, mine);
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            T value = loadAcrossNodes(cacheKey, ttlSeconds, staleSeconds, type, loader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(cacheKey, mine);
+        }
+    }
+
+    /**
+     * 节点间合并：拿到锁的节点回源，其余节点等待缓存写入；等待超过锁有效期时持锁节点可能已失败，自行回源
+     */
+    private <T> T loadAcrossNodes(String cacheKey, long ttlSeconds, long staleSeconds, Class<T> type, Supplier<T> loader) {
+        String lockKey = cacheKey + CACHE_LOADER_LOCK_SUFFIX;
+        long deadline = System.currentTimeMillis() + lockMs;
+        while (true) {
+            if (tryLock(lockKey)) {
+                try {
+                    // 前一个持锁节点可能刚写入
+                    Entry<T> entry = read(cacheKey, type);
+                    if (entry != null && System.currentTimeMillis() < entry.expireAt) {
+                        return entry.value;
+                    }
+                    return loadAndStore(cacheKey, ttlSeconds, staleSeconds, loader);
+                } finally {
+                    redisUtils.delKey(lockKey);
+                }
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(WAIT_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return loadAndStore(cacheKey, ttlSeconds, staleSeconds, loader);
+            }
+            Entry<T> entry = read(cacheKey, type);
+            if (entry != null && System.currentTimeMillis() < entry.expireAt) {
+                return entry.value;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("Cache load lock wait timed out, loading directly: {}", cacheKey);
+                return loadAndStore(cacheKey, ttlSeconds, staleSeconds, loader);
+            }
+        }
+    }
+
+    /**
+     * 提交异步刷新；本节点已在刷新或其他节点持有锁时跳过
+     *
+     * @return 是否提交
+     */
+    private <T> boolean refreshAsync(String cacheKey, long ttlSeconds, long staleSeconds, Supplier<T> loader) {
+        if (!refreshing.add(cacheKey)) {
+            return false;
+        }
+        try {
+            refresher.execute(() -> {
+                String lockKey = cacheKey + CACHE_LOADER_LOCK_SUFFIX;
+                try {
+                    if (tryLock(lockKey)) {
+                        try {
+                            loadAndStore(cacheKey, ttlSeconds, staleSeconds, loader);
+                        } finally {
+                            redisUtils.delKey(lockKey);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.warn("Cache refresh failed: {}, {}", cacheKey, e.getMessage());
+                } finally {
+                    refreshing.remove(cacheKey);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(cacheKey);
+            return false;
+        }
+    }
+
+    private <T> T loadAndStore(String cacheKey, long ttlSeconds, long staleSeconds, Supplier<T> loader) {
+        long start = System.nanoTime();
+        T value = loader.get();
+        long delta = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        loads.increment();
+        if (value != null) {
+            Map<String, Object> fields = new HashMap<>(4);
+            fields.put(FIELD_VALUE, value);
+            fields.put(FIELD_EXPIRE_AT, System.currentTimeMillis() + ttlSeconds * 1000);
+            fields.put(FIELD_DELTA, delta);
+            redisUtils.batch()
+                    .add(operations -> operations.opsForHash().putAll(cacheKey, fields))
+                    .expire(cacheKey, ttlSeconds + staleSeconds)
+                    .execute();
+        }
+        return value;
+    }
+
+    private boolean tryLock(String lockKey) {
+        return Boolean.TRUE.equals(redisUtils.getRedisTemplate().opsForValue()
+                .setIfAbsent(lockKey, nodeName, Duration.ofMillis(lockMs)));
+    }
+
+    private <T> Entry<T> read(String cacheKey, Class<T> type) {
+        Map<Object, Object> fields = redisUtils.hashGetAll(cacheKey);
+        Object value = fields.get(FIELD_VALUE);
+        Object expireAt = fields.get(FIELD_EXPIRE_AT);
+        if (!type.isInstance(value) || !(expireAt instanceof Number)) {
+            return null;
+        }
+        Object delta = fields.get(FIELD_DELTA);
+        return new Entry<>(type.cast(value), ((Number) expireAt).longValue(),
+                delta instanceof Number ? ((Number) delta).longValue() : 0);
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+
+        private final long expireAt;
+
+        private final long delta;
+
+        private Entry(T value, long expireAt, long delta) {
+            this.value = value;
+            this.expireAt = expireAt;
+            this.delta = delta;
+        }
+    }
+}
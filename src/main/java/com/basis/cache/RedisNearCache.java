@@ -0,0 +1,232 @@
+package com.basis.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 近端缓存，指定前缀的 key 读取后保存在进程内，再次读取不产生网络往返
+ * 通过独立的 RESP3 连接以 CLIENT TRACKING BCAST 模式订阅这些前缀，任意节点修改或删除 key 后 Redis 推送失效消息，
+ * 本地随即删除；连接断开期间可能丢失失效消息，因此断开时清空本地缓存，重连并重新开启跟踪之前不使用本地缓存。
+ * 返回的对象在多个调用方之间共享，调用方不可修改
+ */
+@Slf4j
+@Component
+public class RedisNearCache {
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.near.enabled}")
+    private Boolean enabled;
+
+    @Value("${cache.near.prefixes}")
+    private String[] prefixes;
+
+    @Value("${cache.near.max-size}")
+    private Long maxSize;
+
+    @Value("${cache.near.ttl-seconds}")
+    private Long ttlSeconds;
+
+    private Cache<String, Object> cache;
+
+    private AbstractRedisClient client;
+
+    private StatefulRedisConnection<String, String> connection;
+
+    private RedisConnectionStateListener stateListener;
+
+    /**
+     * 失效跟踪是否生效，未生效时读取直接访问 Redis
+     */
+    private volatile boolean tracking;
+
+    private Counter invalidations;
+
+    @PostConstruct
+    public void start() {
+        if (!Boolean.TRUE.equals(enabled) || prefixes.length == 0) {
+            return;
+        }
+        AbstractRedisClient nativeClient = ((LettuceConnectionFactory) redisTemplate.getRequiredConnectionFactory()).getRequiredNativeClient();
+        if (!(nativeClient instanceof RedisClient)) {
+            log.warn("Redis near cache only supports standalone redis, disabled");
+            return;
+        }
+        // 兜底过期，防止极端情况下漏掉失效消息后长期返回旧值
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "redis_near");
+        invalidations = Counter.builder("redis_near_invalidations").register(meterRegistry);
+        Gauge.builder("redis_near_tracking", () -> tracking ? 1 : 0).register(meterRegistry);
+
+        client = nativeClient;
+        connection = ((RedisClient) nativeClient).connect(StringCodec.UTF8);
+        connection.addListener(this::onPush);
+        stateListener = new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+                if (handler == connection) {
+                    enableTracking();
+                }
+            }
+
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                if (handler == connection) {
+                    tracking = false;
+                    cache.invalidateAll();
+                }
+            }
+
+            @Override
+            public void onRedisExceptionCaught(RedisChannelHandler<?, ?> handler, Throwable cause) {
+            }
+        };
+        client.addListener(stateListener);
+        try {
+            connection.sync().clientTracking(trackingArgs());
+            tracking = true;
+        } catch (Exception e) {
+            // RESP2 连接（Redis 6 以下）无法接收推送
+            log.warn("Enable redis client tracking failed, near cache disabled until reconnect: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        tracking = false;
+        if (connection != null) {
+            client.removeListener(stateListener);
+            connection.close();
+        }
+    }
+
+    /**
+     * key 是否使用近端缓存
+     */
+    public boolean accepts(final String key) {
+        if (!tracking) {
+            return false;
+        }
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取 key，本地未命中时调用 remote 从 Redis 读取并保存
+     * 读取期间收到该 key 的失效消息时不保存，避免把旧值留在本地
+     *
+     * @param remote 从 Redis 读取，返回 null 时不缓存
+     */
+    public <T> T get(final String key, final Function<String, T> remote) {
+        if (!accepts(key)) {
+            return remote.apply(key);
+        }
+        Object cached = cache.getIfPresent(key);
+        if (cached != null && !(cached instanceof Loading)) {
+            @SuppressWarnings("unchecked")
+            T value = (T) cached;
+            return value;
+        }
+        Loading marker = new Loading();
+        if (cached != null || cache.asMap().putIfAbsent(key, marker) != null) {
+            // 其他线程正在读取，本次直接访问 Redis
+            return remote.apply(key);
+        }
+        T value;
+        try {
+            value = remote.apply(key);
+        } catch (RuntimeException e) {
+            cache.asMap().remove(key, marker);
+            throw e;
+        }
+        if (value == null) {
+            cache.asMap().remove(key, marker);
+        } else {
+            // 失效消息会删除占位，替换失败说明读到的值可能已过时
+            cache.asMap().replace(key, marker, value);
+        }
+        return value;
+    }
+
+    private void onPush(PushMessage message) {
+        if (!"invalidate".equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        // keys 为空表示 FLUSHALL 等，清空全部
+        if (!(keys instanceof List)) {
+            cache.invalidateAll();
+            invalidations.increment();
+            return;
+        }
+        for (Object key : (List<?>) keys) {
+            cache.invalidate(Objects.toString(key));
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * 重连后重新开启跟踪；回调运行在 IO 线程，只能使用异步命令
+     */
+    private void enableTracking() {
+        connection.async().clientTracking(trackingArgs()).whenComplete((result, error) -> {
+            if (error != null) {
+                log.warn("Re-enable redis client tracking failed: {}", error.getMessage());
+                return;
+            }
+            cache.invalidateAll();
+            tracking = true;
+        });
+    }
+
+    private TrackingArgs trackingArgs() {
+        return TrackingArgs.Builder.enabled().bcast().prefixes(prefixes);
+    }
+
+    /**
+     * 读取中的占位
+     */
+    private static final class Loading {
+    }
+}
@@ -0,0 +1,61 @@
+package com.basis.cache;
+
+import com.basis.model.dto.AvatarUploadCache;
+import com.basis.model.dto.LocalUploadToken;
+import com.basis.model.dto.MultipartManifest;
+import com.basis.model.dto.UserProfileDto;
+import com.basis.model.entity.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 紧凑编码的类型注册表，值中只写入 1 字节类型编号，不再写入完整类名
+ * 编号一经上线不可修改或复用；注册的类型字段需为具体类型，Object 字段在紧凑编码下会丢失类型信息
+ */
+public final class RedisTypeRegistry {
+
+    private final Map<Class<?>, Integer> ids = new HashMap<>();
+
+    private final Class<?>[] types = new Class<?>[256];
+
+    /**
+     * 当前写入 Redis 的对象类型
+     */
+    public static RedisTypeRegistry defaults() {
+        return new RedisTypeRegistry()
+                .register(1, AvatarUploadCache.class)
+                .register(2, LocalUploadToken.class)
+                .register(3, MultipartManifest.class)
+                .register(4, UserProfileDto.class)
+                .register(5, User.class);
+    }
+
+    public RedisTypeRegistry register(int id, Class<?> type) {
+        if (id <= 0 || id >= types.length) {
+            throw new IllegalArgumentException("Type id out of range: " + id);
+        }
+        if (types[id] != null || ids.containsKey(type)) {
+            throw new IllegalArgumentException("Duplicate registration: " + id + " -> " + type.getName());
+        }
+        types[id] = type;
+        ids.put(type, id);
+        return this;
+    }
+
+    /**
+     * @return 类型编号，未注册时返回 0
+     */
+    public int idOf(Class<?> type) {
+        return ids.getOrDefault(type, 0);
+    }
+
+    /**
+     * @return 编号对应的类型，未注册时返回 null
+     */
+    public Class<?> typeOf(int id) {
+        return id > 0 && id < types.length ? types[id] : null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.basis.cache;
+
+import com.basis.model.dto.UserProfileDto;
+import com.basis.utils.RedisUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.basis.model.constant.BasicConstant.USER_PROFILE_INVALIDATE_TOPIC;
+import static com.basis.model.constant.BasicConstant.USER_PROFILE_PREFIX;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 用户资料二级缓存，L1 为进程内 Caffeine，L2 为 Redis，失效通过 Redis 发布订阅广播到其他节点
+ */
+@Slf4j
+@Component
+public class UserProfileCache {
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Resource
+    private RedisCacheLoader redisCacheLoader;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.user-profile.local-max-size}")
+    private Long localMaxSize;
+
+    @Value("${cache.user-profile.local-ttl-seconds}")
+    private Long localTtlSeconds;
+
+    @Value("${cache.user-profile.redis-ttl-seconds}")
+    private Long redisTtlSeconds;
+
+    @Value("${cache.user-profile.redis-stale-seconds}")
+    private Long redisStaleSeconds;
+
+    private Cache<Long, UserProfileDto> localCache;
+
+    private Counter redisHit;
+
+    private Counter redisMiss;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        // L1 命中、未命中、淘汰等指标
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "user_profile_local");
+        // L2 命中、未命中指标
+        redisHit = Counter.builder("user_profile_redis").tag("result", "hit").register(meterRegistry);
+        redisMiss = Counter.builder("user_profile_redis").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * 读取用户资料，依次查询本地缓存、Redis，均未命中时调用 loader 回源并回填
+     * 同一节点上同一用户的并发回源只会执行一次
+     *
+     * @param userId 用户 ID
+     * @param loader 回源加载函数，返回 null 表示用户不存在（不缓存）
+     * @return 用户资料
+     */
+    public UserProfileDto get(Long userId, Function<Long, UserProfileDto> loader) {
+        return localCache.get(userId, key -> loadFromRedis(key, loader));
+    }
+
+    /**
+     * 失效用户资料缓存，需在数据库更新之后调用
+     *
+     * @param userId 用户 ID
+     */
+    public void invalidate(Long userId) {
+        if (Objects.isNull(userId)) {
+            return;
+        }
+        // 同时删除旧版本以字符串保存的 key，滚动发布期间旧节点仍可能读取
+        redisCacheLoader.evict(USER_PROFILE_PREFIX + userId);
+        redisUtils.delKey(USER_PROFILE_PREFIX + userId);
+        localCache.invalidate(userId);
+        // 通知其他节点清理本地缓存
+        redisUtils.getRedisTemplate().convertAndSend(USER_PROFILE_INVALIDATE_TOPIC, String.valueOf(userId));
+    }
+
+    /**
+     * 仅清理本节点的本地缓存，供失效广播监听器调用
+     *
+     * @param userId 用户 ID
+     */
+    public void evictLocal(Long userId) {
+        localCache.invalidate(userId);
+    }
+
+    private UserProfileDto loadFromRedis(Long userId, Function<Long, UserProfileDto> loader) {
+        // Redis 过期时各节点只有一个请求回源数据库
+        AtomicBoolean loaded = new AtomicBoolean();
+        UserProfileDto profile = redisCacheLoader.get(USER_PROFILE_PREFIX + userId, redisTtlSeconds, redisStaleSeconds,
+                UserProfileDto.class, () -> {
+                    loaded.set(true);
+                    return loader.apply(userId);
+                });
+        (loaded.get() ? redisMiss : redisHit).increment();
+        return profile;
+    }
+}
@@ -0,0 +1,36 @@
+package com.basis.cache;
+
+import com.basis.utils.RedisUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Objects;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 用户资料缓存失效广播监听，收到消息后清理本节点的本地缓存
+ */
+@Slf4j
+@Component
+public class UserProfileInvalidationListener implements MessageListener {
+
+    @Resource
+    private UserProfileCache userProfileCache;
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object userId = redisUtils.getRedisTemplate().getValueSerializer().deserialize(message.getBody());
+        if (Objects.isNull(userId)) {
+            return;
+        }
+        log.debug("Evict local user profile cache: {}", userId);
+        userProfileCache.evictLocal(Long.valueOf(userId.toString()));
+    }
+}
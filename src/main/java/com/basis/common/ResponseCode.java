@@ -68,6 +68,14 @@ public enum ResponseCode {
     NOTHING_TO_UPDATE(401019, "未进行任何更新"),
 
     OBTAIN_STS_TOKEN_FAILED(401020, "获取STS凭证失败"),
+
+    CODE_ATTEMPTS_EXCEEDED(401021, "验证码错误次数过多, 请重新获取!"),
+
+    SMS_BUSY(401022, "短信发送繁忙, 请稍后重试!"),
+
+    UPLOAD_INCOMPLETE(401023, "文件分片未全部上传"),
+
+    LOGIN_BUSY(401024, "登录请求繁忙, 请稍后重试!"),
     
     ;
 
@@ -1,5 +1,9 @@
 package com.basis.configuration;
 
+import com.basis.cache.CompactRedisSerializer;
+import com.basis.cache.RedisTypeRegistry;
+import com.basis.cache.UserProfileInvalidationListener;
+import com.basis.permission.PermissionChangeListener;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -9,6 +13,7 @@ import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.cache.CacheManager;
@@ -19,6 +24,8 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -29,6 +36,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import static com.basis.model.constant.BasicConstant.PERMISSION_CHANGE_TOPIC;
+import static com.basis.model.constant.BasicConstant.USER_PROFILE_INVALIDATE_TOPIC;
+
 /**
  * @Author: IT 派同学
  * @Date: 2024/12/7
@@ -51,6 +61,17 @@ public class RedisConfig {
         return serializer;
     }
 
+    /**
+     * Redis 值序列化：注册类型使用紧凑二进制编码，其余沿用 JSON，两种格式均可读取
+     * @param format 写入格式，smile 或 json
+     */
+    @Bean
+    public CompactRedisSerializer redisValueSerializer(Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer,
+                                                       @Value("${redis.codec.format}") String format) {
+        return new CompactRedisSerializer(jackson2JsonRedisSerializer, RedisTypeRegistry.defaults(),
+                "smile".equalsIgnoreCase(format), timeModule());
+    }
+
     @Bean
     public StringRedisSerializer stringRedisSerializer() {
         return new StringRedisSerializer();
@@ -59,33 +80,32 @@ public class RedisConfig {
 
     @Bean
     public RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory lettuceConnectionFactory,
-                                                       Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer,
+                                                       CompactRedisSerializer redisValueSerializer,
                                                        StringRedisSerializer stringRedisSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(lettuceConnectionFactory);
         template.setKeySerializer(stringRedisSerializer);
         template.setHashKeySerializer(stringRedisSerializer);
-        template.setValueSerializer(jackson2JsonRedisSerializer);
-        template.setHashValueSerializer(jackson2JsonRedisSerializer);
+        template.setValueSerializer(redisValueSerializer);
+        template.setHashValueSerializer(redisValueSerializer);
         template.afterPropertiesSet();
         return template;
     }
 
 
     @Bean
-    public RedisCacheConfiguration redisCacheConfiguration(Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer,
+    public RedisCacheConfiguration redisCacheConfiguration(CompactRedisSerializer redisValueSerializer,
                                                            RedisSerializer<String> redisSerializer) {
         return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(3600 * 24 * 10))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(redisSerializer))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jackson2JsonRedisSerializer))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisValueSerializer))
                 .disableCachingNullValues();
     }
 
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory factory,
                                      RedisSerializer<String> redisSerializer,
-                                     Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer,
                                      RedisCacheConfiguration redisCacheConfiguration) {
         RedisCacheManager cacheManager = RedisCacheManager.builder(factory)
                 .cacheDefaults(redisCacheConfiguration)
@@ -93,6 +113,17 @@ public class RedisConfig {
         return cacheManager;
     }
 
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory,
+                                                                       UserProfileInvalidationListener userProfileInvalidationListener,
+                                                                       PermissionChangeListener permissionChangeListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(userProfileInvalidationListener, new ChannelTopic(USER_PROFILE_INVALIDATE_TOPIC));
+        container.addMessageListener(permissionChangeListener, new ChannelTopic(PERMISSION_CHANGE_TOPIC));
+        return container;
+    }
+
     @Bean
     public JavaTimeModule timeModule() {
         JavaTimeModule timeModule = new JavaTimeModule();
@@ -2,10 +2,13 @@ package com.basis.configuration;
 
 import cn.dev33.satoken.interceptor.SaInterceptor;
 import cn.dev33.satoken.stp.StpUtil;
+import com.basis.context.UserContextInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import static com.basis.model.constant.BasicConstant.LOCAL_FILE_URL_PREFIX;
+
 @Configuration
 public class SaTokenConfigure implements WebMvcConfigurer {
 
@@ -20,7 +23,11 @@ public class SaTokenConfigure implements WebMvcConfigurer {
         .excludePathPatterns("/auth/register")
         .excludePathPatterns("/auth/logout")
         .excludePathPatterns("/user/avatar-upload/callback")
+        // 本地存储的头像和缩略图由 <img>、CDN 直接访问，与 OSS 公共读一致，文件名随机不可猜测
+        .excludePathPatterns(LOCAL_FILE_URL_PREFIX + "/**")
         .excludePathPatterns("/doc.html");
+        // 请求结束后清理用户上下文
+        registry.addInterceptor(new UserContextInterceptor()).addPathPatterns("/**");
     }
 }
 
@@ -0,0 +1,42 @@
+package com.basis.configuration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 接口文档兼容配置
+ * actuator 的接口映射使用 PathPatternParser，springfox 只支持 AntPathMatcher，扫描到这些映射时启动失败，
+ * 因此从 springfox 扫描的映射中去掉使用 PathPatternParser 的映射，actuator 接口不出现在文档中
+ */
+@Configuration
+public class SwaggerConfig {
+
+    @Bean
+    public static BeanPostProcessor springfoxHandlerMappingFilter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    handlerMappings(bean).removeIf(mapping -> mapping.getPatternParser() != null);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<RequestMappingInfoHandlerMapping> handlerMappings(Object provider) {
+        Field field = ReflectionUtils.findField(provider.getClass(), "handlerMappings");
+        ReflectionUtils.makeAccessible(field);
+        return (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, provider);
+    }
+}
@@ -0,0 +1,61 @@
+package com.basis.context;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.basis.model.dto.UserProfileDto;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 当前请求的用户上下文
+ * 登录时 StpUtil.login(id) 已经以主键作为 loginId，这里在每个请求内只解析一次，
+ * 后续读取直接走线程变量，不再访问 Sa-Token 会话；请求结束由 UserContextInterceptor 清理
+ */
+public final class UserContext {
+
+    private static final ThreadLocal<Long> USER_ID = new ThreadLocal<>();
+
+    private static final ThreadLocal<UserProfileDto> PROFILE = new ThreadLocal<>();
+
+    private UserContext() {
+    }
+
+    /**
+     * 获取当前登录用户主键
+     *
+     * @return 用户 ID，未登录时抛出 NotLoginException
+     */
+    public static Long getUserId() {
+        Long userId = USER_ID.get();
+        if (Objects.isNull(userId)) {
+            userId = StpUtil.getLoginIdAsLong();
+            USER_ID.set(userId);
+        }
+        return userId;
+    }
+
+    /**
+     * 获取当前登录用户的资料快照，同一请求内只解析一次
+     *
+     * @param resolver 根据用户 ID 加载资料的函数
+     * @return 用户资料，用户不存在时返回 null
+     */
+    public static UserProfileDto getProfile(Function<Long, UserProfileDto> resolver) {
+        UserProfileDto profile = PROFILE.get();
+        if (Objects.isNull(profile)) {
+            profile = resolver.apply(getUserId());
+            PROFILE.set(profile);
+        }
+        return profile;
+    }
+
+    /**
+     * 清理当前线程的用户上下文
+     */
+    public static void clear() {
+        USER_ID.remove();
+        PROFILE.remove();
+    }
+}
@@ -0,0 +1,79 @@
+package com.basis.controller;
+
+import cn.hutool.core.util.StrUtil;
+import com.basis.storage.LocalFileStore;
+import com.basis.utils.ThrowUtil;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.basis.common.ResponseCode.NOT_FOUND;
+import static com.basis.model.constant.BasicConstant.LOCAL_FILE_URL_PREFIX;
+
+/**
+ * <p>
+ * 本地存储文件访问，无需登录，允许 CDN 缓存
+ * 容器支持 sendfile 时交由 Tomcat 直接从文件发送，否则使用 FileChannel.transferTo 写出
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+@RestController
+public class LocalFileController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    @Resource
+    private LocalFileStore localFileStore;
+
+    @ApiOperation(value = "获取本地存储的文件")
+    @GetMapping(LOCAL_FILE_URL_PREFIX + "/**")
+    public void download(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String relative = StrUtil.removePrefix(urlPathHelper.getPathWithinApplication(request), LOCAL_FILE_URL_PREFIX);
+        // 以 . 开头的目录和文件（如分片上传的临时目录）不对外提供访问
+        ThrowUtil.throwIf(relative.startsWith(".") || relative.contains("/."), NOT_FOUND);
+        Path file = localFileStore.existing(relative);
+
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (new ServletWebRequest(request, response).checkNotModified(lastModified)) {
+            return;
+        }
+        long size = Files.size(file);
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=86400");
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        localFileStore.transferTo(file, Channels.newChannel(response.getOutputStream()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.basis.controller;
+
+import com.basis.common.Result;
+import com.basis.service.impl.LocalStorageService;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+/**
+ * <p>
+ * 本地存储模式的头像上传，请求体即文件内容，不经过 multipart 解析
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(prefix = "aliyun.oss.avatar", name = "upload-mode", havingValue = "local")
+public class LocalUploadController {
+
+    @Resource
+    private LocalStorageService localStorageService;
+
+    @ApiOperation(value = "本地存储模式上传头像")
+    @PutMapping(LocalStorageService.UPLOAD_URL_PREFIX + "{token}")
+    public Result<?> upload(@PathVariable String token, HttpServletRequest request) throws IOException {
+        return localStorageService.receive(token, request.getContentType(), request.getContentLengthLong(),
+                Channels.newChannel(request.getInputStream()));
+    }
+}
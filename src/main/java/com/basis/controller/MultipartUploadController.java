@@ -0,0 +1,72 @@
+package com.basis.controller;
+
+import com.basis.common.Result;
+import com.basis.model.vo.MultipartInitVo;
+import com.basis.service.IMultipartUploadService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+/**
+ * <p>
+ * 分片上传，分片内容直接作为请求体上传
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+@RestController
+@Api(tags = "分片上传接口")
+@RequestMapping("/multipart-upload")
+public class MultipartUploadController {
+
+    @Autowired
+    private IMultipartUploadService multipartUploadService;
+
+    @ApiOperation(value = "初始化分片上传")
+    @PostMapping(value = "/init", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Result<?> init(@Validated @RequestBody MultipartInitVo vo) {
+        return multipartUploadService.init(vo);
+    }
+
+    @ApiOperation(value = "上传分片")
+    @PutMapping(value = "/{uploadId}/parts/{partNumber}")
+    public Result<?> uploadPart(@PathVariable String uploadId, @PathVariable Integer partNumber,
+                                HttpServletRequest request) throws IOException {
+        return multipartUploadService.uploadPart(uploadId, partNumber, Channels.newChannel(request.getInputStream()));
+    }
+
+    @ApiOperation(value = "查询分片上传状态")
+    @GetMapping(value = "/{uploadId}")
+    public Result<?> status(@PathVariable String uploadId) {
+        return multipartUploadService.status(uploadId);
+    }
+
+    @ApiOperation(value = "完成分片上传")
+    @PostMapping(value = "/{uploadId}/complete")
+    public Result<?> complete(@PathVariable String uploadId) {
+        return multipartUploadService.complete(uploadId);
+    }
+
+    @ApiOperation(value = "取消分片上传")
+    @DeleteMapping(value = "/{uploadId}")
+    public Result<?> abort(@PathVariable String uploadId) {
+        return multipartUploadService.abort(uploadId);
+    }
+}
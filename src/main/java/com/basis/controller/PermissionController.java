@@ -0,0 +1,82 @@
+package com.basis.controller;
+
+import cn.dev33.satoken.annotation.SaCheckRole;
+import com.basis.common.Result;
+import com.basis.model.vo.AssignPermissionVo;
+import com.basis.model.vo.AssignRoleVo;
+import com.basis.model.vo.InsertPermissionVo;
+import com.basis.model.vo.InsertRoleVo;
+import com.basis.model.vo.RemovePermissionVo;
+import com.basis.service.IPermissionService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * <p>
+ *  角色权限管理
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+@RestController
+@Api(tags = "角色权限管理接口")
+@RequestMapping("/permission")
+public class PermissionController {
+
+    private static final String ADMIN_ROLE = "SYS_ADMIN";
+
+    @Autowired
+    private IPermissionService permissionService;
+
+    @SaCheckRole(ADMIN_ROLE)
+    @ApiOperation(value = "添加角色")
+    @PostMapping(value = "/role/insert", name = "添加角色", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Result<?> insertRole(@Validated @RequestBody InsertRoleVo vo) {
+        return permissionService.insertRole(vo);
+    }
+
+    @SaCheckRole(ADMIN_ROLE)
+    @ApiOperation(value = "添加权限")
+    @PostMapping(value = "/insert", name = "添加权限", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Result<?> insertPermission(@Validated @RequestBody InsertPermissionVo vo) {
+        return permissionService.insertPermission(vo);
+    }
+
+    @SaCheckRole(ADMIN_ROLE)
+    @ApiOperation(value = "为用户分配角色")
+    @PostMapping(value = "/role/assign", name = "为用户分配角色", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Result<?> assignRole(@Validated @RequestBody AssignRoleVo vo) {
+        return permissionService.assignRole(vo);
+    }
+
+    @SaCheckRole(ADMIN_ROLE)
+    @ApiOperation(value = "为角色分配权限")
+    @PostMapping(value = "/assign", name = "为角色分配权限", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Result<?> assignPermission(@Validated @RequestBody AssignPermissionVo vo) {
+        return permissionService.assignPermission(vo);
+    }
+
+    @SaCheckRole(ADMIN_ROLE)
+    @ApiOperation(value = "移除角色的权限")
+    @PostMapping(value = "/remove", name = "移除角色的权限", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Result<?> removePermission(@Validated @RequestBody RemovePermissionVo vo) {
+        return permissionService.removePermission(vo);
+    }
+
+    @ApiOperation(value = "获取当前用户权限")
+    @GetMapping(value = "/list", name = "获取当前用户权限", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Result<?> getPermissionList() {
+        return permissionService.getPermissionList();
+    }
+}
@@ -4,11 +4,11 @@ import cn.dev33.satoken.stp.StpUtil;
 import io.swagger.annotations.ApiOperation;
 
 import com.basis.common.Result;
+import com.basis.model.dto.OssCallbackDto;
 import com.basis.model.vo.LoginVo;
 import com.basis.model.vo.ProfileVo;
 import com.basis.model.vo.RegisterVo;
 import com.basis.model.vo.AvatarMetaVo;
-import com.basis.model.vo.CallbackBodyVo;
 import com.basis.service.IUserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +19,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
+
 /**
  * <p>
  *  前端控制器
@@ -66,8 +68,16 @@ public class UserController {
 
     @ApiOperation(value = "用户头像上传完成回调")
     @PostMapping(value = "/avatar-upload/callback")
-    public Result<?> uploadCallback(@RequestBody(required = true) CallbackBodyVo vo) {
-        return userService.uploadCallback(vo);
+    public Result<?> uploadCallback(HttpServletRequest request, @RequestBody(required = true) String body) {
+        // 保留原始请求体用于校验 OSS 签名
+        OssCallbackDto callback = OssCallbackDto.builder()
+                .authorization(request.getHeader("authorization"))
+                .publicKeyUrl(request.getHeader("x-oss-pub-key-url"))
+                .path(request.getRequestURI())
+                .queryString(request.getQueryString())
+                .body(body)
+                .build();
+        return userService.uploadCallback(callback);
     }
 
     @ApiOperation(value = "获取用头像url")
@@ -0,0 +1,246 @@
+package com.basis.counter;
+
+import com.basis.utils.RedisBatch;
+import com.basis.utils.RedisUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 高频计数聚合
+ * 计数先累加到本地 LongAdder / DoubleAdder（按 key 分条），定时以 pipeline 批量 INCRBY / ZINCRBY 写入 Redis，
+ * Redis 中的值最多落后一个刷新间隔；关闭时强制刷新一次。
+ * 适用于允许短暂延迟的统计类计数（发送次数、上传次数、排行榜分数等），需要立即读到准确值的计数使用 RedisUtils#increment
+ */
+@Slf4j
+@Component
+public class RedisCounterAggregator {
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${counter.flush-interval-ms}")
+    private Long flushIntervalMs;
+
+    private final Map<String, CountStripe> counts = new ConcurrentHashMap<>();
+
+    private final Map<List<Object>, ScoreStripe> scores = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    private Counter flushed;
+
+    private Counter failed;
+
+    @PostConstruct
+    public void start() {
+        flushed = Counter.builder("redis_counter_flush").tag("result", "success").register(meterRegistry);
+        failed = Counter.builder("redis_counter_flush").tag("result", "failure").register(meterRegistry);
+        Gauge.builder("redis_counter_pending", () -> counts.size() + scores.size()).register(meterRegistry);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-counter-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    public void increment(final String key) {
+        add(key, 1, 0);
+    }
+
+    /**
+     * 累加计数
+     *
+     * @param ttlSeconds 大于 0 时每次刷新后设置过期时间，即最后一次写入后 ttlSeconds 秒过期
+     */
+    public void add(final String key, long delta, final long ttlSeconds) {
+        while (true) {
+            CountStripe stripe = counts.computeIfAbsent(key, k -> new CountStripe(ttlSeconds));
+            stripe.adder.add(delta);
+            if (!stripe.retired) {
+                return;
+            }
+            // 条目已被刷新线程摘除，取回可能未被刷新到的增量，放入新条目
+            delta = stripe.adder.sumThenReset();
+            if (delta == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 累加有序集合成员的分数
+     */
+    public void incrementScore(final String key, final Object member, double delta) {
+        List<Object> id = List.of(key, member);
+        while (true) {
+            ScoreStripe stripe = scores.computeIfAbsent(id, k -> new ScoreStripe(key, member));
+            stripe.adder.add(delta);
+            if (!stripe.retired) {
+                return;
+            }
+            delta = stripe.adder.sumThenReset();
+            if (delta == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 本地尚未刷新到 Redis 的增量
+     */
+    public long pending(final String key) {
+        CountStripe stripe = counts.get(key);
+        return stripe == null ? 0 : stripe.adder.sum();
+    }
+
+    /**
+     * Redis 中的值加上本节点未刷新的增量，其他节点未刷新的部分不包含在内
+     */
+    public long get(final String key) {
+        Object value = redisUtils.getValue(key);
+        long stored = value == null ? 0 : ((Number) value).longValue();
+        return stored + pending(key);
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Redis counter flush failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 把本地增量一次 pipeline 写入 Redis；写入失败时增量放回本地，下次刷新重试
+     *
+     * @return 写入的条目数
+     */
+    public synchronized int flush() {
+        RedisBatch batch = redisUtils.batch();
+        List<Runnable> rollback = new ArrayList<>();
+        counts.forEach((key, stripe) -> {
+            long delta = stripe.adder.sumThenReset();
+            if (delta == 0 && retireIfIdle(counts, key, stripe)) {
+                delta = stripe.adder.sumThenReset();
+            }
+            if (delta != 0) {
+                long flushedDelta = delta;
+                stripe.idle = false;
+                batch.increment(key, delta);
+                if (stripe.ttlSeconds > 0) {
+                    batch.expire(key, stripe.ttlSeconds);
+                }
+                rollback.add(() -> add(key, flushedDelta, stripe.ttlSeconds));
+            }
+        });
+        scores.forEach((id, stripe) -> {
+            double delta = stripe.adder.sumThenReset();
+            if (delta == 0 && retireIfIdle(scores, id, stripe)) {
+                delta = stripe.adder.sumThenReset();
+            }
+            if (delta != 0) {
+                double flushedDelta = delta;
+                stripe.idle = false;
+                batch.zsetIncrementScore(stripe.key, stripe.member, flushedDelta);
+                rollback.add(() -> incrementScore(stripe.key, stripe.member, flushedDelta));
+            }
+        });
+        if (rollback.isEmpty()) {
+            return 0;
+        }
+        try {
+            batch.execute();
+            flushed.increment(rollback.size());
+        } catch (Exception e) {
+            failed.increment(rollback.size());
+            rollback.forEach(Runnable::run);
+            throw e;
+        }
+        return rollback.size();
+    }
+
+    /**
+     * 本次刷新没有增量时调用，连续两次刷新没有增量的条目从表中摘除，避免 key 无限增长
+     * 摘除前先标记 retired，之后写入的线程会自行把增量转移到新条目，配合 sumThenReset 保证增量不丢失、不重复
+     *
+     * @return 是否已摘除，摘除后需再取一次增量
+     */
+    private static <K> boolean retireIfIdle(Map<K, ? extends Stripe> map, K id, Stripe stripe) {
+        if (!stripe.idle) {
+            stripe.idle = true;
+            return false;
+        }
+        stripe.retired = true;
+        map.remove(id, stripe);
+        return true;
+    }
+
+    private abstract static class Stripe {
+
+        /**
+         * 已从表中摘除
+         */
+        volatile boolean retired;
+
+        /**
+         * 上一次刷新时没有增量，仅刷新线程访问
+         */
+        boolean idle;
+    }
+
+    private static final class CountStripe extends Stripe {
+
+        final LongAdder adder = new LongAdder();
+
+        final long ttlSeconds;
+
+        CountStripe(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+    }
+
+    private static final class ScoreStripe extends Stripe {
+
+        final DoubleAdder adder = new DoubleAdder();
+
+        final String key;
+
+        final Object member;
+
+        ScoreStripe(String key, Object member) {
+            this.key = key;
+            this.member = Objects.requireNonNull(member);
+        }
+    }
+}
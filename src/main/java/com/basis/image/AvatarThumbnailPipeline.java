@@ -0,0 +1,123 @@
+package com.basis.image;
+
+import com.basis.storage.LocalFileStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.basis.model.constant.BasicConstant.LOCAL_FILE_URL_PREFIX;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像缩略图生成
+ * 头像更新后提交到有界线程池异步生成各尺寸缩略图，队列满时丢弃任务，客户端可回退到原图
+ */
+@Slf4j
+@Component
+public class AvatarThumbnailPipeline {
+
+    @Resource
+    private LocalFileStore localFileStore;
+
+    @Resource
+    private AvatarVariants avatarVariants;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${avatar.thumbnail.workers}")
+    private Integer workers;
+
+    @Value("${avatar.thumbnail.queue-capacity}")
+    private Integer queueCapacity;
+
+    @Value("${avatar.thumbnail.max-pixels}")
+    private Long maxPixels;
+
+    @Value("${avatar.thumbnail.jpeg-quality}")
+    private Float jpegQuality;
+
+    private ThreadPoolExecutor executor;
+
+    private ThumbnailGenerator generator;
+
+    private Timer latency;
+
+    private Counter succeeded;
+
+    private Counter failed;
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void start() {
+        generator = new ThumbnailGenerator(maxPixels, jpegQuality);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "avatar-thumbnail-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("avatar_thumbnail_queue_size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        latency = Timer.builder("avatar_thumbnail_latency").register(meterRegistry);
+        succeeded = Counter.builder("avatar_thumbnail").tag("result", "success").register(meterRegistry);
+        failed = Counter.builder("avatar_thumbnail").tag("result", "failure").register(meterRegistry);
+        rejected = Counter.builder("avatar_thumbnail").tag("result", "rejected").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交缩略图生成任务，只处理本地存储的头像
+     *
+     * @param avatar 数据库中保存的头像路径
+     */
+    public void submit(String avatar) {
+        if (!avatarVariants.isLocal(avatar)) {
+            return;
+        }
+        try {
+            executor.execute(() -> latency.record(() -> generate(avatar)));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Thumbnail queue is full, skip {}", avatar);
+        }
+    }
+
+    private void generate(String avatar) {
+        String relative = avatar.substring(LOCAL_FILE_URL_PREFIX.length());
+        String format = AvatarVariants.variantFormat(relative);
+        try {
+            Path source = localFileStore.existing(relative);
+            Map<Integer, BufferedImage> thumbnails = generator.generate(source, avatarVariants.getSizes(), format);
+            for (Map.Entry<Integer, BufferedImage> entry : thumbnails.entrySet()) {
+                generator.write(entry.getValue(), format, localFileStore.resolve(AvatarVariants.variantPath(relative, entry.getKey())));
+            }
+            succeeded.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.error("Generate thumbnails of {} failed: {}", avatar, e.getMessage());
+        }
+    }
+}
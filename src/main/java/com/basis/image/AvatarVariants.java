@@ -0,0 +1,76 @@
+package com.basis.image;
+
+import cn.hutool.core.util.StrUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.basis.model.constant.BasicConstant.LOCAL_FILE_URL_PREFIX;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像多尺寸地址
+ * 本地存储的头像由 AvatarThumbnailPipeline 在原图旁生成 {原文件名}_{边长}.{jpg|png}；
+ * OSS 上的头像使用 OSS 图片处理参数按需缩放，不需要服务端生成
+ */
+@Component
+public class AvatarVariants {
+
+    /**
+     * 原图在地址表中的 key
+     */
+    public static final String ORIGINAL = "original";
+
+    @Value("${avatar.thumbnail.sizes}")
+    private int[] sizes;
+
+    public int[] getSizes() {
+        return sizes.clone();
+    }
+
+    /**
+     * 构造 尺寸 -> 地址 表
+     *
+     * @param baseUrl 访问地址前缀
+     * @param avatar  数据库中保存的头像路径
+     * @return 各尺寸地址，另含原图地址；没有头像时返回空表
+     */
+    public Map<String, String> urls(String baseUrl, String avatar) {
+        if (StrUtil.isEmpty(avatar)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        boolean local = isLocal(avatar);
+        for (int size : sizes) {
+            urls.put(String.valueOf(size), baseUrl + (local
+                    ? variantPath(avatar, size)
+                    : avatar + "?x-oss-process=image/resize,m_fill,w_" + size + ",h_" + size));
+        }
+        urls.put(ORIGINAL, baseUrl + avatar);
+        return urls;
+    }
+
+    /**
+     * 头像是否保存在本地存储
+     */
+    public boolean isLocal(String avatar) {
+        return avatar.startsWith(LOCAL_FILE_URL_PREFIX + "/");
+    }
+
+    /**
+     * 缩略图路径，PNG 原图保留透明通道输出 PNG，其余输出 JPEG
+     */
+    public static String variantPath(String original, int size) {
+        int dot = original.lastIndexOf('.');
+        String base = dot > original.lastIndexOf('/') ? original.substring(0, dot) : original;
+        return base + "_" + size + "." + variantFormat(original);
+    }
+
+    public static String variantFormat(String original) {
+        return StrUtil.endWithIgnoreCase(original, ".png") ? "png" : "jpg";
+    }
+}
@@ -0,0 +1,167 @@
+package com.basis.image;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 正方形缩略图生成
+ * 解码时只读取居中的正方形区域，并按最大目标尺寸的 2 倍做隔行采样，大图不会以原始分辨率完整解码；
+ * 各尺寸从大到小依次生成，每个尺寸以上一个结果为输入逐级减半缩放
+ */
+public class ThumbnailGenerator {
+
+    /**
+     * 允许解码的最大像素数，防止解压炸弹
+     */
+    private final long maxPixels;
+
+    private final float jpegQuality;
+
+    public ThumbnailGenerator(long maxPixels, float jpegQuality) {
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * 生成缩略图
+     *
+     * @param source 原图
+     * @param sizes  目标边长
+     * @param format 输出格式，jpg 或 png
+     * @return 边长 -> 缩略图
+     */
+    public Map<Integer, BufferedImage> generate(Path source, int[] sizes, String format) throws IOException {
+        int[] sorted = Arrays.stream(sizes).boxed().sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+        BufferedImage current = decode(source, sorted[0], "jpg".equals(format));
+        Map<Integer, BufferedImage> result = new LinkedHashMap<>();
+        for (int size : sorted) {
+            current = scale(current, size);
+            result.put(size, current);
+        }
+        return result;
+    }
+
+    /**
+     * 写出缩略图，先写临时文件再原子替换
+     */
+    public void write(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg".equals(format) ? "jpeg" : format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(Files.newOutputStream(temp))) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if ("jpg".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private BufferedImage decode(Path source, int largest, boolean opaque) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                throw new IOException("Cannot open " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image " + source);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                int side = Math.min(width, height);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                int subsampling = Math.max(1, side / (largest * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                return normalize(image, opaque);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 逐级减半缩放到目标边长，比一次缩放的质量更好
+     */
+    private static BufferedImage scale(BufferedImage image, int size) {
+        BufferedImage current = image;
+        int side = current.getWidth();
+        while (side > size) {
+            side = Math.max(size, side / 2);
+            current = resize(current, side);
+        }
+        return side == size ? current : resize(current, size);
+    }
+
+    private static BufferedImage resize(BufferedImage image, int side) {
+        BufferedImage resized = new BufferedImage(side, side, image.getType());
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, side, side, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    /**
+     * 统一为 RGB 或 ARGB，JPEG 不支持透明通道
+     */
+    private static BufferedImage normalize(BufferedImage image, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        if (image.getType() == type) {
+            return image;
+        }
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = converted.createGraphics();
+        try {
+            if (opaque) {
+                // 透明区域以白色填充
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            }
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,353 @@
+package com.basis.mail;
+
+import com.basis.utils.RedisUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.mail.Message;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.basis.model.constant.BasicConstant.MAIL_CONSUMER_GROUP;
+import static com.basis.model.constant.BasicConstant.MAIL_DEAD_LETTER_KEY;
+import static com.basis.model.constant.BasicConstant.MAIL_STREAM_KEY;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 邮件发送调度
+ * 以消费组方式读取 Redis Stream，由固定数量的发送线程通过 SMTP 连接池发送；
+ * 发送失败的消息不确认，留在 pending 列表中，按投递次数指数退避后被任一节点重新认领，
+ * 超过最大尝试次数后转入死信队列。节点宕机时未确认的消息同样会被其他节点认领
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "mail.queue", name = "consumer-enabled", havingValue = "true", matchIfMissing = true)
+public class MailDispatcher {
+
+    private static final Duration READ_BLOCK = Duration.ofMillis(500);
+
+    private static final int RECLAIM_SCAN_SIZE = 100;
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Resource
+    private MailTransportPool transportPool;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.mail.username}")
+    private String from;
+
+    @Value("${mail.queue.workers}")
+    private Integer workers;
+
+    @Value("${mail.queue.max-attempts}")
+    private Integer maxAttempts;
+
+    @Value("${mail.queue.retry-base-ms}")
+    private Long retryBaseMs;
+
+    @Value("${mail.queue.retry-scan-ms}")
+    private Long retryScanMs;
+
+    @Value("${mail.queue.dead-letter-max-len}")
+    private Long deadLetterMaxLen;
+
+    private final String consumerName = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * 本节点正在发送的消息，认领 pending 消息时跳过
+     */
+    private final Set<RecordId> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService senders;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 空闲发送线程数，读取队列时最多取这么多条，避免消息堆积在本地线程池
+     */
+    private Semaphore idleSenders;
+
+    private volatile boolean running;
+
+    private Timer sendLatency;
+
+    private Timer queueLatency;
+
+    private Counter sent;
+
+    private Counter failed;
+
+    private Counter deadLettered;
+
+    @PostConstruct
+    public void start() {
+        createGroup();
+        Gauge.builder("mail_queue_depth", this::queueDepth).register(meterRegistry);
+        sendLatency = Timer.builder("mail_send_latency").register(meterRegistry);
+        queueLatency = Timer.builder("mail_queue_latency").register(meterRegistry);
+        sent = Counter.builder("mail_send").tag("result", "success").register(meterRegistry);
+        failed = Counter.builder("mail_send").tag("result", "failure").register(meterRegistry);
+        deadLettered = Counter.builder("mail_send").tag("result", "dead_letter").register(meterRegistry);
+
+        idleSenders = new Semaphore(workers);
+        senders = Executors.newFixedThreadPool(workers, namedThreads("mail-sender-"));
+        scheduler = Executors.newScheduledThreadPool(2, namedThreads("mail-dispatcher-"));
+        running = true;
+        scheduler.execute(this::pollLoop);
+        scheduler.scheduleWithFixedDelay(this::reclaimPending, retryScanMs, retryScanMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        scheduler.shutdownNow();
+        senders.shutdown();
+        // 未发送完的消息保持未确认状态，由其他节点或重启后认领
+        if (!senders.awaitTermination(10, TimeUnit.SECONDS)) {
+            senders.shutdownNow();
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            int permits = 0;
+            try {
+                idleSenders.acquire();
+                permits = 1 + idleSenders.drainPermits();
+                List<MapRecord<String, Object, Object>> records = streamOps().read(
+                        Consumer.from(MAIL_CONSUMER_GROUP, consumerName),
+                        StreamReadOptions.empty().count(permits).block(READ_BLOCK),
+                        StreamOffset.create(MAIL_STREAM_KEY, ReadOffset.lastConsumed()));
+                int taken = Objects.isNull(records) ? 0 : records.size();
+                idleSenders.release(permits - taken);
+                permits = 0;
+                for (int i = 0; i < taken; i++) {
+                    submit(records.get(i), 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                idleSenders.release(permits);
+                if (!running) {
+                    return;
+                }
+                log.error("Read mail queue failed: {}", e.getMessage());
+                sleepQuietly(1000);
+            }
+        }
+    }
+
+    /**
+     * 认领退避时间已到的 pending 消息重新发送
+     */
+    private void reclaimPending() {
+        try {
+            PendingMessages pending = streamOps().pending(MAIL_STREAM_KEY, MAIL_CONSUMER_GROUP, Range.unbounded(), RECLAIM_SCAN_SIZE);
+            for (PendingMessage message : pending) {
+                if (inFlight.contains(message.getId())) {
+                    continue;
+                }
+                Duration backoff = backoff(message.getTotalDeliveryCount());
+                if (message.getElapsedTimeSinceLastDelivery().compareTo(backoff) < 0) {
+                    continue;
+                }
+                if (!idleSenders.tryAcquire()) {
+                    return;
+                }
+                // 以退避时间作为最小空闲时间认领，多个节点同时认领时只有一个成功
+                List<MapRecord<String, Object, Object>> claimed = claim(message.getId(), backoff);
+                if (claimed.isEmpty()) {
+                    idleSenders.release();
+                    // 消息已被删除或被其他节点认领
+                    continue;
+                }
+                submit(claimed.get(0), (int) message.getTotalDeliveryCount() + 1);
+            }
+        } catch (Exception e) {
+            log.error("Reclaim pending mail failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 提交到发送线程，调用前需已占用一个空闲发送线程
+     */
+    private void submit(MapRecord<String, Object, Object> record, int attempt) {
+        inFlight.add(record.getId());
+        try {
+            senders.execute(() -> {
+                try {
+                    deliver(record, attempt);
+                } finally {
+                    inFlight.remove(record.getId());
+                    idleSenders.release();
+                }
+            });
+        } catch (Exception e) {
+            // 停机期间提交失败，消息保持未确认
+            inFlight.remove(record.getId());
+            idleSenders.release();
+        }
+    }
+
+    private void deliver(MapRecord<String, Object, Object> record, int attempt) {
+        Map<Object, Object> fields = record.getValue();
+        Transport transport = null;
+        long start = System.nanoTime();
+        try {
+            transport = transportPool.borrow();
+            MimeMessage message = new MimeMessage(transportPool.getSession());
+            message.setFrom(new InternetAddress(from));
+            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(String.valueOf(fields.get(MailQueue.FIELD_TO))));
+            message.setSubject(String.valueOf(fields.get(MailQueue.FIELD_SUBJECT)), StandardCharsets.UTF_8.name());
+            message.setContent(String.valueOf(fields.get(MailQueue.FIELD_CONTENT)), "text/html;charset=UTF-8");
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            transportPool.release(transport);
+        } catch (Exception e) {
+            if (Objects.nonNull(transport)) {
+                transportPool.invalidate(transport);
+            }
+            onFailure(record, attempt, e);
+            return;
+        }
+        sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        queueLatency.record(Math.max(0, System.currentTimeMillis() - record.getId().getTimestamp()), TimeUnit.MILLISECONDS);
+        sent.increment();
+        acknowledge(record.getId());
+    }
+
+    private void onFailure(MapRecord<String, Object, Object> record, int attempt, Exception e) {
+        failed.increment();
+        if (attempt < maxAttempts) {
+            log.warn("Send mail {} failed (attempt {}/{}), will retry: {}", record.getId(), attempt, maxAttempts, e.getMessage());
+            return;
+        }
+        log.error("Send mail {} failed after {} attempts, move to dead letter: {}", record.getId(), attempt, e.getMessage());
+        Map<String, Object> fields = new HashMap<>(8);
+        record.getValue().forEach((key, value) -> fields.put(String.valueOf(key), value));
+        fields.put(MailQueue.FIELD_ERROR, String.valueOf(e.getMessage()));
+        fields.put(MailQueue.FIELD_ATTEMPTS, attempt);
+        addDeadLetter(fields);
+        deadLettered.increment();
+        acknowledge(record.getId());
+    }
+
+    private void addDeadLetter(Map<String, Object> fields) {
+        streamOps().add(MapRecord.create(MAIL_DEAD_LETTER_KEY, fields));
+        streamOps().trim(MAIL_DEAD_LETTER_KEY, deadLetterMaxLen, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> claim(RecordId id, Duration minIdleTime) {
+        RedisTemplate<String, Object> template = redisUtils.getRedisTemplate();
+        List<ByteRecord> records = template.execute((RedisCallback<List<ByteRecord>>) connection -> connection.streamCommands()
+                .xClaim(MAIL_STREAM_KEY.getBytes(StandardCharsets.UTF_8), MAIL_CONSUMER_GROUP, consumerName, minIdleTime, id));
+        if (Objects.isNull(records)) {
+            return Collections.emptyList();
+        }
+        return records.stream()
+                .map(record -> record.deserialize(template.getStringSerializer(),
+                        (RedisSerializer<Object>) template.getHashKeySerializer(),
+                        (RedisSerializer<Object>) template.getHashValueSerializer()))
+                .collect(Collectors.toList());
+    }
+
+    private void acknowledge(RecordId id) {
+        streamOps().acknowledge(MAIL_STREAM_KEY, MAIL_CONSUMER_GROUP, id);
+        // 已确认的消息直接删除，使队列长度即为积压数量
+        streamOps().delete(MAIL_STREAM_KEY, id);
+    }
+
+    private void createGroup() {
+        try {
+            redisUtils.getRedisTemplate().execute((RedisCallback<String>) connection -> connection.streamCommands().xGroupCreate(
+                    MAIL_STREAM_KEY.getBytes(StandardCharsets.UTF_8), MAIL_CONSUMER_GROUP, ReadOffset.from("0"), true));
+        } catch (Exception e) {
+            // 消费组已存在
+            log.debug("Create mail consumer group: {}", e.getMessage());
+        }
+    }
+
+    private Duration backoff(long deliveryCount) {
+        long shift = Math.min(Math.max(deliveryCount - 1, 0), 10);
+        return Duration.ofMillis(retryBaseMs << shift);
+    }
+
+    private double queueDepth() {
+        try {
+            Long size = streamOps().size(MAIL_STREAM_KEY);
+            return Objects.isNull(size) ? 0 : size;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private StreamOperations<String, Object, Object> streamOps() {
+        return redisUtils.getRedisTemplate().opsForStream();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
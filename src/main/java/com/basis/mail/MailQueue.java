@@ -0,0 +1,50 @@
+package com.basis.mail;
+
+import com.basis.utils.RedisUtils;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.basis.model.constant.BasicConstant.MAIL_STREAM_KEY;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 邮件发送队列，请求线程只负责写入 Redis Stream，由 MailDispatcher 异步发送
+ */
+@Component
+public class MailQueue {
+
+    static final String FIELD_TO = "to";
+
+    static final String FIELD_SUBJECT = "subject";
+
+    static final String FIELD_CONTENT = "content";
+
+    static final String FIELD_ERROR = "error";
+
+    static final String FIELD_ATTEMPTS = "attempts";
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    /**
+     * 将 HTML 邮件加入发送队列
+     *
+     * @param to      收件人
+     * @param subject 主题
+     * @param content HTML 正文
+     * @return 队列中的消息 ID
+     */
+    public RecordId enqueue(String to, String subject, String content) {
+        Map<String, Object> fields = new HashMap<>(4);
+        fields.put(FIELD_TO, to);
+        fields.put(FIELD_SUBJECT, subject);
+        fields.put(FIELD_CONTENT, content);
+        return redisUtils.getRedisTemplate().opsForStream().add(MapRecord.create(MAIL_STREAM_KEY, fields));
+    }
+}
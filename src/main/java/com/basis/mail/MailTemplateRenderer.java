@@ -0,0 +1,134 @@
+package com.basis.mail;
+
+import com.basis.model.enums.MailTemplateEnums;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateExceptionHandler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ResourceBundle;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 验证码邮件渲染
+ * 启动时解析模板并按场景、语言准备好文案，发送时只需填入验证码；
+ * 每个线程复用同一个输出缓冲区
+ */
+@Component
+public class MailTemplateRenderer {
+
+    private static final String TEMPLATE = "mail/code.ftlh";
+
+    private static final String BUNDLE = "i18n/mail";
+
+    private static final Locale DEFAULT_LOCALE = Locale.SIMPLIFIED_CHINESE;
+
+    private static final List<Locale> SUPPORTED_LOCALES = Arrays.asList(Locale.SIMPLIFIED_CHINESE, Locale.ENGLISH);
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final ThreadLocal<StringWriter> buffers = ThreadLocal.withInitial(() -> new StringWriter(BUFFER_SIZE));
+
+    private Template template;
+
+    /**
+     * 语言 -> 场景 -> 模板中除验证码外的全部变量
+     */
+    private final Map<Locale, Map<MailTemplateEnums, Map<String, Object>>> models = new HashMap<>();
+
+    /**
+     * 语言 -> 场景 -> 邮件主题
+     */
+    private final Map<Locale, Map<MailTemplateEnums, String>> subjects = new HashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Configuration configuration = new Configuration(Configuration.VERSION_2_3_31);
+        configuration.setClassForTemplateLoading(MailTemplateRenderer.class, "/templates");
+        configuration.setDefaultEncoding("UTF-8");
+        configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        configuration.setLogTemplateExceptions(false);
+        // .ftlh 后缀自动开启 HTML 转义
+        template = configuration.getTemplate(TEMPLATE);
+
+        for (Locale locale : SUPPORTED_LOCALES) {
+            // 不回退到 JVM 默认语言，找不到对应语言时直接使用默认文案
+            ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, locale,
+                    ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+            Map<MailTemplateEnums, Map<String, Object>> localeModels = new EnumMap<>(MailTemplateEnums.class);
+            Map<MailTemplateEnums, String> localeSubjects = new EnumMap<>(MailTemplateEnums.class);
+            for (MailTemplateEnums scene : MailTemplateEnums.values()) {
+                Map<String, Object> model = new HashMap<>();
+                for (String key : bundle.keySet()) {
+                    if (!key.contains(".")) {
+                        model.put(key, bundle.getString(key));
+                    }
+                }
+                model.put("lang", locale.toLanguageTag());
+                model.put("action", bundle.getString(scene.getKey() + ".action"));
+                localeModels.put(scene, Collections.unmodifiableMap(model));
+                localeSubjects.put(scene, bundle.getString(scene.getKey() + ".subject"));
+            }
+            models.put(locale, localeModels);
+            subjects.put(locale, localeSubjects);
+        }
+    }
+
+    /**
+     * 邮件主题
+     */
+    public String subject(MailTemplateEnums scene, Locale locale) {
+        return subjects.get(resolve(locale)).get(scene);
+    }
+
+    /**
+     * 渲染验证码邮件正文
+     *
+     * @param scene  场景
+     * @param locale 语言，不支持的语言使用中文
+     * @param code   验证码
+     * @return HTML 正文
+     */
+    public String render(MailTemplateEnums scene, Locale locale, String code) {
+        Map<String, Object> model = new HashMap<>(models.get(resolve(locale)).get(scene));
+        List<String> codes = new ArrayList<>(code.length());
+        for (int i = 0; i < code.length(); i++) {
+            codes.add(String.valueOf(code.charAt(i)));
+        }
+        model.put("codes", codes);
+
+        StringWriter buffer = buffers.get();
+        buffer.getBuffer().setLength(0);
+        try {
+            template.process(model, buffer);
+        } catch (TemplateException | IOException e) {
+            throw new IllegalStateException("Render mail template failed", e);
+        }
+        return buffer.toString();
+    }
+
+    private Locale resolve(Locale locale) {
+        if (Objects.nonNull(locale)) {
+            for (Locale supported : SUPPORTED_LOCALES) {
+                if (supported.getLanguage().equals(locale.getLanguage())) {
+                    return supported;
+                }
+            }
+        }
+        return DEFAULT_LOCALE;
+    }
+}
@@ -0,0 +1,115 @@
+package com.basis.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: SMTP 连接池，复用已完成 SSL 握手和认证的连接，避免每封邮件重新建连
+ */
+@Slf4j
+@Component
+public class MailTransportPool {
+
+    @Resource
+    private JavaMailSenderImpl mailSender;
+
+    @Value("${mail.queue.workers}")
+    private Integer workers;
+
+    private Session session;
+
+    private GenericObjectPool<Transport> pool;
+
+    @PostConstruct
+    public void init() {
+        Properties properties = new Properties();
+        properties.putAll(mailSender.getJavaMailProperties());
+        // 未配置时给 SMTP 读写加上超时，避免发送线程被挂起的连接长期占用
+        properties.putIfAbsent("mail.smtp.connectiontimeout", "5000");
+        properties.putIfAbsent("mail.smtp.timeout", "10000");
+        properties.putIfAbsent("mail.smtp.writetimeout", "10000");
+        session = Session.getInstance(properties);
+
+        GenericObjectPoolConfig<Transport> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(workers);
+        config.setMaxIdle(workers);
+        config.setTestOnBorrow(true);
+        // 服务端会断开长时间空闲的连接，定期清理
+        config.setMinEvictableIdleTime(Duration.ofMinutes(2));
+        config.setTimeBetweenEvictionRuns(Duration.ofSeconds(30));
+        config.setJmxEnabled(false);
+        pool = new GenericObjectPool<>(new TransportFactory(), config);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pool.close();
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public Transport borrow() throws Exception {
+        return pool.borrowObject();
+    }
+
+    public void release(Transport transport) {
+        pool.returnObject(transport);
+    }
+
+    /**
+     * 发送失败的连接状态未知，直接销毁
+     */
+    public void invalidate(Transport transport) {
+        try {
+            pool.invalidateObject(transport);
+        } catch (Exception e) {
+            log.warn("Invalidate smtp transport failed: {}", e.getMessage());
+        }
+    }
+
+    private class TransportFactory extends BasePooledObjectFactory<Transport> {
+
+        @Override
+        public Transport create() throws Exception {
+            Transport transport = session.getTransport(Objects.toString(mailSender.getProtocol(), "smtp"));
+            transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            return transport;
+        }
+
+        @Override
+        public PooledObject<Transport> wrap(Transport transport) {
+            return new DefaultPooledObject<>(transport);
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<Transport> p) {
+            // SMTP 的 isConnected 会发送 NOOP 探测连接是否仍可用
+            return p.getObject().isConnected();
+        }
+
+        @Override
+        public void destroyObject(PooledObject<Transport> p) throws Exception {
+            p.getObject().close();
+        }
+    }
+}
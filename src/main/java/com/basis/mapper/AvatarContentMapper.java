@@ -0,0 +1,46 @@
+package com.basis.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.basis.model.entity.AvatarContent;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * <p>
+ *  Mapper 接口
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+public interface AvatarContentMapper extends BaseMapper<AvatarContent> {
+
+    /**
+     * 内容不存在时写入，已存在时刷新更新时间
+     * 头像路径与其他内容冲突时同样只刷新那一行，调用方需按摘要读回确认
+     *
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO xx_avatar_content (sha256, avatar, size, ref_count, create_time, update_time) " +
+            "VALUES (#{sha256}, #{avatar}, #{size}, 0, NOW(), NOW()) ON DUPLICATE KEY UPDATE update_time = NOW()")
+    int insertOrTouch(AvatarContent content);
+
+    /**
+     * 刷新更新时间，清理任务不会回收最近使用过的内容
+     *
+     * @return 更新行数，内容不存在时为 0
+     */
+    @Update("UPDATE xx_avatar_content SET update_time = NOW() WHERE sha256 = #{sha256}")
+    int touch(@Param("sha256") String sha256);
+
+    /**
+     * 调整头像引用数
+     *
+     * @param avatar 头像路径
+     * @param delta  增量
+     * @return 更新行数，不是去重头像时为 0
+     */
+    @Update("UPDATE xx_avatar_content SET ref_count = ref_count + #{delta}, update_time = NOW() WHERE avatar = #{avatar}")
+    int addRefs(@Param("avatar") String avatar, @Param("delta") int delta);
+}
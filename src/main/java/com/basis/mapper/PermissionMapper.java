@@ -0,0 +1,16 @@
+package com.basis.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.basis.model.entity.Permission;
+
+/**
+ * <p>
+ *  Mapper 接口
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2024-12-07
+ */
+public interface PermissionMapper extends BaseMapper<Permission> {
+
+}
@@ -2,6 +2,8 @@ package com.basis.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.basis.model.entity.User;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * <p>
@@ -13,4 +15,13 @@ import com.basis.model.entity.User;
  */
 public interface UserMapper extends BaseMapper<User> {
 
+    /**
+     * 登录后升级密码哈希，旧版盐随之清空；密码在此期间被修改时不覆盖
+     *
+     * @param hash     新哈希
+     * @param previous 升级前的哈希
+     * @return 更新行数，密码已被修改时为 0
+     */
+    @Update("UPDATE xx_user SET password = #{hash}, salt = NULL, update_time = NOW() WHERE id = #{id} AND password = #{previous}")
+    int updatePasswordHash(@Param("id") Long id, @Param("hash") String hash, @Param("previous") String previous);
 }
@@ -21,4 +21,76 @@ public interface BasicConstant {
 
     // 普通验证码缓存前缀
     public static final String NORMAL_CODE_PREFIX = "normal_prefix_";
+
+    // 验证码 hash 中保存验证码的字段
+    public static final String CAPTCHA_CODE_FIELD = "code";
+
+    // 验证码允许的最大错误次数，超过后验证码作废
+    public static final int CAPTCHA_MAX_ATTEMPTS = 5;
+
+    // 用户资料缓存前缀
+    public static final String USER_PROFILE_PREFIX = "user_profile_";
+
+    // 用户资料缓存失效广播频道
+    public static final String USER_PROFILE_INVALIDATE_TOPIC = "user_profile_invalidate";
+
+    // 权限变更广播频道
+    public static final String PERMISSION_CHANGE_TOPIC = "permission_change";
+
+    // 权限变更事件：角色图变更
+    public static final String PERMISSION_CHANGE_GRAPH = "graph";
+
+    // 权限变更事件：用户角色变更前缀
+    public static final String PERMISSION_CHANGE_USER_PREFIX = "user:";
+
+    // 待发送邮件队列（Redis Stream）
+    public static final String MAIL_STREAM_KEY = "mail_outbound";
+
+    // 多次发送失败的邮件（Redis Stream）
+    public static final String MAIL_DEAD_LETTER_KEY = "mail_dead_letter";
+
+    // 邮件发送消费组
+    public static final String MAIL_CONSUMER_GROUP = "mail_dispatcher";
+
+    // 头像上传缓存前缀，后接 OSS 对象名
+    public static final String AVATAR_UPLOAD_PREFIX = "avatar_upload_";
+
+    // 头像上传申请 STS 凭证时使用的角色会话名称
+    public static final String AVATAR_STS_SESSION_NAME = "avatar-upload";
+
+    // 头像上传回调幂等键前缀，后接 OSS 对象名
+    public static final String AVATAR_CALLBACK_PREFIX = "avatar_callback_";
+
+    // 待更新头像队列（Redis Stream）
+    public static final String AVATAR_UPDATE_STREAM_KEY = "avatar_update";
+
+    // 头像更新消费组
+    public static final String AVATAR_UPDATE_GROUP = "avatar_updater";
+
+    // 头像本地上传令牌前缀
+    public static final String AVATAR_LOCAL_TOKEN_PREFIX = "avatar_local_token_";
+
+    // 本地存储文件的访问路径前缀
+    public static final String LOCAL_FILE_URL_PREFIX = "/files";
+
+    // 分片上传清单前缀，后接上传 ID
+    public static final String MULTIPART_MANIFEST_PREFIX = "multipart_manifest_";
+
+    // 分片上传已接收分片位图前缀，后接上传 ID
+    public static final String MULTIPART_PARTS_PREFIX = "multipart_parts_";
+
+    // 分片上传合并锁前缀，后接上传 ID
+    public static final String MULTIPART_COMPLETE_LOCK_PREFIX = "multipart_complete_";
+
+    // 头像存储清理锁，同一轮清理只由一个节点执行
+    public static final String AVATAR_GC_LOCK_KEY = "avatar_gc_lock";
+
+    // 防击穿缓存前缀，后接业务 key；值保存在 hash 中，另带逻辑过期时间和加载耗时
+    public static final String CACHE_LOADER_PREFIX = "cache_";
+
+    // 防击穿缓存加载锁后缀，同一 key 同一时间只有一个节点回源
+    public static final String CACHE_LOADER_LOCK_SUFFIX = "_lock";
+
+    // 微信接口调用凭证缓存前缀，后接 appId
+    public static final String WECHAT_ACCESS_TOKEN_PREFIX = "wechat_access_token_";
 }
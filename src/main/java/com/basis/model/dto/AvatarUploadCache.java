@@ -15,6 +15,11 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AvatarUploadCache {
 
+    /**
+     * 用户 ID
+     */
+    private Long userId;
+
     /**
      * 用户名
      */
@@ -0,0 +1,37 @@
+package com.basis.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 本地存储上传令牌
+ * 上传初始化时签发，上传请求凭令牌写入指定路径，使用一次后作废
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocalUploadToken {
+
+    /**
+     * 用户 ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 文件对象路径
+     */
+    private String objectPath;
+
+    /**
+     * 声明的文件MIME类型
+     */
+    private String mimeType;
+}
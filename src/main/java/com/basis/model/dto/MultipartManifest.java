@@ -0,0 +1,62 @@
+package com.basis.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分片上传清单
+ * 保存在 Redis 中，已接收的分片另以位图记录，节点重启后仍可继续上传
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultipartManifest {
+
+    /**
+     * 上传 ID
+     */
+    private String uploadId;
+
+    /**
+     * 用户 ID
+     */
+    private Long userId;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件MIME类型
+     */
+    private String contentType;
+
+    /**
+     * 文件大小
+     */
+    private Long fileSize;
+
+    /**
+     * 分片大小
+     */
+    private Long partSize;
+
+    /**
+     * 分片数量
+     */
+    private Integer partCount;
+
+    /**
+     * 上传完成后的文件相对路径
+     */
+    private String objectPath;
+
+    /**
+     * 创建时间戳
+     */
+    private Long createTime;
+}
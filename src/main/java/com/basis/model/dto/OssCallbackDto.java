@@ -0,0 +1,42 @@
+package com.basis.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OSS 上传回调请求
+ * 保留原始请求体和签名相关的请求头，用于校验签名
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OssCallbackDto {
+
+    /**
+     * authorization 请求头，Base64 编码的签名
+     */
+    private String authorization;
+
+    /**
+     * x-oss-pub-key-url 请求头，Base64 编码的公钥地址
+     */
+    private String publicKeyUrl;
+
+    /**
+     * 请求路径，未解码
+     */
+    private String path;
+
+    /**
+     * 查询串
+     */
+    private String queryString;
+
+    /**
+     * 原始请求体
+     */
+    private String body;
+}
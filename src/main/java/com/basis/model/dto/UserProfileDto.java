@@ -0,0 +1,59 @@
+package com.basis.model.dto;
+
+import com.basis.model.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户资料缓存对象
+ * 仅保存资料接口需要的字段，不包含密码、加密盐等敏感信息
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileDto {
+
+    /**
+     * 用户 ID
+     */
+    private Long id;
+
+    /**
+     * 用户名
+     */
+    private String userName;
+
+    /**
+     * 昵称
+     */
+    private String nickName;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 头像相对路径
+     */
+    private String avatar;
+
+    public static UserProfileDto from(User user) {
+        return UserProfileDto.builder()
+                .id(user.getId())
+                .userName(user.getUserName())
+                .nickName(user.getNickName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .avatar(user.getAvatar())
+                .build();
+    }
+}
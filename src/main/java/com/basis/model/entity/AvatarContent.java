@@ -0,0 +1,48 @@
+package com.basis.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * <p>
+ * 头像内容索引
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Getter
+@Setter
+@TableName("xx_avatar_content")
+@ApiModel(value = "AvatarContent对象", description = "头像内容索引")
+public class AvatarContent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @ApiModelProperty("内容 SHA-256")
+    @TableId(value = "sha256", type = IdType.INPUT)
+    private String sha256;
+
+    @ApiModelProperty("头像路径")
+    private String avatar;
+
+    @ApiModelProperty("文件大小（字节）")
+    private Long size;
+
+    @ApiModelProperty("引用数")
+    private Integer refCount;
+
+    @ApiModelProperty("创建时间")
+    private LocalDateTime createTime;
+
+    @ApiModelProperty("更新时间")
+    private LocalDateTime updateTime;
+}
@@ -38,6 +38,9 @@ public class User implements Serializable {
     @ApiModelProperty("头像")
     private String avatar;
 
+    @ApiModelProperty("最后应用的头像更新消息序号")
+    private Long avatarSeq;
+
     @ApiModelProperty("邮箱")
     private String email;
 
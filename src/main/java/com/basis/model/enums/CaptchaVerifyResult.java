@@ -0,0 +1,38 @@
+package com.basis.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 验证码校验结果，与 lua/verify_captcha.lua 的返回值对应
+ */
+@Getter
+@AllArgsConstructor
+public enum CaptchaVerifyResult {
+
+    // 匹配，验证码已被消费
+    MATCH(1),
+
+    // 不匹配，错误次数加一
+    MISMATCH(0),
+
+    // 验证码不存在或已过期
+    EXPIRED(-1),
+
+    // 错误次数超限，验证码已作废
+    LOCKED(-2),
+    ;
+
+    private final long code;
+
+    public static CaptchaVerifyResult of(Long code) {
+        for (CaptchaVerifyResult result : values()) {
+            if (code != null && result.code == code) {
+                return result;
+            }
+        }
+        return EXPIRED;
+    }
+}
@@ -0,0 +1,26 @@
+package com.basis.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 验证码邮件场景，key 对应 i18n/mail*.properties 中的文案前缀
+ */
+@Getter
+@AllArgsConstructor
+public enum MailTemplateEnums {
+
+    // 登录验证码
+    LOGIN_CODE("login_code"),
+
+    // 注册验证码
+    REGISTER_CODE("register_code"),
+
+    // 重置密码验证码
+    RESET_PASSWORD("reset_password"),
+    ;
+
+    private final String key;
+}
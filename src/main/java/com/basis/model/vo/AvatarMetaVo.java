@@ -27,6 +27,10 @@ public class AvatarMetaVo {
     @ApiModelProperty(value = "文件MD5值（可选）")
     private String md5;
 
+    @ApiModelProperty(value = "文件SHA-256值（可选），与已上传的头像内容相同时无需再次上传")
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "SHA-256格式不正确")
+    private String sha256;
+
     @ApiModelProperty(value = "图片宽度（可选）")
     private Integer width;
 
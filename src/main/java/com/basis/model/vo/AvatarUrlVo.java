@@ -1,9 +1,12 @@
 package com.basis.model.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Data;
 
+import java.util.Map;
+
 /**
  * @Author: IT 派同学
  * @Date: 2024/12/23
@@ -16,12 +19,19 @@ public class AvatarUrlVo {
     @ApiModelProperty(value = "头像URL")
     private String avatarUrl;
 
+    @ApiModelProperty(value = "各尺寸头像URL，key 为边长（像素），original 为原图")
+    private Map<String, String> avatarUrls;
+
     @ApiModelProperty(value = "上传状态")
     private String status;
 
     @ApiModelProperty(value = "用户名")
     private String username;
 
+    @JsonIgnore
+    @ApiModelProperty(hidden = true)
+    private Long userId;
+
     public AvatarUrlVo(String avatarUrl, String status, String username) {
         this.avatarUrl = avatarUrl;
         this.status = status;
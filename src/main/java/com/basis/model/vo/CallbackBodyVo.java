@@ -15,5 +15,8 @@ public class CallbackBodyVo {
 
     @ApiModelProperty(value = "OSS桶名称")
     private String bucketName;
+
+    @ApiModelProperty(value = "OSS对象名，回调参数中使用 ${object}")
+    private String object;
 }
 
@@ -0,0 +1,32 @@
+package com.basis.model.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 本地存储上传信息，客户端以 PUT 方式将文件内容作为请求体上传到 uploadUrl
+ */
+@Data
+@ApiModel(value = "LocalUpload对象", description = "本地存储上传信息")
+public class LocalUploadVo {
+
+    @ApiModelProperty(value = "上传地址")
+    private String uploadUrl;
+
+    @ApiModelProperty(value = "请求头 Content-Type")
+    private String contentType;
+
+    @ApiModelProperty(value = "文件对象路径")
+    private String objectPath;
+
+    @ApiModelProperty(value = "最大文件大小（字节）")
+    private Long maxFileSize;
+
+    @ApiModelProperty(value = "上传令牌过期时间")
+    private LocalDateTime expiration;
+}
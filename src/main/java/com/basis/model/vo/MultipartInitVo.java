@@ -0,0 +1,34 @@
+package com.basis.model.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 分片上传初始化信息
+ */
+@Data
+@ApiModel(value = "MultipartInit对象", description = "分片上传初始化信息")
+public class MultipartInitVo {
+
+    @ApiModelProperty(value = "文件名", required = true)
+    @NotEmpty(message = "文件名不能为空")
+    private String fileName;
+
+    @ApiModelProperty(value = "文件大小（字节）", required = true)
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long fileSize;
+
+    @ApiModelProperty(value = "文件MIME类型")
+    private String contentType;
+
+    @ApiModelProperty(value = "期望的分片大小（字节），为空时使用默认值")
+    private Long partSize;
+}
@@ -0,0 +1,35 @@
+package com.basis.model.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 分片上传状态，断点续传时客户端只需上传 receivedParts 之外的分片
+ */
+@Data
+@ApiModel(value = "MultipartUpload对象", description = "分片上传状态")
+public class MultipartUploadVo {
+
+    @ApiModelProperty(value = "上传 ID")
+    private String uploadId;
+
+    @ApiModelProperty(value = "文件大小（字节）")
+    private Long fileSize;
+
+    @ApiModelProperty(value = "分片大小（字节），最后一个分片可以更小")
+    private Long partSize;
+
+    @ApiModelProperty(value = "分片数量，分片编号从 1 开始")
+    private Integer partCount;
+
+    @ApiModelProperty(value = "已接收的分片编号")
+    private List<Integer> receivedParts;
+
+    @ApiModelProperty(value = "上传完成后的文件访问路径")
+    private String url;
+}
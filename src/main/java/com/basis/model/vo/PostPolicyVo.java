@@ -0,0 +1,47 @@
+package com.basis.model.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: OSS PostObject 表单上传签名信息，客户端将各字段原样作为表单域提交到 host
+ */
+@Data
+@ApiModel(value = "PostPolicy对象", description = "OSS PostObject表单上传签名信息")
+public class PostPolicyVo {
+
+    @ApiModelProperty(value = "上传地址")
+    private String host;
+
+    @ApiModelProperty(value = "表单域 OSSAccessKeyId")
+    private String accessKeyId;
+
+    @ApiModelProperty(value = "表单域 policy，Base64编码的上传策略")
+    private String policy;
+
+    @ApiModelProperty(value = "表单域 Signature")
+    private String signature;
+
+    @ApiModelProperty(value = "表单域 callback，Base64编码的回调参数")
+    private String callback;
+
+    @ApiModelProperty(value = "表单域 key，即OSS对象名")
+    private String key;
+
+    @ApiModelProperty(value = "表单域 Content-Type")
+    private String contentType;
+
+    @ApiModelProperty(value = "文件对象路径")
+    private String objectPath;
+
+    @ApiModelProperty(value = "最大文件大小（字节）")
+    private Long maxFileSize;
+
+    @ApiModelProperty(value = "签名过期时间")
+    private LocalDateTime expiration;
+}
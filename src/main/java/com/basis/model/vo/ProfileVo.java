@@ -4,6 +4,8 @@ import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Data;
 
+import java.util.Map;
+
 /**
  * @Author: IT 派同学
  * @Date: 2024/12/20
@@ -22,6 +24,9 @@ public class ProfileVo {
     @ApiModelProperty(value = "头像URL")
     private String avatarUrl;
 
+    @ApiModelProperty(value = "各尺寸头像URL，key 为边长（像素），original 为原图")
+    private Map<String, String> avatarUrls;
+
     @ApiModelProperty(value = "手机号")
     private String phone;
 }
\ No newline at end of file
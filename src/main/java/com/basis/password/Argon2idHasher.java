@@ -0,0 +1,150 @@
+package com.basis.password;
+
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Argon2id，格式 $argon2id$v=19$m=内存KB,t=迭代次数,p=并行度$盐$哈希
+ * 内存由配置决定，校准时只调整迭代次数
+ */
+final class Argon2idHasher implements PasswordHasher {
+
+    static final String ID = "argon2id";
+
+    private static final String PREFIX = "$argon2id$";
+
+    /**
+     * OWASP 推荐的最低迭代次数（m=19MiB 时）
+     */
+    private static final int MIN_ITERATIONS = 2;
+
+    private static final int MAX_ITERATIONS = 20;
+
+    private static final int SALT_BYTES = 16;
+
+    private static final int HASH_BYTES = 32;
+
+    private final int memoryKb;
+
+    private final int parallelism;
+
+    private volatile int iterations = MIN_ITERATIONS;
+
+    Argon2idHasher(int memoryKb, int parallelism) {
+        this.memoryKb = memoryKb;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public boolean supports(String encoded) {
+        return encoded != null && encoded.startsWith(PREFIX);
+    }
+
+    @Override
+    public String hash(String raw) {
+        int t = iterations;
+        byte[] salt = PasswordHasher.randomBytes(SALT_BYTES);
+        byte[] hash = derive(raw, salt, memoryKb, t, parallelism, HASH_BYTES);
+        return PREFIX + "v=19$m=" + memoryKb + ",t=" + t + ",p=" + parallelism
+                + "$" + PasswordHasher.b64(salt) + "$" + PasswordHasher.b64(hash);
+    }
+
+    @Override
+    public boolean matches(String raw, String encoded, String legacySalt) {
+        Params params = Params.parse(encoded);
+        if (params == null) {
+            return false;
+        }
+        byte[] actual = derive(raw, params.salt, params.memoryKb, params.iterations, params.parallelism, params.hash.length);
+        return MessageDigest.isEqual(actual, params.hash);
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        Params params = Params.parse(encoded);
+        return params == null || params.memoryKb < memoryKb || params.iterations < iterations || params.parallelism != parallelism;
+    }
+
+    @Override
+    public String calibrate(long targetMs) {
+        long elapsed = PasswordHasher.measure(this);
+        if (elapsed > 0 && elapsed < targetMs) {
+            // 耗时与迭代次数近似线性
+            iterations = (int) Math.min(MAX_ITERATIONS, Math.max(MIN_ITERATIONS, MIN_ITERATIONS * targetMs / elapsed));
+        }
+        return "m=" + memoryKb + ",t=" + iterations + ",p=" + parallelism;
+    }
+
+    private static byte[] derive(String raw, byte[] salt, int memoryKb, int iterations, int parallelism, int length) {
+        Argon2Parameters parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+                .withMemoryAsKB(memoryKb)
+                .withIterations(iterations)
+                .withParallelism(parallelism)
+                .withSalt(salt)
+                .build();
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+        byte[] out = new byte[length];
+        generator.generateBytes(raw.getBytes(StandardCharsets.UTF_8), out);
+        return out;
+    }
+
+    private static final class Params {
+
+        private int memoryKb;
+
+        private int iterations;
+
+        private int parallelism;
+
+        private byte[] salt;
+
+        private byte[] hash;
+
+        /**
+         * @return 格式不正确时返回 null
+         */
+        private static Params parse(String encoded) {
+            // ["", "argon2id", "v=19", "m=..,t=..,p=..", 盐, 哈希]
+            String[] parts = encoded.split("\\$");
+            if (parts.length != 6 || !"v=19".equals(parts[2])) {
+                return null;
+            }
+            try {
+                Params params = new Params();
+                for (String pair : parts[3].split(",")) {
+                    int value = Integer.parseInt(pair.substring(2));
+                    switch (pair.charAt(0)) {
+                        case 'm':
+                            params.memoryKb = value;
+                            break;
+                        case 't':
+                            params.iterations = value;
+                            break;
+                        case 'p':
+                            params.parallelism = value;
+                            break;
+                        default:
+                            return null;
+                    }
+                }
+                params.salt = PasswordHasher.unb64(parts[4]);
+                params.hash = PasswordHasher.unb64(parts[5]);
+                return params;
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.basis.password;
+
+import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: bcrypt，格式 $2b$成本$盐和哈希；只使用密码的前 72 字节
+ */
+final class BcryptHasher implements PasswordHasher {
+
+    static final String ID = "bcrypt";
+
+    private static final int MIN_COST = 10;
+
+    private static final int MAX_COST = 16;
+
+    private volatile int cost = MIN_COST;
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public boolean supports(String encoded) {
+        return encoded != null && (encoded.startsWith("$2a$") || encoded.startsWith("$2b$") || encoded.startsWith("$2y$"));
+    }
+
+    @Override
+    public String hash(String raw) {
+        return OpenBSDBCrypt.generate("2b", raw.toCharArray(), PasswordHasher.randomBytes(16), cost);
+    }
+
+    @Override
+    public boolean matches(String raw, String encoded, String legacySalt) {
+        try {
+            return OpenBSDBCrypt.checkPassword(encoded, raw.toCharArray());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        try {
+            return Integer.parseInt(encoded.substring(4, 6)) < cost;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public String calibrate(long targetMs) {
+        // 成本每加 1 耗时翻倍
+        long elapsed = PasswordHasher.measure(this);
+        while (elapsed > 0 && elapsed * 2 <= targetMs && cost < MAX_COST) {
+            cost++;
+            elapsed *= 2;
+        }
+        return "cost=" + cost;
+    }
+}
@@ -0,0 +1,60 @@
+package com.basis.password;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 旧版加盐 MD5：md5(明文{盐}) 的十六进制，盐保存在 salt 字段
+ * 只用于校验存量密码，登录成功后升级为当前算法；不再生成新的 MD5 哈希
+ */
+final class LegacyMd5Verifier implements PasswordVerifier {
+
+    static final String ID = "md5";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    /**
+     * 新算法的哈希都以 $ 开头，其余视为旧版哈希
+     */
+    @Override
+    public boolean supports(String encoded) {
+        return encoded != null && !encoded.startsWith("$");
+    }
+
+    @Override
+    public boolean matches(String raw, String encoded, String legacySalt) {
+        String merged = legacySalt == null || legacySalt.isEmpty() ? raw : raw + "{" + legacySalt + "}";
+        return MessageDigest.isEqual(hex(md5(merged)).getBytes(StandardCharsets.US_ASCII),
+                encoded.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        return true;
+    }
+
+    static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    static byte[] md5(String text) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 unavailable", e);
+        }
+    }
+}
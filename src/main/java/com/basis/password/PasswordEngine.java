@@ -0,0 +1,182 @@
+package com.basis.password;
+
+import com.basis.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.basis.common.ResponseCode.LOGIN_BUSY;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 密码哈希引擎
+ * 新密码使用 password.algorithm 指定的算法，启动时按 password.target-ms 校准成本参数；校验时按哈希前缀选择算法，兼容旧版 MD5。
+ * 哈希计算刻意消耗 CPU 和内存，统一放在有界线程池中执行，避免登录洪峰占满 Web 线程；线程池和队列都满或等待超时时快速失败。
+ * 登录成功后若哈希的算法或参数落后于当前配置，异步重新哈希并回写
+ */
+@Slf4j
+@Component
+public class PasswordEngine {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${password.algorithm}")
+    private String algorithm;
+
+    @Value("${password.target-ms}")
+    private Long targetMs;
+
+    @Value("${password.workers}")
+    private Integer workers;
+
+    @Value("${password.queue-capacity}")
+    private Integer queueCapacity;
+
+    @Value("${password.max-wait-ms}")
+    private Long maxWaitMs;
+
+    @Value("${password.argon2.memory-kb}")
+    private Integer argon2MemoryKb;
+
+    private List<PasswordVerifier> verifiers;
+
+    private PasswordHasher current;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer hashTimer;
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void start() {
+        List<PasswordHasher> hashers = Arrays.asList(new Argon2idHasher(argon2MemoryKb, 1), new BcryptHasher(), new Pbkdf2Hasher());
+        current = hashers.stream()
+                .filter(hasher -> hasher.id().equals(algorithm))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unsupported password.algorithm: " + algorithm));
+        verifiers = new ArrayList<>(hashers);
+        verifiers.add(new LegacyMd5Verifier());
+        log.info("Password hashing uses {} ({})", current.id(), current.calibrate(targetMs));
+        hashTimer = Timer.builder("password_hash").tag("algorithm", current.id()).register(meterRegistry);
+        rejected = Counter.builder("password_hash_rejected").register(meterRegistry);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 使用当前算法哈希新密码
+     */
+    public String hash(final String raw) {
+        return submit(() -> current.hash(raw));
+    }
+
+    /**
+     * 校验密码
+     *
+     * @param encoded    数据库中保存的哈希
+     * @param legacySalt 旧版 MD5 哈希的盐，新算法忽略
+     */
+    public boolean matches(final String raw, final String encoded, final String legacySalt) {
+        if (raw == null || encoded == null || encoded.isEmpty()) {
+            return false;
+        }
+        PasswordVerifier verifier = verifierOf(encoded);
+        if (verifier == null) {
+            return false;
+        }
+        return submit(() -> verifier.matches(raw, encoded, legacySalt));
+    }
+
+    /**
+     * 哈希的算法不是当前算法，或参数低于当前参数
+     */
+    public boolean needsRehash(final String encoded) {
+        return verifierOf(encoded) != current || current.needsRehash(encoded);
+    }
+
+    /**
+     * 异步使用当前算法重新哈希，完成后回调；线程池繁忙时放弃，下次登录再升级
+     */
+    public void rehashAsync(final String raw, final Consumer<String> callback) {
+        try {
+            executor.execute(() -> {
+                try {
+                    callback.accept(hashTimer.record(() -> current.hash(raw)));
+                } catch (RuntimeException e) {
+                    log.warn("Password rehash failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+        }
+    }
+
+    private PasswordVerifier verifierOf(String encoded) {
+        for (PasswordVerifier verifier : verifiers) {
+            if (verifier.supports(encoded)) {
+                return verifier;
+            }
+        }
+        return null;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusinessException(LOGIN_BUSY);
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 排队过久的请求取消，不再占用哈希线程
+            future.cancel(false);
+            rejected.increment();
+            throw new BusinessException(LOGIN_BUSY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(LOGIN_BUSY);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.basis.password;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 可生成新哈希的密码算法
+ * 哈希结果自带算法标识、参数和盐（PHC 字符串格式），校验时按前缀选择算法，无需额外的盐字段
+ */
+interface PasswordHasher extends PasswordVerifier {
+
+    SecureRandom RANDOM = new SecureRandom();
+
+    String hash(String raw);
+
+    /**
+     * 在不低于默认参数的前提下调整成本参数，使单次哈希耗时接近目标值
+     *
+     * @return 调整后的参数描述
+     */
+    String calibrate(long targetMs);
+
+    static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+
+    static String b64(byte[] bytes) {
+        return Base64.getEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static byte[] unb64(String text) {
+        return Base64.getDecoder().decode(text);
+    }
+
+    /**
+     * 单次哈希耗时（毫秒）
+     */
+    static long measure(PasswordHasher hasher) {
+        long start = System.nanoTime();
+        hasher.hash("calibration-password");
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,30 @@
+package com.basis.password;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 密码校验算法
+ * 只能校验存量哈希的算法（如旧版 MD5）只实现本接口，可生成新哈希的算法实现 PasswordHasher
+ */
+interface PasswordVerifier {
+
+    /**
+     * 算法标识，与 password.algorithm 配置对应
+     */
+    String id();
+
+    /**
+     * 是否由本算法生成
+     */
+    boolean supports(String encoded);
+
+    /**
+     * @param legacySalt 旧版 MD5 哈希使用的独立盐，其他算法忽略
+     */
+    boolean matches(String raw, String encoded, String legacySalt);
+
+    /**
+     * 哈希的参数是否低于当前参数，需要在登录成功后重新哈希
+     */
+    boolean needsRehash(String encoded);
+}
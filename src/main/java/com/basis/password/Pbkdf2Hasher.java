@@ -0,0 +1,93 @@
+package com.basis.password;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: PBKDF2-HMAC-SHA256，格式 $pbkdf2-sha256$i=迭代次数$盐$哈希；仅依赖 JDK，用于无法使用其他算法的环境
+ */
+final class Pbkdf2Hasher implements PasswordHasher {
+
+    static final String ID = "pbkdf2";
+
+    private static final String PREFIX = "$pbkdf2-sha256$";
+
+    /**
+     * OWASP 推荐的最低迭代次数
+     */
+    private static final int MIN_ITERATIONS = 600_000;
+
+    private static final int MAX_ITERATIONS = 10_000_000;
+
+    private static final int SALT_BYTES = 16;
+
+    private static final int HASH_BITS = 256;
+
+    private volatile int iterations = MIN_ITERATIONS;
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public boolean supports(String encoded) {
+        return encoded != null && encoded.startsWith(PREFIX);
+    }
+
+    @Override
+    public String hash(String raw) {
+        int i = iterations;
+        byte[] salt = PasswordHasher.randomBytes(SALT_BYTES);
+        return PREFIX + "i=" + i + "$" + PasswordHasher.b64(salt) + "$" + PasswordHasher.b64(derive(raw, salt, i, HASH_BITS));
+    }
+
+    @Override
+    public boolean matches(String raw, String encoded, String legacySalt) {
+        String[] parts = encoded.split("\\$");
+        if (parts.length != 5 || !parts[2].startsWith("i=")) {
+            return false;
+        }
+        try {
+            byte[] expected = PasswordHasher.unb64(parts[4]);
+            byte[] actual = derive(raw, PasswordHasher.unb64(parts[3]), Integer.parseInt(parts[2].substring(2)), expected.length * 8);
+            return MessageDigest.isEqual(actual, expected);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        String[] parts = encoded.split("\\$");
+        try {
+            return parts.length != 5 || Integer.parseInt(parts[2].substring(2)) < iterations;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public String calibrate(long targetMs) {
+        long elapsed = PasswordHasher.measure(this);
+        if (elapsed > 0 && elapsed < targetMs) {
+            iterations = (int) Math.min(MAX_ITERATIONS, (long) MIN_ITERATIONS * targetMs / elapsed);
+        }
+        return "i=" + iterations;
+    }
+
+    private static byte[] derive(String raw, byte[] salt, int iterations, int bits) {
+        PBEKeySpec spec = new PBEKeySpec(raw.toCharArray(), salt, iterations, bits);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
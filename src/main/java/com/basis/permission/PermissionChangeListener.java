@@ -0,0 +1,36 @@
+package com.basis.permission;
+
+import com.basis.utils.RedisUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Objects;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 权限变更广播监听，收到消息后刷新本节点的权限索引
+ */
+@Slf4j
+@Component
+public class PermissionChangeListener implements MessageListener {
+
+    @Resource
+    private PermissionEngine permissionEngine;
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object event = redisUtils.getRedisTemplate().getValueSerializer().deserialize(message.getBody());
+        if (Objects.isNull(event)) {
+            return;
+        }
+        log.debug("Permission change event: {}", event);
+        permissionEngine.onChange(event.toString());
+    }
+}
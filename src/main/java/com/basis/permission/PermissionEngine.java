@@ -0,0 +1,212 @@
+package com.basis.permission;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.basis.mapper.PermissionMapper;
+import com.basis.mapper.RoleMapper;
+import com.basis.mapper.RolePermissionMapper;
+import com.basis.mapper.UserRoleMapper;
+import com.basis.model.entity.UserRole;
+import com.basis.utils.RedisUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.basis.model.constant.BasicConstant.PERMISSION_CHANGE_GRAPH;
+import static com.basis.model.constant.BasicConstant.PERMISSION_CHANGE_TOPIC;
+import static com.basis.model.constant.BasicConstant.PERMISSION_CHANGE_USER_PREFIX;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 权限引擎
+ * 启动时将角色、权限、角色权限、用户角色关系全部加载到内存，鉴权只访问内存；
+ * 关系变更时按用户或整张角色图增量刷新，并通过 Redis 发布订阅通知其他节点
+ */
+@Slf4j
+@Component
+public class PermissionEngine {
+
+    @Resource
+    private RoleMapper roleMapper;
+
+    @Resource
+    private PermissionMapper permissionMapper;
+
+    @Resource
+    private RolePermissionMapper rolePermissionMapper;
+
+    @Resource
+    private UserRoleMapper userRoleMapper;
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Value("${permission.user-cache-size}")
+    private Long userCacheSize;
+
+    private volatile PermissionIndex index = PermissionIndex.EMPTY;
+
+    /**
+     * 用户 ID -> 角色 ID，没有分配角色的用户不在表中
+     */
+    private final Map<Long, long[]> userRoles = new ConcurrentHashMap<>();
+
+    /**
+     * 用户有效权限的解析结果
+     */
+    private Cache<Long, UserGrant> grantCache;
+
+    @PostConstruct
+    public void init() {
+        grantCache = Caffeine.newBuilder()
+                .maximumSize(userCacheSize)
+                .build();
+        reloadGraph();
+        reloadAllUserRoles();
+    }
+
+    /**
+     * 获取用户的权限码列表
+     */
+    public List<String> getPermissionList(Long userId) {
+        return grant(userId).permissions;
+    }
+
+    /**
+     * 获取用户的角色码列表
+     */
+    public List<String> getRoleList(Long userId) {
+        return grant(userId).roles;
+    }
+
+    /**
+     * 判断用户是否拥有某个权限码（精确匹配）
+     */
+    public boolean hasPermission(Long userId, String permissionCode) {
+        UserGrant grant = grant(userId);
+        int bit = grant.index.bitOf(permissionCode);
+        return bit >= 0 && grant.bits.get(bit);
+    }
+
+    public boolean containsRole(Long roleId) {
+        return index.containsRole(roleId);
+    }
+
+    public boolean containsPermission(Long permissionId) {
+        return index.containsPermission(permissionId);
+    }
+
+    /**
+     * 重新加载角色、权限及其关系，并清空所有用户的解析结果
+     */
+    public synchronized void reloadGraph() {
+        index = PermissionIndex.build(roleMapper.selectList(null),
+                permissionMapper.selectList(null),
+                rolePermissionMapper.selectList(null));
+        grantCache.invalidateAll();
+        log.info("Permission graph reloaded");
+    }
+
+    /**
+     * 重新加载单个用户的角色
+     */
+    public void reloadUser(Long userId) {
+        List<UserRole> rows = userRoleMapper.selectList(new LambdaQueryWrapper<UserRole>()
+                .select(UserRole::getUId, UserRole::getRId)
+                .eq(UserRole::getUId, userId));
+        if (rows.isEmpty()) {
+            userRoles.remove(userId);
+        } else {
+            userRoles.put(userId, rows.stream().mapToLong(UserRole::getRId).distinct().toArray());
+        }
+        grantCache.invalidate(userId);
+    }
+
+    /**
+     * 本节点刷新后通知其他节点刷新
+     *
+     * @param userId 发生变更的用户，为 null 表示角色图发生变更
+     */
+    public void publishChange(Long userId) {
+        String event = Objects.isNull(userId) ? PERMISSION_CHANGE_GRAPH : PERMISSION_CHANGE_USER_PREFIX + userId;
+        redisUtils.getRedisTemplate().convertAndSend(PERMISSION_CHANGE_TOPIC, event);
+    }
+
+    /**
+     * 处理其他节点发来的变更通知
+     */
+    void onChange(String event) {
+        if (PERMISSION_CHANGE_GRAPH.equals(event)) {
+            reloadGraph();
+        } else if (event.startsWith(PERMISSION_CHANGE_USER_PREFIX)) {
+            reloadUser(Long.valueOf(event.substring(PERMISSION_CHANGE_USER_PREFIX.length())));
+        }
+    }
+
+    private void reloadAllUserRoles() {
+        List<UserRole> rows = userRoleMapper.selectList(new LambdaQueryWrapper<UserRole>()
+                .select(UserRole::getUId, UserRole::getRId));
+        Map<Long, long[]> loaded = new HashMap<>();
+        rows.stream()
+                .filter(row -> Objects.nonNull(row.getUId()) && Objects.nonNull(row.getRId()))
+                .collect(Collectors.groupingBy(UserRole::getUId))
+                .forEach((userId, list) -> loaded.put(userId, list.stream().mapToLong(UserRole::getRId).distinct().toArray()));
+        userRoles.clear();
+        userRoles.putAll(loaded);
+        grantCache.invalidateAll();
+        log.info("Loaded role assignments for {} users", loaded.size());
+    }
+
+    private UserGrant grant(Long userId) {
+        PermissionIndex current = index;
+        UserGrant grant = grantCache.get(userId, id -> resolve(id, current));
+        // 解析期间角色图被替换时重新解析
+        if (grant.index != current) {
+            grant = resolve(userId, current);
+            grantCache.put(userId, grant);
+        }
+        return grant;
+    }
+
+    private UserGrant resolve(Long userId, PermissionIndex current) {
+        long[] roleIds = userRoles.getOrDefault(userId, new long[0]);
+        BitSet bits = current.resolve(roleIds);
+        return new UserGrant(current, bits,
+                Collections.unmodifiableList(current.roleCodesOf(roleIds)),
+                Collections.unmodifiableList(current.codesOf(bits)));
+    }
+
+    /**
+     * 用户有效权限的解析结果
+     */
+    private static final class UserGrant {
+
+        private final PermissionIndex index;
+
+        private final BitSet bits;
+
+        private final List<String> roles;
+
+        private final List<String> permissions;
+
+        private UserGrant(PermissionIndex index, BitSet bits, List<String> roles, List<String> permissions) {
+            this.index = index;
+            this.bits = bits;
+            this.roles = roles;
+            this.permissions = permissions;
+        }
+    }
+}
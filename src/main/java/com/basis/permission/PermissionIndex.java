@@ -0,0 +1,151 @@
+package com.basis.permission;
+
+import com.basis.model.entity.Permission;
+import com.basis.model.entity.Role;
+import com.basis.model.entity.RolePermission;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 角色-权限关系的不可变内存索引
+ * 权限码在构建时映射为连续的整数下标，每个角色持有一个权限位图，
+ * 用户的有效权限即其所有角色位图的并集
+ */
+final class PermissionIndex {
+
+    static final PermissionIndex EMPTY = build(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * 权限码 -> 整数下标
+     */
+    private final Map<String, Integer> codeIds;
+
+    /**
+     * 整数下标 -> 权限码
+     */
+    private final String[] codes;
+
+    /**
+     * 权限 ID -> 整数下标
+     */
+    private final Map<Long, Integer> permissionIds;
+
+    /**
+     * 角色 ID -> 角色码
+     */
+    private final Map<Long, String> roleCodes;
+
+    /**
+     * 角色 ID -> 权限位图
+     */
+    private final Map<Long, BitSet> rolePermissions;
+
+    private PermissionIndex(Map<String, Integer> codeIds, String[] codes, Map<Long, Integer> permissionIds,
+                            Map<Long, String> roleCodes, Map<Long, BitSet> rolePermissions) {
+        this.codeIds = codeIds;
+        this.codes = codes;
+        this.permissionIds = permissionIds;
+        this.roleCodes = roleCodes;
+        this.rolePermissions = rolePermissions;
+    }
+
+    static PermissionIndex build(List<Role> roles, List<Permission> permissions, List<RolePermission> relations) {
+        Map<String, Integer> codeIds = new HashMap<>();
+        List<String> codes = new ArrayList<>();
+        Map<Long, Integer> permissionIds = new HashMap<>();
+        for (Permission permission : permissions) {
+            if (Objects.isNull(permission.getPCode())) {
+                continue;
+            }
+            // 不同 ID 的相同权限码共用同一个下标
+            Integer bit = codeIds.get(permission.getPCode());
+            if (Objects.isNull(bit)) {
+                bit = codes.size();
+                codeIds.put(permission.getPCode(), bit);
+                codes.add(permission.getPCode());
+            }
+            permissionIds.put(permission.getId(), bit);
+        }
+
+        Map<Long, String> roleCodes = new HashMap<>();
+        Map<Long, BitSet> rolePermissions = new HashMap<>();
+        for (Role role : roles) {
+            roleCodes.put(role.getId().longValue(), role.getRoleCode());
+            rolePermissions.put(role.getId().longValue(), new BitSet(codes.size()));
+        }
+        for (RolePermission relation : relations) {
+            BitSet bits = rolePermissions.get(relation.getRId());
+            Integer bit = permissionIds.get(relation.getPId());
+            if (Objects.nonNull(bits) && Objects.nonNull(bit)) {
+                bits.set(bit);
+            }
+        }
+        return new PermissionIndex(codeIds, codes.toArray(new String[0]), permissionIds, roleCodes, rolePermissions);
+    }
+
+    /**
+     * 计算一组角色的有效权限
+     *
+     * @param roleIds 角色 ID
+     * @return 权限位图
+     */
+    BitSet resolve(long[] roleIds) {
+        BitSet bits = new BitSet(codes.length);
+        for (long roleId : roleIds) {
+            BitSet roleBits = rolePermissions.get(roleId);
+            if (Objects.nonNull(roleBits)) {
+                bits.or(roleBits);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * 位图转换为权限码列表
+     */
+    List<String> codesOf(BitSet bits) {
+        List<String> result = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.add(codes[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 角色 ID 转换为角色码列表
+     */
+    List<String> roleCodesOf(long[] roleIds) {
+        List<String> result = new ArrayList<>(roleIds.length);
+        for (long roleId : roleIds) {
+            String roleCode = roleCodes.get(roleId);
+            if (Objects.nonNull(roleCode)) {
+                result.add(roleCode);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 权限码对应的整数下标，不存在时返回 -1
+     */
+    int bitOf(String code) {
+        Integer bit = codeIds.get(code);
+        return Objects.isNull(bit) ? -1 : bit;
+    }
+
+    boolean containsRole(Long roleId) {
+        return roleCodes.containsKey(roleId);
+    }
+
+    boolean containsPermission(Long permissionId) {
+        return permissionIds.containsKey(permissionId);
+    }
+}
@@ -0,0 +1,29 @@
+package com.basis.permission;
+
+import cn.dev33.satoken.stp.StpInterface;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Sa-Token 权限数据来源，直接读取权限引擎的内存索引，不访问数据库
+ */
+@Component
+public class StpInterfaceImpl implements StpInterface {
+
+    @Resource
+    private PermissionEngine permissionEngine;
+
+    @Override
+    public List<String> getPermissionList(Object loginId, String loginType) {
+        return permissionEngine.getPermissionList(Long.valueOf(loginId.toString()));
+    }
+
+    @Override
+    public List<String> getRoleList(Object loginId, String loginType) {
+        return permissionEngine.getRoleList(Long.valueOf(loginId.toString()));
+    }
+}
@@ -18,11 +18,12 @@ public interface ICloudStorageService {
     /**
      * 获取头像上传STS临时凭证
      *
+     * @param userId 用户 ID
      * @param username 用户名
      * @param vo 头像文件元数据
      * @return STS临时凭证信息
      */
-    Result<?> getAvatarUploadCredentials(String username, AvatarMetaVo vo);
+    Result<?> getAvatarUploadCredentials(Long userId, String username, AvatarMetaVo vo);
 
     /**
      * 处理上传完成回调
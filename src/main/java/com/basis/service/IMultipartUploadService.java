@@ -0,0 +1,55 @@
+package com.basis.service;
+
+import com.basis.common.Result;
+import com.basis.model.vo.MultipartInitVo;
+
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * <p>
+ * 分片上传服务接口
+ * 大文件（如检测视频）按分片上传到本地存储，支持断点续传
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+public interface IMultipartUploadService {
+
+    /**
+     * 初始化分片上传
+     * @param vo 文件信息
+     * @return 上传 ID 与分片规格
+     */
+    Result<?> init(MultipartInitVo vo);
+
+    /**
+     * 上传一个分片，重复上传同一分片会覆盖
+     * @param uploadId 上传 ID
+     * @param partNumber 分片编号，从 1 开始
+     * @param body 分片内容
+     * @return 操作结果
+     */
+    Result<?> uploadPart(String uploadId, int partNumber, ReadableByteChannel body);
+
+    /**
+     * 查询上传状态，用于断点续传
+     * @param uploadId 上传 ID
+     * @return 已接收的分片
+     */
+    Result<?> status(String uploadId);
+
+    /**
+     * 完成上传，按顺序拼接所有分片
+     * @param uploadId 上传 ID
+     * @return 文件访问路径
+     */
+    Result<?> complete(String uploadId);
+
+    /**
+     * 取消上传并清理已上传的分片
+     * @param uploadId 上传 ID
+     * @return 操作结果
+     */
+    Result<?> abort(String uploadId);
+}
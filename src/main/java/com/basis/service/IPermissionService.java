@@ -0,0 +1,60 @@
+package com.basis.service;
+
+import com.basis.common.Result;
+import com.basis.model.vo.AssignPermissionVo;
+import com.basis.model.vo.AssignRoleVo;
+import com.basis.model.vo.InsertPermissionVo;
+import com.basis.model.vo.InsertRoleVo;
+import com.basis.model.vo.RemovePermissionVo;
+
+/**
+ * <p>
+ *  角色权限服务类
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+public interface IPermissionService {
+
+    /**
+     * 添加角色
+     * @param vo 角色信息
+     * @return 操作结果
+     */
+    Result<?> insertRole(InsertRoleVo vo);
+
+    /**
+     * 添加权限
+     * @param vo 权限信息
+     * @return 操作结果
+     */
+    Result<?> insertPermission(InsertPermissionVo vo);
+
+    /**
+     * 为用户分配角色
+     * @param vo 用户与角色
+     * @return 操作结果
+     */
+    Result<?> assignRole(AssignRoleVo vo);
+
+    /**
+     * 为角色分配权限
+     * @param vo 角色与权限
+     * @return 操作结果
+     */
+    Result<?> assignPermission(AssignPermissionVo vo);
+
+    /**
+     * 移除角色的权限
+     * @param vo 角色与权限
+     * @return 操作结果
+     */
+    Result<?> removePermission(RemovePermissionVo vo);
+
+    /**
+     * 获取当前用户的权限码
+     * @return 权限码列表
+     */
+    Result<?> getPermissionList();
+}
@@ -1,11 +1,11 @@
 package com.basis.service;
 
 import com.basis.common.Result;
+import com.basis.model.dto.OssCallbackDto;
 import com.basis.model.entity.User;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.basis.model.vo.AvatarMetaVo;
 import com.basis.model.vo.AvatarUrlVo;
-import com.basis.model.vo.CallbackBodyVo;
 import com.basis.model.vo.LoginVo;
 import com.basis.model.vo.ProfileVo;
 import com.basis.model.vo.RegisterVo;
@@ -71,10 +71,11 @@ public interface IUserService extends IService<User> {
     Result<?> uploadInit(AvatarMetaVo vo);
 
     /**
-     * 上传用户头像回调
+     * 上传用户头像回调，校验签名后将头像更新写入队列即返回
+     * @param callback OSS回调请求
      * @return 头像URL返回信息
      */
-    Result<?> uploadCallback(CallbackBodyVo vo);
+    Result<?> uploadCallback(OssCallbackDto callback);
 
     /**
      * 返回用户头像url
@@ -0,0 +1,171 @@
+package com.basis.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.basis.common.Result;
+import com.basis.model.dto.AvatarUploadCache;
+import com.basis.model.vo.AvatarMetaVo;
+import com.basis.model.vo.AvatarUrlVo;
+import com.basis.model.vo.CallbackBodyVo;
+import com.basis.service.ICloudStorageService;
+import com.basis.upload.AvatarContentIndex;
+import com.basis.upload.AvatarUpdateQueue;
+import com.basis.utils.RedisBatch;
+import com.basis.utils.RedisUtils;
+import com.basis.utils.ThrowUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.basis.common.ResponseCode.NOT_FOUND;
+import static com.basis.model.constant.BasicConstant.AVATAR_UPLOAD_PREFIX;
+
+/**
+ * <p>
+ * 头像上传公共逻辑
+ * 各上传模式只负责签发上传授权，对象路径生成、上传记录、内容复用和回调校验在此统一处理
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+public abstract class AbstractAvatarStorageService implements ICloudStorageService {
+
+    @Resource
+    protected RedisUtils redisUtils;
+
+    @Resource
+    protected AvatarContentIndex avatarContentIndex;
+
+    @Resource
+    protected AvatarUpdateQueue avatarUpdateQueue;
+
+    @Value("${aliyun.oss.avatar.bucket-name}")
+    protected String bucketName;
+
+    @Value("${aliyun.oss.avatar.avatar-path}")
+    protected String avatarPath;
+
+    @Value("${aliyun.oss.avatar.max-file-size}")
+    protected Long maxFileSize;
+
+    @Value("${aliyun.oss.avatar.allowed-file-types}")
+    protected String[] allowedFileTypes;
+
+    /**
+     * 生成对象路径
+     */
+    protected String newObjectPath(String username, String mimeType) {
+        return String.format("/%savatar-%s%s.%s",
+                avatarPath, username, UUID.randomUUID().toString().substring(0, 8), getFileExtensionFromMimeType(mimeType));
+    }
+
+    /**
+     * 客户端提供的内容摘要与已有头像相同时，直接使用已有头像，不再签发上传授权
+     *
+     * @return 已有头像，未命中时返回 null
+     */
+    protected Result<?> reuseExisting(Long userId, String username, AvatarMetaVo vo) {
+        if (StrUtil.isEmpty(vo.getSha256())) {
+            return null;
+        }
+        String avatar = avatarContentIndex.find(vo.getSha256(), vo.getFileSize());
+        if (Objects.isNull(avatar)) {
+            return null;
+        }
+        avatarUpdateQueue.enqueue(userId, avatar);
+        log.info("Avatar content already stored, username: {}, avatar: {}", username, avatar);
+        AvatarUrlVo auv = new AvatarUrlVo(avatar, "exists", username);
+        auv.setUserId(userId);
+        return Result.success(auv);
+    }
+
+    /**
+     * 记录上传信息，供回调时校验，有效期比上传授权多1小时缓冲
+     *
+     * @param grantExpiration 上传授权的过期时间
+     */
+    protected void recordUpload(Long userId, String username, String objectPath, Instant grantExpiration) {
+        RedisBatch batch = redisUtils.batch();
+        recordUpload(batch, userId, username, objectPath, grantExpiration);
+        batch.execute();
+    }
+
+    /**
+     * 记录上传信息，命令加入调用方的批量操作中与其他写入一起发送
+     */
+    protected void recordUpload(RedisBatch batch, Long userId, String username, String objectPath, Instant grantExpiration) {
+        AvatarUploadCache uploadCache = AvatarUploadCache.builder()
+                .userId(userId)
+                .username(username)
+                .objectPath(objectPath)
+                .expectedBucket(bucketName)
+                .uploadTime(System.currentTimeMillis())
+                .build();
+        long ttl = Math.max(0, Duration.between(Instant.now(), grantExpiration).getSeconds()) + 3600;
+        batch.setTimeout(uploadCacheKey(objectPath), uploadCache, ttl);
+        log.info("Avatar upload info cached, username: {}, objectPath: {}", username, objectPath);
+    }
+
+    /**
+     * OSS 对象名，不带开头的 /
+     */
+    protected String objectKey(String objectPath) {
+        return StrUtil.removePrefix(objectPath, "/");
+    }
+
+    @Override
+    public Result<?> handleUploadCallback(CallbackBodyVo vo) {
+        ThrowUtil.throwIf(StrUtil.isEmpty(vo.getObject()), NOT_FOUND);
+        log.info("Received upload callback for object: {}", vo.getObject());
+
+        // 从缓存中获取上传信息
+        Object cachedData = redisUtils.getValue(uploadCacheKey(vo.getObject()));
+        ThrowUtil.throwIf(Objects.isNull(cachedData), NOT_FOUND, "Upload cache not found");
+        ThrowUtil.throwIf(!(cachedData instanceof AvatarUploadCache), NOT_FOUND);
+        AvatarUploadCache data = (AvatarUploadCache) cachedData;
+
+
+        // 验证缓存与回调信息一致性
+        ThrowUtil.throwIf(!data.getExpectedBucket().equals(vo.getBucketName()),
+                         NOT_FOUND, "Bucket name mismatch");
+
+        // 构建完整的OSS URL
+        String ossUrl = String.format("%s", data.getObjectPath());
+        AvatarUrlVo auv = new AvatarUrlVo(ossUrl, "success", data.getUsername());
+        auv.setUserId(data.getUserId());
+        if(Objects.isNull(ossUrl)) auv.setStatus("ossUrl");
+
+
+        return Result.success(auv);
+    }
+
+    /**
+     * 上传缓存key，OSS回调中的对象名不带开头的 /
+     */
+    private String uploadCacheKey(String objectPath) {
+        return AVATAR_UPLOAD_PREFIX + objectKey(objectPath);
+    }
+
+    /**
+     * 从MIME类型获取文件扩展名
+     */
+    private String getFileExtensionFromMimeType(String mimeType) {
+        switch (mimeType) {
+            case "image/jpeg":
+            case "image/jpg":
+                return "jpg";
+            case "image/png":
+                return "png";
+            case "image/gif":
+                return "gif";
+            default:
+                return "jpg";
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.basis.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.basis.common.ResponseCode;
+import com.basis.common.Result;
+import com.basis.context.UserContext;
+import com.basis.model.dto.LocalUploadToken;
+import com.basis.model.vo.AvatarMetaVo;
+import com.basis.model.vo.AvatarUrlVo;
+import com.basis.model.vo.LocalUploadVo;
+import com.basis.storage.LocalFileStore;
+import com.basis.upload.AvatarContentIndex;
+import com.basis.utils.RedisBatch;
+import com.basis.utils.ThrowUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+import static com.basis.common.ResponseCode.AUTH_FORBID;
+import static com.basis.common.ResponseCode.NOT_FOUND;
+import static com.basis.common.ResponseCode.PARAM_ERROR;
+import static com.basis.model.constant.BasicConstant.AVATAR_LOCAL_TOKEN_PREFIX;
+import static com.basis.model.constant.BasicConstant.LOCAL_FILE_URL_PREFIX;
+
+/**
+ * <p>
+ * 头像上传：本地存储模式，用于私有化部署和离线环境
+ * 上传初始化签发一次性上传令牌，客户端以 PUT 方式上传文件内容，写入时计算内容摘要去重，完成后直接进入头像更新队列
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "aliyun.oss.avatar", name = "upload-mode", havingValue = "local")
+public class LocalStorageService extends AbstractAvatarStorageService {
+
+    /**
+     * 上传地址前缀，后接上传令牌
+     */
+    public static final String UPLOAD_URL_PREFIX = "/user/avatar-upload/local/";
+
+    @Resource
+    private LocalFileStore localFileStore;
+
+    @Value("${storage.local.token-expire-seconds}")
+    private Long tokenExpireSeconds;
+
+    @Override
+    public Result<?> getAvatarUploadCredentials(Long userId, String username, AvatarMetaVo vo) {
+        // 校验是否为当前登录用户
+        if (!UserContext.getUserId().equals(userId)) {
+            return Result.fail(ResponseCode.AUTH_FORBID);
+        }
+        ThrowUtil.throwIf(vo.getFileSize() > maxFileSize, PARAM_ERROR, "File size exceeds limit");
+        Result<?> existing = reuseExisting(userId, username, vo);
+        if (Objects.nonNull(existing)) {
+            return existing;
+        }
+
+        String objectPath = newObjectPath(username, vo.getMimeType());
+        String token = IdUtil.fastSimpleUUID();
+        Instant expiration = Instant.now().plusSeconds(tokenExpireSeconds);
+        // 上传令牌与上传记录一次往返写入
+        RedisBatch batch = redisUtils.batch().setTimeout(AVATAR_LOCAL_TOKEN_PREFIX + token, LocalUploadToken.builder()
+                .userId(userId)
+                .username(username)
+                .objectPath(objectPath)
+                .mimeType(vo.getMimeType())
+                .build(), tokenExpireSeconds);
+        recordUpload(batch, userId, username, objectPath, expiration);
+        batch.execute();
+
+        LocalUploadVo upload = new LocalUploadVo();
+        upload.setUploadUrl(UPLOAD_URL_PREFIX + token);
+        upload.setContentType(vo.getMimeType());
+        upload.setObjectPath(objectPath);
+        upload.setMaxFileSize(maxFileSize);
+        upload.setExpiration(LocalDateTime.ofInstant(expiration, ZoneId.systemDefault()));
+        return Result.success(upload);
+    }
+
+    /**
+     * 接收上传内容
+     *
+     * @param token         上传令牌
+     * @param contentType   请求头 Content-Type
+     * @param contentLength 请求头 Content-Length，未知时为 -1
+     * @param body          请求体
+     * @return 头像访问路径
+     */
+    public Result<?> receive(String token, String contentType, long contentLength, ReadableByteChannel body) {
+        String tokenKey = AVATAR_LOCAL_TOKEN_PREFIX + token;
+        Object cached = redisUtils.getValue(tokenKey);
+        ThrowUtil.throwIf(!(cached instanceof LocalUploadToken), NOT_FOUND, "Upload token not found");
+        LocalUploadToken uploadToken = (LocalUploadToken) cached;
+        ThrowUtil.throwIf(!uploadToken.getUserId().equals(UserContext.getUserId()), AUTH_FORBID);
+        ThrowUtil.throwIf(Objects.isNull(contentType)
+                || !MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(uploadToken.getMimeType())),
+                PARAM_ERROR, "Content type mismatch");
+        ThrowUtil.throwIf(contentLength > maxFileSize, PARAM_ERROR, "File size exceeds limit");
+
+        // 写入的同时计算内容摘要
+        MessageDigest digest = AvatarContentIndex.newDigest();
+        long size = localFileStore.write(uploadToken.getObjectPath(),
+                Channels.newChannel(new DigestInputStream(Channels.newInputStream(body), digest)), maxFileSize);
+        // 令牌只能使用一次，写入失败时保留令牌以便重试
+        redisUtils.delKey(tokenKey);
+        log.info("Avatar stored locally, username: {}, objectPath: {}, size: {}", uploadToken.getUsername(), uploadToken.getObjectPath(), size);
+
+        // 相同内容已存在时删除本次写入的文件，使用已有头像
+        String uploaded = LOCAL_FILE_URL_PREFIX + uploadToken.getObjectPath();
+        String avatar = avatarContentIndex.register(AvatarContentIndex.hex(digest), uploaded, size);
+        if (!avatar.equals(uploaded)) {
+            localFileStore.delete(uploadToken.getObjectPath());
+        }
+        avatarUpdateQueue.enqueueOnce(objectKey(uploadToken.getObjectPath()), uploadToken.getUserId(), avatar);
+
+        AvatarUrlVo auv = new AvatarUrlVo(avatar, "success", uploadToken.getUsername());
+        auv.setUserId(uploadToken.getUserId());
+        return Result.success(auv);
+    }
+}
@@ -0,0 +1,245 @@
+package com.basis.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.basis.common.Result;
+import com.basis.context.UserContext;
+import com.basis.exception.BusinessException;
+import com.basis.model.dto.MultipartManifest;
+import com.basis.model.vo.MultipartInitVo;
+import com.basis.model.vo.MultipartUploadVo;
+import com.basis.service.IMultipartUploadService;
+import com.basis.storage.LocalFileStore;
+import com.basis.utils.RedisUtils;
+import com.basis.utils.ThrowUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.basis.common.ResponseCode.AUTH_FORBID;
+import static com.basis.common.ResponseCode.NOT_FOUND;
+import static com.basis.common.ResponseCode.OPERATE_ERROR;
+import static com.basis.common.ResponseCode.PARAM_ERROR;
+import static com.basis.common.ResponseCode.UPLOAD_FILE_ERROR;
+import static com.basis.common.ResponseCode.UPLOAD_INCOMPLETE;
+import static com.basis.model.constant.BasicConstant.LOCAL_FILE_URL_PREFIX;
+import static com.basis.model.constant.BasicConstant.MULTIPART_COMPLETE_LOCK_PREFIX;
+import static com.basis.model.constant.BasicConstant.MULTIPART_MANIFEST_PREFIX;
+import static com.basis.model.constant.BasicConstant.MULTIPART_PARTS_PREFIX;
+
+/**
+ * <p>
+ * 分片上传服务实现类
+ * 每个分片写入上传目录下的独立临时文件，不同分片可以并发上传；
+ * 上传清单和已接收分片位图保存在 Redis 中，多节点部署时 file.path 需为共享存储
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class MultipartUploadServiceImpl implements IMultipartUploadService {
+
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}$");
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Resource
+    private LocalFileStore localFileStore;
+
+    @Value("${storage.multipart.temp-path}")
+    private String tempPath;
+
+    @Value("${storage.multipart.target-path}")
+    private String targetPath;
+
+    @Value("${storage.multipart.max-file-size}")
+    private Long maxFileSize;
+
+    @Value("${storage.multipart.default-part-size}")
+    private Long defaultPartSize;
+
+    @Value("${storage.multipart.min-part-size}")
+    private Long minPartSize;
+
+    @Value("${storage.multipart.max-part-size}")
+    private Long maxPartSize;
+
+    @Value("${storage.multipart.max-parts}")
+    private Integer maxParts;
+
+    @Value("${storage.multipart.expire-seconds}")
+    private Long expireSeconds;
+
+    @Override
+    public Result<?> init(MultipartInitVo vo) {
+        ThrowUtil.throwIf(vo.getFileSize() > maxFileSize, PARAM_ERROR, "File size exceeds limit");
+
+        long partSize = Objects.isNull(vo.getPartSize()) ? defaultPartSize : vo.getPartSize();
+        partSize = Math.min(Math.max(partSize, minPartSize), maxPartSize);
+        // 分片数量超过上限时放大分片
+        partSize = Math.max(partSize, ceilDiv(vo.getFileSize(), maxParts));
+        String uploadId = IdUtil.fastSimpleUUID();
+
+        MultipartManifest manifest = MultipartManifest.builder()
+                .uploadId(uploadId)
+                .userId(UserContext.getUserId())
+                .fileName(vo.getFileName())
+                .contentType(vo.getContentType())
+                .fileSize(vo.getFileSize())
+                .partSize(partSize)
+                .partCount((int) ceilDiv(vo.getFileSize(), partSize))
+                .objectPath(targetPath + uploadId + extension(vo.getFileName()))
+                .createTime(System.currentTimeMillis())
+                .build();
+        redisUtils.setValueTimeout(MULTIPART_MANIFEST_PREFIX + uploadId, manifest, expireSeconds);
+        log.info("Multipart upload {} initialized, size: {}, parts: {}", uploadId, manifest.getFileSize(), manifest.getPartCount());
+        return Result.success(toVo(manifest, Collections.emptyList()));
+    }
+
+    @Override
+    public Result<?> uploadPart(String uploadId, int partNumber, ReadableByteChannel body) {
+        MultipartManifest manifest = manifest(uploadId);
+        ThrowUtil.throwIf(partNumber < 1 || partNumber > manifest.getPartCount(), PARAM_ERROR, "Invalid part number");
+
+        long expected = partLength(manifest, partNumber);
+        String partPath = partPath(uploadId, partNumber);
+        long size = localFileStore.write(partPath, body, expected);
+        if (size != expected) {
+            localFileStore.delete(partPath);
+            throw new BusinessException(PARAM_ERROR, "Part size mismatch");
+        }
+
+        String partsKey = MULTIPART_PARTS_PREFIX + uploadId;
+        // 记录分片并延长清单有效期，一次往返
+        redisUtils.batch()
+                .setBit(partsKey, partNumber - 1, true)
+                .expire(partsKey, expireSeconds)
+                .expire(MULTIPART_MANIFEST_PREFIX + uploadId, expireSeconds)
+                .execute();
+        return Result.success();
+    }
+
+    @Override
+    public Result<?> status(String uploadId) {
+        MultipartManifest manifest = manifest(uploadId);
+        return Result.success(toVo(manifest, receivedParts(uploadId, manifest.getPartCount())));
+    }
+
+    @Override
+    public Result<?> complete(String uploadId) {
+        MultipartManifest manifest = manifest(uploadId);
+        String lockKey = MULTIPART_COMPLETE_LOCK_PREFIX + uploadId;
+        Boolean locked = redisUtils.getRedisTemplate().opsForValue().setIfAbsent(lockKey, 1, Duration.ofSeconds(expireSeconds));
+        ThrowUtil.throwIf(!Boolean.TRUE.equals(locked), OPERATE_ERROR, "Upload is being completed");
+        try {
+            List<Integer> received = receivedParts(uploadId, manifest.getPartCount());
+            ThrowUtil.throwIf(received.size() < manifest.getPartCount(), UPLOAD_INCOMPLETE);
+
+            List<String> parts = new ArrayList<>(manifest.getPartCount());
+            for (int i = 1; i <= manifest.getPartCount(); i++) {
+                parts.add(partPath(uploadId, i));
+            }
+            long size = localFileStore.concat(parts, manifest.getObjectPath());
+            if (size != manifest.getFileSize()) {
+                localFileStore.delete(manifest.getObjectPath());
+                throw new BusinessException(UPLOAD_FILE_ERROR, "File size mismatch");
+            }
+
+            localFileStore.delete(uploadDir(uploadId));
+            redisUtils.delKeys(Arrays.asList(MULTIPART_MANIFEST_PREFIX + uploadId, MULTIPART_PARTS_PREFIX + uploadId));
+            log.info("Multipart upload {} completed: {}", uploadId, manifest.getObjectPath());
+        } finally {
+            redisUtils.delKey(lockKey);
+        }
+
+        MultipartUploadVo vo = toVo(manifest, Collections.emptyList());
+        vo.setUrl(LOCAL_FILE_URL_PREFIX + "/" + manifest.getObjectPath());
+        return Result.success(vo);
+    }
+
+    @Override
+    public Result<?> abort(String uploadId) {
+        manifest(uploadId);
+        redisUtils.delKeys(Arrays.asList(MULTIPART_MANIFEST_PREFIX + uploadId, MULTIPART_PARTS_PREFIX + uploadId));
+        localFileStore.delete(uploadDir(uploadId));
+        log.info("Multipart upload {} aborted", uploadId);
+        return Result.success();
+    }
+
+    /**
+     * 读取上传清单，并校验是否为当前用户的上传
+     */
+    private MultipartManifest manifest(String uploadId) {
+        Object cached = redisUtils.getValue(MULTIPART_MANIFEST_PREFIX + uploadId);
+        ThrowUtil.throwIf(!(cached instanceof MultipartManifest), NOT_FOUND, "Upload not found");
+        MultipartManifest manifest = (MultipartManifest) cached;
+        ThrowUtil.throwIf(!manifest.getUserId().equals(UserContext.getUserId()), AUTH_FORBID);
+        return manifest;
+    }
+
+    /**
+     * 一次读取整个位图，解析出已接收的分片编号
+     */
+    private List<Integer> receivedParts(String uploadId, int partCount) {
+        byte[] key = (MULTIPART_PARTS_PREFIX + uploadId).getBytes(StandardCharsets.UTF_8);
+        byte[] bitmap = (byte[]) redisUtils.getRedisTemplate().execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(key));
+        if (Objects.isNull(bitmap)) {
+            return Collections.emptyList();
+        }
+        List<Integer> received = new ArrayList<>();
+        for (int i = 0; i < partCount && (i >> 3) < bitmap.length; i++) {
+            // Redis 位图每个字节从高位开始编号
+            if ((bitmap[i >> 3] & (0x80 >>> (i & 7))) != 0) {
+                received.add(i + 1);
+            }
+        }
+        return received;
+    }
+
+    private String uploadDir(String uploadId) {
+        return tempPath + uploadId;
+    }
+
+    private String partPath(String uploadId, int partNumber) {
+        return uploadDir(uploadId) + "/" + partNumber;
+    }
+
+    private static long partLength(MultipartManifest manifest, int partNumber) {
+        long offset = (partNumber - 1) * manifest.getPartSize();
+        return Math.min(manifest.getPartSize(), manifest.getFileSize() - offset);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private static String extension(String fileName) {
+        Matcher matcher = EXTENSION.matcher(fileName);
+        return matcher.find() ? matcher.group().toLowerCase() : "";
+    }
+
+    private static MultipartUploadVo toVo(MultipartManifest manifest, List<Integer> receivedParts) {
+        MultipartUploadVo vo = new MultipartUploadVo();
+        vo.setUploadId(manifest.getUploadId());
+        vo.setFileSize(manifest.getFileSize());
+        vo.setPartSize(manifest.getPartSize());
+        vo.setPartCount(manifest.getPartCount());
+        vo.setReceivedParts(receivedParts);
+        return vo;
+    }
+}
@@ -0,0 +1,164 @@
+package com.basis.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.basis.common.Result;
+import com.basis.context.UserContext;
+import com.basis.mapper.PermissionMapper;
+import com.basis.mapper.RoleMapper;
+import com.basis.mapper.RolePermissionMapper;
+import com.basis.mapper.UserMapper;
+import com.basis.mapper.UserRoleMapper;
+import com.basis.model.entity.Permission;
+import com.basis.model.entity.Role;
+import com.basis.model.entity.RolePermission;
+import com.basis.model.entity.UserRole;
+import com.basis.model.vo.AssignPermissionVo;
+import com.basis.model.vo.AssignRoleVo;
+import com.basis.model.vo.InsertPermissionVo;
+import com.basis.model.vo.InsertRoleVo;
+import com.basis.model.vo.RemovePermissionVo;
+import com.basis.permission.PermissionEngine;
+import com.basis.service.IPermissionService;
+import com.basis.utils.ThrowUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import static com.basis.common.ResponseCode.NOT_FOUND;
+import static com.basis.common.ResponseCode.PERMISSION_INFO_EXISTED;
+import static com.basis.common.ResponseCode.ROLE_INFO_EXISTED;
+import static com.basis.common.ResponseCode.ROLE_NOT_EXISTED;
+import static com.basis.common.ResponseCode.USER_NOT_EXIST;
+
+/**
+ * <p>
+ *  角色权限服务实现类
+ *  写入数据库后刷新本节点的权限引擎，并广播给其他节点
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class PermissionServiceImpl implements IPermissionService {
+
+    @Resource
+    private RoleMapper roleMapper;
+
+    @Resource
+    private PermissionMapper permissionMapper;
+
+    @Resource
+    private RolePermissionMapper rolePermissionMapper;
+
+    @Resource
+    private UserRoleMapper userRoleMapper;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private PermissionEngine permissionEngine;
+
+    @Override
+    public Result<?> insertRole(InsertRoleVo vo) {
+        Long count = roleMapper.selectCount(new LambdaQueryWrapper<Role>().eq(Role::getRoleCode, vo.getRoleCode()));
+        ThrowUtil.throwIf(count > 0, ROLE_INFO_EXISTED);
+        Role role = new Role();
+        role.setRoleCode(vo.getRoleCode());
+        role.setRoleName(vo.getRoleName());
+        role.setCreateTime(LocalDateTime.now());
+        role.setUpdateTime(LocalDateTime.now());
+        role.setIsDeleted(false);
+        roleMapper.insert(role);
+        refreshGraph();
+        return Result.success();
+    }
+
+    @Override
+    public Result<?> insertPermission(InsertPermissionVo vo) {
+        Long count = permissionMapper.selectCount(new LambdaQueryWrapper<Permission>().eq(Permission::getPCode, vo.getPermissionCode()));
+        ThrowUtil.throwIf(count > 0, PERMISSION_INFO_EXISTED);
+        Permission permission = new Permission();
+        permission.setPCode(vo.getPermissionCode());
+        permission.setPName(vo.getPermissionName());
+        permission.setCreateTime(LocalDateTime.now());
+        permission.setUpdateTime(LocalDateTime.now());
+        permission.setIsDeleted(false);
+        permissionMapper.insert(permission);
+        refreshGraph();
+        return Result.success();
+    }
+
+    @Override
+    public Result<?> assignRole(AssignRoleVo vo) {
+        ThrowUtil.throwIf(!permissionEngine.containsRole(vo.getRoleId()), ROLE_NOT_EXISTED);
+        ThrowUtil.throwIf(Objects.isNull(userMapper.selectById(vo.getUserId())), USER_NOT_EXIST);
+        Long count = userRoleMapper.selectCount(new LambdaQueryWrapper<UserRole>()
+                .eq(UserRole::getUId, vo.getUserId())
+                .eq(UserRole::getRId, vo.getRoleId()));
+        if (count > 0) {
+            return Result.success();
+        }
+        UserRole userRole = new UserRole();
+        userRole.setUId(vo.getUserId());
+        userRole.setRId(vo.getRoleId());
+        userRole.setCreateTime(LocalDateTime.now());
+        userRole.setUpdateTime(LocalDateTime.now());
+        userRole.setIsDeleted(false);
+        userRoleMapper.insert(userRole);
+        // 只刷新该用户的角色
+        permissionEngine.reloadUser(vo.getUserId());
+        permissionEngine.publishChange(vo.getUserId());
+        return Result.success();
+    }
+
+    @Override
+    public Result<?> assignPermission(AssignPermissionVo vo) {
+        ThrowUtil.throwIf(!permissionEngine.containsRole(vo.getRoleId()), ROLE_NOT_EXISTED);
+        ThrowUtil.throwIf(!permissionEngine.containsPermission(vo.getPermissionId()), NOT_FOUND);
+        Long count = rolePermissionMapper.selectCount(new LambdaQueryWrapper<RolePermission>()
+                .eq(RolePermission::getRId, vo.getRoleId())
+                .eq(RolePermission::getPId, vo.getPermissionId()));
+        if (count > 0) {
+            return Result.success();
+        }
+        RolePermission rolePermission = new RolePermission();
+        rolePermission.setRId(vo.getRoleId());
+        rolePermission.setPId(vo.getPermissionId());
+        rolePermission.setCreateTime(LocalDateTime.now());
+        rolePermission.setUpdateTime(LocalDateTime.now());
+        rolePermission.setIsDeleted(false);
+        rolePermissionMapper.insert(rolePermission);
+        refreshGraph();
+        return Result.success();
+    }
+
+    @Override
+    public Result<?> removePermission(RemovePermissionVo vo) {
+        int deleted = rolePermissionMapper.delete(new LambdaQueryWrapper<RolePermission>()
+                .eq(RolePermission::getRId, vo.getRoleId())
+                .eq(RolePermission::getPId, Long.valueOf(vo.getPermissionId())));
+        if (deleted > 0) {
+            refreshGraph();
+        }
+        return Result.success();
+    }
+
+    @Override
+    public Result<?> getPermissionList() {
+        return Result.success(permissionEngine.getPermissionList(UserContext.getUserId()));
+    }
+
+    /**
+     * 角色图发生变更，重新加载并通知其他节点
+     */
+    private void refreshGraph() {
+        permissionEngine.reloadGraph();
+        permissionEngine.publishChange(null);
+    }
+}
@@ -0,0 +1,193 @@
+package com.basis.service.impl;
+
+import com.basis.common.ResponseCode;
+import com.basis.common.Result;
+import com.basis.context.UserContext;
+import com.basis.exception.BusinessException;
+import com.basis.model.vo.AvatarMetaVo;
+import com.basis.model.vo.PostPolicyVo;
+import com.basis.utils.ThrowUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.basis.common.ResponseCode.PARAM_ERROR;
+import static com.basis.common.ResponseCode.SYSTEM_ERROR;
+
+/**
+ * <p>
+ * 头像上传：PostObject 签名模式
+ * 服务端使用主账号 AccessKey 在本地对上传策略做 HMAC-SHA1 签名，客户端以表单方式直传 OSS，
+ * 不需要访问 STS，签名只授权上传一个指定对象
+ * </p>
+ *
+ * @author IT 派同学
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "aliyun.oss.avatar", name = "upload-mode", havingValue = "post-policy")
+public class PostPolicyStorageService extends AbstractAvatarStorageService {
+
+    private static final String HMAC_SHA1 = "HmacSHA1";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * OSS 要求的 policy 过期时间格式
+     */
+    private static final DateTimeFormatter EXPIRATION_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    @Value("${aliyun.access-key-id}")
+    private String accessKeyId;
+
+    @Value("${aliyun.access-key-secret}")
+    private String accessKeySecret;
+
+    @Value("${aliyun.oss.avatar.endpoint}")
+    private String ossEndpoint;
+
+    @Value("${aliyun.oss.avatar.callback-url}")
+    private String callbackUrl;
+
+    @Value("${aliyun.oss.avatar.policy-expire-seconds}")
+    private Long policyExpireSeconds;
+
+    private String host;
+
+    private String callback;
+
+    /**
+     * Mac 非线程安全，每个线程从已初始化密钥的原型克隆一份
+     */
+    private ThreadLocal<Mac> mac;
+
+    @PostConstruct
+    public void init() {
+        URI uri = URI.create(ossEndpoint);
+        host = uri.getScheme() + "://" + bucketName + "." + uri.getHost();
+        callback = buildCallback();
+
+        Mac prototype;
+        try {
+            prototype = Mac.getInstance(HMAC_SHA1);
+            prototype.init(new SecretKeySpec(accessKeySecret.getBytes(StandardCharsets.UTF_8), HMAC_SHA1));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA1 not available", e);
+        }
+        mac = ThreadLocal.withInitial(() -> {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public Result<?> getAvatarUploadCredentials(Long userId, String username, AvatarMetaVo vo) {
+        // 校验是否为当前登录用户
+        if (!UserContext.getUserId().equals(userId)) {
+            return Result.fail(ResponseCode.AUTH_FORBID);
+        }
+        ThrowUtil.throwIf(vo.getFileSize() > maxFileSize, PARAM_ERROR, "File size exceeds limit");
+        Result<?> existing = reuseExisting(userId, username, vo);
+        if (Objects.nonNull(existing)) {
+            return existing;
+        }
+
+        String objectPath = newObjectPath(username, vo.getMimeType());
+        String key = objectKey(objectPath);
+        Instant expiration = Instant.now().plusSeconds(policyExpireSeconds);
+
+        String policy = encodePolicy(key, vo.getMimeType(), expiration);
+
+        PostPolicyVo postPolicy = new PostPolicyVo();
+        postPolicy.setHost(host);
+        postPolicy.setAccessKeyId(accessKeyId);
+        postPolicy.setPolicy(policy);
+        postPolicy.setSignature(sign(policy));
+        postPolicy.setCallback(callback);
+        postPolicy.setKey(key);
+        postPolicy.setContentType(vo.getMimeType());
+        postPolicy.setObjectPath(objectPath);
+        postPolicy.setMaxFileSize(maxFileSize);
+        postPolicy.setExpiration(LocalDateTime.ofInstant(expiration, ZoneId.systemDefault()));
+
+        recordUpload(userId, username, objectPath, expiration);
+
+        return Result.success(postPolicy);
+    }
+
+    /**
+     * 构建上传策略并做 Base64 编码
+     * 限定对象名、文件类型和大小，签名泄露也只能上传这一个对象
+     */
+    String encodePolicy(String key, String mimeType, Instant expiration) {
+        List<Object> conditions = Arrays.asList(
+                Arrays.asList("content-length-range", 0, maxFileSize),
+                Arrays.asList("eq", "$key", key),
+                Arrays.asList("eq", "$content-type", mimeType),
+                singleton("bucket", bucketName));
+        Map<String, Object> policy = new LinkedHashMap<>();
+        policy.put("expiration", EXPIRATION_FORMAT.format(expiration));
+        policy.put("conditions", conditions);
+        return base64Json(policy);
+    }
+
+    /**
+     * Signature = Base64(HMAC-SHA1(AccessKeySecret, Base64(policy)))
+     */
+    String sign(String encodedPolicy) {
+        byte[] digest = mac.get().doFinal(encodedPolicy.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    /**
+     * 回调参数与对象无关，启动时编码一次
+     */
+    private String buildCallback() {
+        Map<String, Object> param = new LinkedHashMap<>();
+        param.put("callbackUrl", callbackUrl);
+        param.put("callbackBody", "{\"bucket_name\":${bucket},\"object\":${object}}");
+        param.put("callbackBodyType", "application/json");
+        return base64Json(param);
+    }
+
+    private static Map<String, String> singleton(String key, String value) {
+        Map<String, String> map = new LinkedHashMap<>(2);
+        map.put(key, value);
+        return map;
+    }
+
+    private static String base64Json(Object value) {
+        try {
+            return Base64.getEncoder().encodeToString(MAPPER.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize upload policy", e);
+            throw new BusinessException(SYSTEM_ERROR);
+        }
+    }
+}
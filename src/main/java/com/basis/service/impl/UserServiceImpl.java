@@ -6,9 +6,14 @@ import lombok.extern.slf4j.Slf4j;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.basis.cache.UserProfileCache;
 import com.basis.common.Result;
+import com.basis.context.UserContext;
 import com.basis.exception.BusinessException;
+import com.basis.image.AvatarVariants;
 import com.basis.mapper.UserMapper;
+import com.basis.model.dto.OssCallbackDto;
+import com.basis.model.dto.UserProfileDto;
 import com.basis.model.entity.User;
 import com.basis.model.vo.AvatarMetaVo;
 import com.basis.model.vo.AvatarUrlVo;
@@ -17,6 +22,7 @@ import com.basis.model.vo.LoginVo;
 import com.basis.model.vo.ProfileVo;
 import com.basis.model.vo.RegisterVo;
 import com.basis.model.vo.SendVo;
+import com.basis.password.PasswordEngine;
 import com.basis.service.ICloudStorageService;
 import com.basis.service.IUserService;
 import com.basis.strategy.login.LoginStrategy;
@@ -25,18 +31,24 @@ import com.basis.strategy.sendStrategy.SendCaptchaStrategy;
 import com.basis.strategy.sendStrategy.SendCaptchaStrategyFactory;
 import com.basis.strategy.validateStrategy.AvatarValidationStrategy;
 import com.basis.strategy.validateStrategy.AvatarValidationStrategyFactory;
-import com.basis.utils.PasswordUtils;
+import com.basis.upload.AvatarUpdateQueue;
+import com.basis.upload.OssCallbackVerifier;
 import com.basis.utils.ThrowUtil;
 import com.basis.utils.UsernameUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+import static com.basis.common.ResponseCode.AUTH_FORBID;
 import static com.basis.common.ResponseCode.NOTHING_TO_UPDATE;
+import static com.basis.common.ResponseCode.PARAM_ERROR;
 import static com.basis.common.ResponseCode.USERNAME_OR_PASS_EMPTY;
 import static com.basis.common.ResponseCode.USER_ALREADY_EXISTED;
 import static com.basis.common.ResponseCode.USER_NOT_EXIST;
@@ -66,6 +78,24 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
     @Autowired
     private ICloudStorageService cloudStorageService;
 
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private OssCallbackVerifier ossCallbackVerifier;
+
+    @Autowired
+    private AvatarUpdateQueue avatarUpdateQueue;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AvatarVariants avatarVariants;
+
+    @Autowired
+    private PasswordEngine passwordEngine;
+
     @Value("${proxy.schema}")
     private String schema;
     @Value("${proxy.host}")
@@ -127,20 +157,24 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         // 根据email查询用户是否存在
         User one = getOne(new LambdaQueryWrapper<User>().eq(User::getEmail, vo.getEmail()).last("LIMIT 1"));        // 校验是否存在
         ThrowUtil.throwIf(Objects.nonNull(one), new BusinessException(USER_ALREADY_EXISTED));
-        String salt = PasswordUtils.getSalt();
-        String encode = PasswordUtils.encode(vo.getPassword(), salt);
+        // 哈希自带盐，不再使用 salt 字段
+        String encode = passwordEngine.hash(vo.getPassword());
         User user = new User();
         // 生成username
         String username = UsernameUtil.generateUsernameFromEmail(vo.getEmail());
         user.setPassword(encode);
         user.setCreateTime(LocalDateTime.now());
         user.setUpdateTime(LocalDateTime.now());
-        user.setSalt(salt);
         user.setEmail(vo.getEmail());
         user.setUserName(username);
         user.setIsDeleted(false);
         user.setNickName(DEFAULT_NICK_NAME);
-        save(user);
+        try {
+            save(user);
+        } catch (DuplicateKeyException e) {
+            // 并发注册同一邮箱，或邮箱仍被已删除的账号占用
+            throw new BusinessException(USER_ALREADY_EXISTED);
+        }
         return Result.success();
     }
 
@@ -158,11 +192,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
 
     @Override
     public Result<?> getProfile() {
-        // TODO: 私用redis缓存加快查询速度
-        Object username = StpUtil.getSession().get("username");
-
-        // 根据username在user数据表中查询
-        User one = getOne(new LambdaQueryWrapper<User>().eq(User::getUserName, username).last("LIMIT 1"));
+        // 依次从本地缓存、Redis、数据库中获取当前用户资料
+        UserProfileDto one = currentProfile();
         ThrowUtil.throwIf(Objects.isNull(one), USER_NOT_EXIST);
 
         // 构造Profile对象
@@ -173,6 +204,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         // 构造avatarUrl
         String avatarUrl = String.format("%s://%s:%s",schema, host, port) + one.getAvatar();
         profile.setAvatarUrl(avatarUrl);
+        profile.setAvatarUrls(avatarVariants.urls(String.format("%s://%s:%s", schema, host, port), one.getAvatar()));
 
 
         return Result.success(profile);
@@ -188,22 +220,21 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
      */
     @Override
     public Result<?> updateProfile(ProfileVo vo) {
-        // 获取当前登录用户
-        Object username = StpUtil.getSession().get("username");
-
-        // 根据username查询用户
-        User user = getOne(new LambdaQueryWrapper<User>().eq(User::getUserName, username).last("LIMIT 1"));
-        ThrowUtil.throwIf(Objects.isNull(user), USER_NOT_EXIST);
+        // 根据当前登录用户主键查询用户
+        User current = getById(UserContext.getUserId());
+        ThrowUtil.throwIf(Objects.isNull(current), USER_NOT_EXIST);
 
-        // 更新用户信息
+        // 只写入变更的列，避免用读取时的旧值覆盖头像调度并发写入的 avatar、avatar_seq
+        User user = new User();
+        user.setId(current.getId());
         boolean needUpdate = false;
 
-        if (StrUtil.isNotEmpty(vo.getNickname()) && !Objects.equals(vo.getNickname(), user.getNickName())) {
+        if (StrUtil.isNotEmpty(vo.getNickname()) && !Objects.equals(vo.getNickname(), current.getNickName())) {
             user.setNickName(vo.getNickname());
             needUpdate = true;
         }
 
-        if (StrUtil.isNotEmpty(vo.getPhone()) && !Objects.equals(vo.getPhone(), user.getPhone())) {
+        if (StrUtil.isNotEmpty(vo.getPhone()) && !Objects.equals(vo.getPhone(), current.getPhone())) {
             user.setPhone(vo.getPhone());
             needUpdate = true;
         }
@@ -212,6 +243,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         if (needUpdate) {
             user.setUpdateTime(LocalDateTime.now());
             updateById(user);
+            // 数据库更新后失效缓存
+            userProfileCache.invalidate(user.getId());
             return Result.success();
         } else {
             return Result.fail(NOTHING_TO_UPDATE);
@@ -228,11 +261,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
      */
     @Override
     public Result<?> uploadInit(AvatarMetaVo vo) {
-        // 获取当前登录用户
-        String username = StpUtil.getSession().get("username").toString();
-
-        // 根据username查询用户
-        User user = getOne(new LambdaQueryWrapper<User>().eq(User::getUserName, username).last("LIMIT 1"));
+        // 获取当前登录用户资料
+        UserProfileDto user = currentProfile();
         ThrowUtil.throwIf(Objects.isNull(user), USER_NOT_EXIST);
 
         // 检查meta数据是否符合上传标准
@@ -240,49 +270,66 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         validationStrategy.validateAvatarMetadata(vo);
 
         // 申请STS凭证
-        return cloudStorageService.getAvatarUploadCredentials(username, vo);
+        return cloudStorageService.getAvatarUploadCredentials(user.getId(), user.getUserName(), vo);
     }
 
     @Override
-    public Result<?> uploadCallback(CallbackBodyVo vo) {
+    public Result<?> uploadCallback(OssCallbackDto callback) {
+        // 校验回调确实来自 OSS
+        ThrowUtil.throwIf(!ossCallbackVerifier.verify(callback), AUTH_FORBID, "Invalid oss callback signature");
+        CallbackBodyVo vo = parseCallbackBody(callback.getBody());
+
         // 验证回调信息与缓存一致性，构造ossUrl
         AvatarUrlVo auv = (AvatarUrlVo) cloudStorageService.handleUploadCallback(vo).getData();
-        log.info(auv.toString());
-        ThrowUtil.throwIf(Objects.isNull(auv), USER_NOT_EXIST);
-
-        // 将ossUrl 更新到Mysql
-        // String username = StpUtil.getSession().get("username").toString();
+        ThrowUtil.throwIf(Objects.isNull(auv) || Objects.isNull(auv.getUserId()), USER_NOT_EXIST);
 
-        // 根据username查询用户
-        User user = getOne(new LambdaQueryWrapper<User>().eq(User::getUserName, auv.getUsername()).last("LIMIT 1"));
-        ThrowUtil.throwIf(Objects.isNull(user), USER_NOT_EXIST);
-
-        // 更新用户头像URL
-        user.setAvatar(auv.getAvatarUrl());
-        user.setUpdateTime(LocalDateTime.now());
-        boolean success = updateById(user);
-
-        if (success) {
-            // 返回完整的头像URL
-            auv.setAvatarUrl(String.format("%s://%s:%s%s", schema, host, port, auv.getAvatarUrl()));
-            return Result.success(auv);
-        } else {
-            return Result.fail("Write avatar oss-url into db failed");
+        // 数据库更新和缓存失效异步执行，OSS 重试的回调不会重复入队
+        if (!avatarUpdateQueue.enqueueOnce(vo.getObject(), auv.getUserId(), auv.getAvatarUrl())) {
+            log.info("Duplicate upload callback for object: {}", vo.getObject());
         }
+
+        // 返回完整的头像URL
+        auv.setAvatarUrl(String.format("%s://%s:%s%s", schema, host, port, auv.getAvatarUrl()));
+        return Result.success(auv);
     }
 
     @Override
     public Result<?> fecthAvatar() {
-        // TODO: 使用redis缓存数据库信息，来加快查询速度
-        String username = StpUtil.getSession().get("username").toString();
-        // 直接从数据库拿到User
-        User user = getOne(new LambdaQueryWrapper<User>().eq(User::getUserName, username).last("LIMIT 1"));
+        // 依次从本地缓存、Redis、数据库中获取当前用户资料
+        UserProfileDto user = currentProfile();
         ThrowUtil.throwIf(Objects.isNull(user), USER_NOT_EXIST);
 
-        AvatarUrlVo auv = new AvatarUrlVo(String.format("%s://%s:%s%s", schema, host, port, user.getAvatar()), "success", username);
+        AvatarUrlVo auv = new AvatarUrlVo(String.format("%s://%s:%s%s", schema, host, port, user.getAvatar()), "success", user.getUserName());
+        auv.setAvatarUrls(avatarVariants.urls(String.format("%s://%s:%s", schema, host, port), user.getAvatar()));
         return Result.success(auv);
     }
 
-    
+    private CallbackBodyVo parseCallbackBody(String body) {
+        try {
+            return objectMapper.readValue(body, CallbackBodyVo.class);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(PARAM_ERROR, "Invalid oss callback body");
+        }
+    }
+
+    /**
+     * 获取当前登录用户资料，同一请求内只解析一次
+     *
+     * @return 用户资料，用户不存在时返回 null
+     */
+    private UserProfileDto currentProfile() {
+        return UserContext.getProfile(userId -> userProfileCache.get(userId, this::loadProfile));
+    }
+
+    /**
+     * 缓存未命中时按主键从数据库加载用户资料
+     *
+     * @param userId 用户 ID
+     * @return 用户资料，用户不存在时返回 null
+     */
+    private UserProfileDto loadProfile(Long userId) {
+        User user = getById(userId);
+        return Objects.isNull(user) ? null : UserProfileDto.from(user);
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.basis.sms;
+
+import com.alibaba.fastjson.JSON;
+import com.aliyuncs.DefaultAcsClient;
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.dysmsapi.model.v20170525.SendBatchSmsRequest;
+import com.aliyuncs.dysmsapi.model.v20170525.SendBatchSmsResponse;
+import com.aliyuncs.dysmsapi.model.v20170525.SendSmsRequest;
+import com.aliyuncs.dysmsapi.model.v20170525.SendSmsResponse;
+import com.aliyuncs.exceptions.ClientException;
+import com.aliyuncs.http.HttpClientConfig;
+import com.aliyuncs.http.HttpClientType;
+import com.aliyuncs.profile.DefaultProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 阿里云短信通道
+ * 每个地域只创建一个客户端并长期复用，底层使用带连接池的 Apache HttpClient；
+ * 单条使用 SendSms，多条使用 SendBatchSms
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sms", name = "provider", havingValue = "aliyun", matchIfMissing = true)
+public class AliyunSmsSender implements SmsSender {
+
+    private static final String SUCCESS = "OK";
+
+    @Value("${aliyun.product}")
+    private String product;
+
+    @Value("${aliyun.domain}")
+    private String domain;
+
+    @Value("${aliyun.accessKey}")
+    private String accessKey;
+
+    @Value("${aliyun.accessSecret}")
+    private String accessSecret;
+
+    @Value("${sms.region}")
+    private String region;
+
+    @Value("${sms.sign-name}")
+    private String signName;
+
+    @Value("${sms.connect-timeout-ms}")
+    private Long connectTimeoutMs;
+
+    @Value("${sms.read-timeout-ms}")
+    private Long readTimeoutMs;
+
+    @Value("${sms.max-connections}")
+    private Integer maxConnections;
+
+    /**
+     * 地域 -> 客户端，客户端线程安全
+     */
+    private final Map<String, IAcsClient> clients = new ConcurrentHashMap<>();
+
+    @Override
+    public void send(String templateCode, List<SmsMessage> messages) throws ClientException {
+        IAcsClient client = client(region);
+        if (messages.size() == 1) {
+            SmsMessage message = messages.get(0);
+            SendSmsRequest request = new SendSmsRequest();
+            request.setPhoneNumbers(message.getPhone());
+            request.setSignName(signName);
+            request.setTemplateCode(templateCode);
+            request.setTemplateParam(message.getTemplateParam());
+            SendSmsResponse response = client.getAcsResponse(request);
+            checkResponse(response.getCode(), response.getMessage());
+            return;
+        }
+        SendBatchSmsRequest request = new SendBatchSmsRequest();
+        request.setTemplateCode(templateCode);
+        request.setPhoneNumberJson(JSON.toJSONString(messages.stream().map(SmsMessage::getPhone).collect(Collectors.toList())));
+        request.setSignNameJson(JSON.toJSONString(Collections.nCopies(messages.size(), signName)));
+        // 模板变量按号码顺序一一对应
+        request.setTemplateParamJson("[" + messages.stream().map(SmsMessage::getTemplateParam).collect(Collectors.joining(",")) + "]");
+        SendBatchSmsResponse response = client.getAcsResponse(request);
+        checkResponse(response.getCode(), response.getMessage());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        clients.values().forEach(IAcsClient::shutdown);
+        clients.clear();
+    }
+
+    private IAcsClient client(String regionId) {
+        return clients.computeIfAbsent(regionId, this::createClient);
+    }
+
+    private IAcsClient createClient(String regionId) {
+        HttpClientConfig config = HttpClientConfig.getDefault();
+        config.setClientType(HttpClientType.ApacheHttpClient);
+        config.setConnectionTimeoutMillis(connectTimeoutMs);
+        config.setReadTimeoutMillis(readTimeoutMs);
+        config.setMaxRequests(maxConnections);
+        config.setMaxRequestsPerHost(maxConnections);
+        config.setMaxIdleConnections(maxConnections);
+        DefaultProfile profile = DefaultProfile.getProfile(regionId, accessKey, accessSecret);
+        profile.setHttpClientConfig(config);
+        try {
+            DefaultProfile.addEndpoint(regionId, regionId, product, domain);
+        } catch (ClientException e) {
+            throw new IllegalStateException("Register sms endpoint failed", e);
+        }
+        log.info("Created sms client for region {}", regionId);
+        return new DefaultAcsClient(profile);
+    }
+
+    private void checkResponse(String code, String message) {
+        if (!SUCCESS.equalsIgnoreCase(code)) {
+            throw new IllegalStateException("Send sms failed: " + code + " " + message);
+        }
+    }
+}
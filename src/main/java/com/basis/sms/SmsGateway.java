@@ -0,0 +1,172 @@
+package com.basis.sms;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 短信网关
+ * 请求线程只负责放入有界队列，分发线程按模板凑批后交给发送线程调用短信通道；
+ * 队列满时直接拒绝，避免短信通道变慢时拖垮请求线程
+ */
+@Slf4j
+@Component
+public class SmsGateway {
+
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    @Resource
+    private SmsSender smsSender;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${sms.template-code}")
+    private String templateCode;
+
+    @Value("${sms.queue-capacity}")
+    private Integer queueCapacity;
+
+    @Value("${sms.workers}")
+    private Integer workers;
+
+    @Value("${sms.batch-size}")
+    private Integer batchSize;
+
+    @Value("${sms.batch-wait-ms}")
+    private Long batchWaitMs;
+
+    private BlockingQueue<SmsMessage> queue;
+
+    private ThreadPoolExecutor senders;
+
+    private Thread dispatcher;
+
+    private volatile boolean running;
+
+    private Counter sent;
+
+    private Counter failed;
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger counter = new AtomicInteger();
+        // 发送线程都忙时由分发线程自己发送，分发变慢后队列积压，最终在入队时拒绝
+        senders = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(workers * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sms-sender-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        Gauge.builder("sms_queue_size", queue, BlockingQueue::size).register(meterRegistry);
+        sent = Counter.builder("sms_send").tag("result", "success").register(meterRegistry);
+        failed = Counter.builder("sms_send").tag("result", "failure").register(meterRegistry);
+        rejected = Counter.builder("sms_send").tag("result", "rejected").register(meterRegistry);
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "sms-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        senders.shutdown();
+        if (!senders.awaitTermination(10, TimeUnit.SECONDS)) {
+            senders.shutdownNow();
+        }
+    }
+
+    /**
+     * 使用默认验证码模板提交短信
+     *
+     * @param phone         手机号
+     * @param templateParam 模板变量 JSON
+     * @return 是否已放入发送队列，队列满时返回 false
+     */
+    public boolean submit(String phone, String templateParam) {
+        return submit(new SmsMessage(phone, templateCode, templateParam));
+    }
+
+    public boolean submit(SmsMessage message) {
+        boolean accepted = queue.offer(message);
+        if (!accepted) {
+            rejected.increment();
+        }
+        return accepted;
+    }
+
+    private void dispatchLoop() {
+        // 停机时先把队列中剩余的短信发完
+        while (running || !queue.isEmpty()) {
+            try {
+                SmsMessage first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<SmsMessage> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWaitMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    SmsMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Dispatch sms failed", e);
+            }
+        }
+    }
+
+    private void dispatch(List<SmsMessage> batch) {
+        Map<String, List<SmsMessage>> byTemplate = new LinkedHashMap<>();
+        for (SmsMessage message : batch) {
+            byTemplate.computeIfAbsent(message.getTemplateCode(), key -> new ArrayList<>()).add(message);
+        }
+        byTemplate.forEach((template, messages) -> senders.execute(() -> send(template, messages)));
+    }
+
+    private void send(String template, List<SmsMessage> messages) {
+        try {
+            smsSender.send(template, messages);
+            sent.increment(messages.size());
+        } catch (Exception e) {
+            failed.increment(messages.size());
+            log.error("Send {} sms with template {} failed: {}", messages.size(), template, e.getMessage());
+        }
+    }
+}
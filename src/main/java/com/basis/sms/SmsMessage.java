@@ -0,0 +1,29 @@
+package com.basis.sms;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 待发送短信
+ */
+@Data
+@AllArgsConstructor
+public class SmsMessage {
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 短信模板编号
+     */
+    private String templateCode;
+
+    /**
+     * 模板变量 JSON，如 {"code":"1234"}
+     */
+    private String templateParam;
+}
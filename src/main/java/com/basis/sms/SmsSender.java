@@ -0,0 +1,20 @@
+package com.basis.sms;
+
+import java.util.List;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 短信通道，由 sms.provider 选择具体实现
+ */
+public interface SmsSender {
+
+    /**
+     * 发送一批使用相同模板的短信
+     *
+     * @param templateCode 短信模板编号
+     * @param messages     待发送短信，数量不超过 sms.batch-size
+     * @throws Exception 发送失败
+     */
+    void send(String templateCode, List<SmsMessage> messages) throws Exception;
+}
@@ -0,0 +1,39 @@
+package com.basis.sms;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 本地短信桩，只记录不发送，用于开发和测试环境
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sms", name = "provider", havingValue = "stub")
+public class StubSmsSender implements SmsSender {
+
+    private final List<SmsMessage> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void send(String templateCode, List<SmsMessage> messages) {
+        for (SmsMessage message : messages) {
+            log.info("[SMS stub] phone: {}, template: {}, param: {}", message.getPhone(), templateCode, message.getTemplateParam());
+        }
+        sent.addAll(messages);
+    }
+
+    /**
+     * 已发送的短信
+     */
+    public List<SmsMessage> getSent() {
+        synchronized (sent) {
+            return new ArrayList<>(sent);
+        }
+    }
+}
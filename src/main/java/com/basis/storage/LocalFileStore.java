@@ -0,0 +1,266 @@
+package com.basis.storage;
+
+import com.basis.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.basis.common.ResponseCode.NOT_FOUND;
+import static com.basis.common.ResponseCode.PARAM_ERROR;
+import static com.basis.common.ResponseCode.UPLOAD_FILE_ERROR;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 本地文件存储，根目录为 file.path
+ * 写入时直接从请求体通道写入文件通道，不经过 multipart 解析和临时文件；读取时由文件通道直接写出
+ */
+@Slf4j
+@Component
+public class LocalFileStore {
+
+    /**
+     * 单次 transferFrom 的最大字节数
+     */
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    @Value("${file.path}")
+    private String path;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(path).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    /**
+     * 将相对路径解析为根目录下的绝对路径，拒绝越出根目录的路径
+     *
+     * @param relative 相对路径，可以 / 开头
+     * @return 绝对路径
+     */
+    public Path resolve(String relative) {
+        Path resolved = root.resolve(trimLeadingSlash(relative)).normalize();
+        if (!resolved.startsWith(root) || resolved.equals(root)) {
+            throw new BusinessException(PARAM_ERROR, "Invalid file path");
+        }
+        return resolved;
+    }
+
+    /**
+     * 将通道中的数据写入文件，先写临时文件，完整写入后原子替换
+     *
+     * @param relative 相对路径
+     * @param source   数据来源
+     * @param maxBytes 允许的最大字节数
+     * @return 写入的字节数
+     */
+    public long write(String relative, ReadableByteChannel source, long maxBytes) {
+        Path target = resolve(relative);
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(target.getParent());
+            long size;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                size = transferFrom(channel, source, maxBytes);
+            }
+            if (size > maxBytes) {
+                Files.deleteIfExists(temp);
+                throw new BusinessException(PARAM_ERROR, "File size exceeds limit");
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return size;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            log.error("Write file {} failed: {}", relative, e.getMessage());
+            throw new BusinessException(UPLOAD_FILE_ERROR);
+        }
+    }
+
+    /**
+     * 将文件写出到目标通道
+     *
+     * @param file   文件绝对路径
+     * @param target 目标通道
+     */
+    public void transferTo(Path file, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    /**
+     * 按顺序拼接多个文件，文件之间直接由文件通道传输，完成后原子替换目标文件
+     *
+     * @param parts    待拼接文件的相对路径
+     * @param relative 目标相对路径
+     * @return 目标文件长度
+     */
+    public long concat(List<String> parts, String relative) {
+        Path target = resolve(relative);
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(target.getParent());
+            long size;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                for (String part : parts) {
+                    transferTo(resolve(part), out);
+                }
+                size = out.size();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return size;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            log.error("Concat files into {} failed: {}", relative, e.getMessage());
+            throw new BusinessException(UPLOAD_FILE_ERROR);
+        }
+    }
+
+    /**
+     * 删除文件或目录（包括目录下的所有文件）
+     *
+     * @param relative 相对路径
+     * @return 删除的文件总字节数
+     */
+    public long delete(String relative) {
+        Path target = resolve(relative);
+        if (!Files.exists(target)) {
+            return 0;
+        }
+        long deleted = 0;
+        try (Stream<Path> walk = Files.walk(target)) {
+            // 先删除文件再删除所在目录
+            List<Path> paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (Path path : paths) {
+                long size = Files.isRegularFile(path) ? Files.size(path) : 0;
+                if (deleteQuietly(path)) {
+                    deleted += size;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Delete {} failed: {}", relative, e.getMessage());
+        }
+        return deleted;
+    }
+
+    /**
+     * 分页列出目录下的直接子项，不递归
+     *
+     * @param relativeDir 相对目录，不存在时不回调
+     * @param pageSize    每页数量
+     * @param page        每页回调
+     */
+    public void list(String relativeDir, int pageSize, Consumer<List<StoredObject>> page) {
+        Path dir = resolve(relativeDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        List<StoredObject> batch = new ArrayList<>(pageSize);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    // 列出后被删除
+                    continue;
+                }
+                batch.add(new StoredObject(root.relativize(entry).toString().replace('\\', '/'),
+                        attributes.isDirectory() ? 0 : attributes.size(),
+                        attributes.lastModifiedTime().toInstant(), attributes.isDirectory()));
+                if (batch.size() == pageSize) {
+                    page.accept(batch);
+                    batch = new ArrayList<>(pageSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            page.accept(batch);
+        }
+    }
+
+    /**
+     * 文件长度，不存在时返回 -1
+     */
+    public long size(String relative) {
+        try {
+            return Files.size(resolve(relative));
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 文件不存在时抛出 NOT_FOUND
+     */
+    public Path existing(String relative) {
+        Path file = resolve(relative);
+        if (!Files.isRegularFile(file)) {
+            throw new BusinessException(NOT_FOUND);
+        }
+        return file;
+    }
+
+    /**
+     * 从 position 开始写入，最多读取 maxBytes + 1 字节用于判断是否超限
+     *
+     * @return 写入后的文件长度
+     */
+    static long transferFrom(FileChannel channel, ReadableByteChannel source, long maxBytes) throws IOException {
+        long position = channel.size();
+        long transferred;
+        while (position <= maxBytes
+                && (transferred = channel.transferFrom(source, position, Math.min(TRANSFER_CHUNK, maxBytes + 1 - position))) > 0) {
+            position += transferred;
+        }
+        return position;
+    }
+
+    private static String trimLeadingSlash(String relative) {
+        int i = 0;
+        while (i < relative.length() && (relative.charAt(i) == '/' || relative.charAt(i) == '\\')) {
+            i++;
+        }
+        return relative.substring(i);
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Delete file {} failed: {}", file, e.getMessage());
+            return false;
+        }
+    }
+}
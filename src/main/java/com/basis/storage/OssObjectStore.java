@@ -0,0 +1,107 @@
+package com.basis.storage;
+
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSClientBuilder;
+import com.aliyun.oss.model.DeleteObjectsRequest;
+import com.aliyun.oss.model.ListObjectsV2Request;
+import com.aliyun.oss.model.ListObjectsV2Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像 bucket 的服务端读取、列举和删除，启动时创建 OSS 客户端，之后一直复用
+ * 对象内容以流的方式返回，由调用方边读边处理并负责关闭
+ */
+@Slf4j
+@Component
+public class OssObjectStore {
+
+    @Value("${aliyun.oss.avatar.endpoint}")
+    private String endpoint;
+
+    @Value("${aliyun.access-key-id}")
+    private String accessKeyId;
+
+    @Value("${aliyun.access-key-secret}")
+    private String accessKeySecret;
+
+    @Value("${aliyun.oss.avatar.bucket-name}")
+    private String bucketName;
+
+    private OSS client;
+
+    @PostConstruct
+    public void init() {
+        client = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        client.shutdown();
+    }
+
+    /**
+     * 读取对象内容
+     *
+     * @param key 对象名，不带开头的 /
+     * @return 对象内容流，调用方负责关闭
+     */
+    public InputStream open(String key) {
+        return client.getObject(bucketName, key).getObjectContent();
+    }
+
+    /**
+     * 分页列出前缀下的对象
+     *
+     * @param prefix   对象名前缀
+     * @param pageSize 每页数量，最大 1000
+     * @param page     每页回调
+     */
+    public void list(String prefix, int pageSize, Consumer<List<StoredObject>> page) {
+        String continuationToken = null;
+        do {
+            ListObjectsV2Result result = client.listObjectsV2(new ListObjectsV2Request(bucketName)
+                    .withPrefix(prefix)
+                    .withMaxKeys(pageSize)
+                    .withContinuationToken(continuationToken));
+            List<StoredObject> objects = result.getObjectSummaries().stream()
+                    .map(summary -> new StoredObject(summary.getKey(), summary.getSize(), summary.getLastModified().toInstant(), false))
+                    .collect(Collectors.toList());
+            if (!objects.isEmpty()) {
+                page.accept(objects);
+            }
+            continuationToken = result.isTruncated() ? result.getNextContinuationToken() : null;
+        } while (Objects.nonNull(continuationToken));
+    }
+
+    /**
+     * 批量删除对象，单次最多 1000 个
+     *
+     * @param keys 对象名，不带开头的 /
+     */
+    public void delete(List<String> keys) {
+        client.deleteObjects(new DeleteObjectsRequest(bucketName).withKeys(keys).withQuiet(true));
+        log.info("Oss objects deleted: {}", keys.size());
+    }
+
+    /**
+     * 删除对象，对象不存在时不报错
+     *
+     * @param key 对象名，不带开头的 /
+     */
+    public void delete(String key) {
+        client.deleteObject(bucketName, key);
+        log.info("Oss object deleted: {}", key);
+    }
+}
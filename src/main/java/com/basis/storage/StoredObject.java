@@ -0,0 +1,30 @@
+package com.basis.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 存储列表中的一项，本地存储与 OSS 共用
+ */
+@Data
+@AllArgsConstructor
+public class StoredObject {
+
+    /**
+     * 相对根目录（本地）或对象名（OSS），不带开头的 /
+     */
+    private String key;
+
+    /**
+     * 文件大小（字节），目录为 0
+     */
+    private long size;
+
+    private Instant lastModified;
+
+    private boolean directory;
+}
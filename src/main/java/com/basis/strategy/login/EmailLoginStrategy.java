@@ -9,6 +9,7 @@ import com.basis.common.Result;
 import com.basis.exception.BusinessException;
 import com.basis.mapper.UserMapper;
 import com.basis.model.entity.User;
+import com.basis.model.enums.CaptchaVerifyResult;
 import com.basis.model.vo.LoginVo;
 import com.basis.utils.RedisUtils;
 import com.basis.utils.ThrowUtil;
@@ -18,6 +19,7 @@ import javax.annotation.Resource;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+import static com.basis.model.constant.BasicConstant.CAPTCHA_MAX_ATTEMPTS;
 import static com.basis.model.constant.BasicConstant.DEFAULT_NICK_NAME;
 import static com.basis.model.constant.BasicConstant.EMAIL_CODE_PREFIX;
 
@@ -40,15 +42,14 @@ public class EmailLoginStrategy implements LoginStrategy {
     public Result<String> login(LoginVo vo) {
         // 校验参数
         ThrowUtil.throwIf(StrUtil.isEmpty(vo.getEmail()) || StrUtil.isEmpty(vo.getCode()), new BusinessException(ResponseCode.EMAIL_OR_CODE_EMPTY));
-        // 从 Redis 中获取验证码
+        // 在 Redis 中原子地校验并消费验证码
         String key = StrUtil.join(EMAIL_CODE_PREFIX, vo.getEmail());
-        String code = (String) redisUtils.getValue(key);
+        CaptchaVerifyResult result = redisUtils.verifyCaptcha(key, vo.getCode(), CAPTCHA_MAX_ATTEMPTS);
         // 校验验证码
-        ThrowUtil.throwIf(Objects.isNull(code) || StrUtil.isEmpty(code), new BusinessException(ResponseCode.CODE_NOT_EXISTED));
+        ThrowUtil.throwIf(result == CaptchaVerifyResult.EXPIRED, new BusinessException(ResponseCode.CODE_NOT_EXISTED));
+        ThrowUtil.throwIf(result == CaptchaVerifyResult.LOCKED, new BusinessException(ResponseCode.CODE_ATTEMPTS_EXCEEDED));
         // 对比验证码是否正确
-        ThrowUtil.throwIf(!vo.getCode().equals(code), new BusinessException(ResponseCode.CODE_NOT_CORRECT));
-        // 验证码无误后随即删除缓存中的验证码
-        redisUtils.delKey(key);
+        ThrowUtil.throwIf(result == CaptchaVerifyResult.MISMATCH, new BusinessException(ResponseCode.CODE_NOT_CORRECT));
         // 根据用户名查询用户是否存在
         User user = userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getEmail, vo.getEmail()).last("LIMIT 1"));
         // 校验是否存在
@@ -15,7 +15,7 @@ import com.basis.annotations.LoginTypeAnno;
 import com.basis.mapper.UserMapper;
 import com.basis.model.entity.User;
 import com.basis.model.vo.LoginVo;
-import com.basis.utils.PasswordUtils;
+import com.basis.password.PasswordEngine;
 import com.basis.utils.ThrowUtil;
 
 import org.springframework.stereotype.Service;
@@ -30,6 +30,9 @@ public class EmailPasswordLoginStrategy implements LoginStrategy {
     @Resource
     private UserMapper userMapper;
 
+    @Resource
+    private PasswordEngine passwordEngine;
+
     @Override
     public Result<String> login(LoginVo vo) {
         ThrowUtil.throwIf(StrUtil.isEmpty(vo.getEmail()) || StrUtil.isEmpty(vo.getPassword()), new BusinessException(EMAIL_OR_PASS_EMPTY));
@@ -37,18 +40,16 @@ public class EmailPasswordLoginStrategy implements LoginStrategy {
         User one = userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getEmail, vo.getEmail()).last("LIMIT 1"));
         ThrowUtil.throwIf(Objects.isNull(one), new BusinessException(USER_NOT_EXIST));
 
-        // 校验密码
-        String salt = one.getSalt();
-        ThrowUtil.throwIf(!PasswordUtils.matches(salt, vo.getPassword(), one.getPassword()), new BusinessException(PASSWORD_ERROR));
+        // 校验密码，旧版 MD5 哈希需要用户加密盐
+        ThrowUtil.throwIf(!passwordEngine.matches(vo.getPassword(), one.getPassword(), one.getSalt()), new BusinessException(PASSWORD_ERROR));
+        // 哈希算法或参数落后时异步升级
+        if (passwordEngine.needsRehash(one.getPassword())) {
+            passwordEngine.rehashAsync(vo.getPassword(), hash -> userMapper.updatePasswordHash(one.getId(), hash, one.getPassword()));
+        }
 
-        // 执行登录
+        // 执行登录，loginId 即用户主键，后续请求通过 UserContext 解析
         StpUtil.login(one.getId());
 
-        String username = one.getUserName();
-        ThrowUtil.throwIf(Objects.isNull(username), new BusinessException(USER_NOT_EXIST));
-        StpUtil.getSession().set("username", username);
-
-        
         // 返回 Token 值
         return Result.success(StpUtil.getTokenValue());
     }
@@ -9,6 +9,7 @@ import com.basis.common.Result;
 import com.basis.exception.BusinessException;
 import com.basis.mapper.UserMapper;
 import com.basis.model.entity.User;
+import com.basis.model.enums.CaptchaVerifyResult;
 import com.basis.model.vo.LoginVo;
 import com.basis.utils.RedisUtils;
 import com.basis.utils.ThrowUtil;
@@ -19,6 +20,7 @@ import javax.annotation.Resource;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+import static com.basis.model.constant.BasicConstant.CAPTCHA_MAX_ATTEMPTS;
 import static com.basis.model.constant.BasicConstant.DEFAULT_NICK_NAME;
 import static com.basis.model.constant.BasicConstant.PHONE_CODE_PREFIX;
 
@@ -42,15 +44,14 @@ public class PhoneLoginStrategy implements LoginStrategy {
     public Result<String> login(LoginVo vo) {
         // 校验参数
         ThrowUtil.throwIf(StrUtil.isEmpty(vo.getPhone()) || StrUtil.isEmpty(vo.getCode()), new BusinessException(ResponseCode.PHONE_OR_CODE_EMPTY));
-        // 从 Redis 中获取验证码
-        String key = StrUtil.join(PHONE_CODE_PREFIX, vo.getEmail());
-        String code = (String) redisUtils.getValue(key);
+        // 在 Redis 中原子地校验并消费验证码
+        String key = StrUtil.join(PHONE_CODE_PREFIX, vo.getPhone());
+        CaptchaVerifyResult result = redisUtils.verifyCaptcha(key, vo.getCode(), CAPTCHA_MAX_ATTEMPTS);
         // 校验验证码
-        ThrowUtil.throwIf(Objects.isNull(code) || StrUtil.isEmpty(code), new BusinessException(ResponseCode.CODE_NOT_EXISTED));
+        ThrowUtil.throwIf(result == CaptchaVerifyResult.EXPIRED, new BusinessException(ResponseCode.CODE_NOT_EXISTED));
+        ThrowUtil.throwIf(result == CaptchaVerifyResult.LOCKED, new BusinessException(ResponseCode.CODE_ATTEMPTS_EXCEEDED));
         // 对比验证码是否正确
-        ThrowUtil.throwIf(!vo.getCode().equals(code), new BusinessException(ResponseCode.CODE_NOT_CORRECT));
-        // 验证码无误后随即删除缓存中的验证码
-        redisUtils.delKey(key);
+        ThrowUtil.throwIf(result == CaptchaVerifyResult.MISMATCH, new BusinessException(ResponseCode.CODE_NOT_CORRECT));
         // 根据用户名查询用户是否存在
         User user = userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getPhone, vo.getPhone()).last("LIMIT 1"));
         // 校验是否存在
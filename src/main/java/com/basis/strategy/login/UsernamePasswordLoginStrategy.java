@@ -9,7 +9,7 @@ import com.basis.exception.BusinessException;
 import com.basis.mapper.UserMapper;
 import com.basis.model.entity.User;
 import com.basis.model.vo.LoginVo;
-import com.basis.utils.PasswordUtils;
+import com.basis.password.PasswordEngine;
 import com.basis.utils.ThrowUtil;
 import org.springframework.stereotype.Service;
 
@@ -30,6 +30,9 @@ public class UsernamePasswordLoginStrategy implements LoginStrategy {
     @Resource
     private UserMapper userMapper;
 
+    @Resource
+    private PasswordEngine passwordEngine;
+
     @Override
     public Result<String> login(LoginVo vo) {
         // 校验参数
@@ -38,11 +41,12 @@ public class UsernamePasswordLoginStrategy implements LoginStrategy {
         User one = userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getUserName, vo.getUsername()).last("LIMIT 1"));
         // 校验是否存在
         ThrowUtil.throwIf(Objects.isNull(one), new BusinessException(USER_NOT_EXIST));
-        // 校验密码
-        // 获取用户加密盐
-        String salt = one.getSalt();
-        // 校验密码是否正确
-        ThrowUtil.throwIf(!PasswordUtils.matches(salt, vo.getPassword(), one.getPassword()), new BusinessException(PASSWORD_ERROR));
+        // 校验密码是否正确，旧版 MD5 哈希需要用户加密盐
+        ThrowUtil.throwIf(!passwordEngine.matches(vo.getPassword(), one.getPassword(), one.getSalt()), new BusinessException(PASSWORD_ERROR));
+        // 哈希算法或参数落后时异步升级
+        if (passwordEngine.needsRehash(one.getPassword())) {
+            passwordEngine.rehashAsync(vo.getPassword(), hash -> userMapper.updatePasswordHash(one.getId(), hash, one.getPassword()));
+        }
         // 执行登录
         StpUtil.login(one.getId());
         // 返回 Token 值
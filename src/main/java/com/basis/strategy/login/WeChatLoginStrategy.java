@@ -4,18 +4,22 @@ import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.basis.annotations.LoginTypeAnno;
 import com.basis.common.Result;
+import com.basis.exception.BusinessException;
 import com.basis.mapper.UserMapper;
 import com.basis.model.entity.User;
 import com.basis.model.entity.UserRole;
 import com.basis.model.vo.LoginVo;
+import com.basis.utils.ThrowUtil;
 import com.basis.utils.WeChatUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+import static com.basis.common.ResponseCode.USER_ALREADY_EXISTED;
 import static com.basis.model.constant.BasicConstant.DEFAULT_NICK_NAME;
 
 /**
@@ -42,10 +46,7 @@ public class WeChatLoginStrategy implements LoginStrategy {
         // 获取微信用户 ID
         final String openId = weChatUtils.getOpenId(vo.getWechatCode());
         //是否存在
-        User one = userMapper.selectOne(new QueryWrapper<User>()
-                .lambda()
-                .eq(User::getOpenId, openId)
-                .select(User::getId, User::getOpenId));
+        User one = findByOpenId(openId);
         // 不存在则写入 DB
         if (Objects.isNull(one)) {
             one = new User();
@@ -53,12 +54,26 @@ public class WeChatLoginStrategy implements LoginStrategy {
             one.setUpdateTime(LocalDateTime.now());
             one.setOpenId(openId);
             one.setNickName(DEFAULT_NICK_NAME);
+            // is_deleted 为 NULL 时逻辑删除条件查不到该用户，再次登录会重复写入 open_id
+            one.setIsDeleted(false);
             // 保存用户信息
-            userMapper.insert(one);
-        
+            try {
+                userMapper.insert(one);
+            } catch (DuplicateKeyException e) {
+                // 同一微信用户并发首次登录，由另一请求写入；重新查询仍不存在说明 open_id 被已删除的账号占用
+                one = findByOpenId(openId);
+                ThrowUtil.throwIf(Objects.isNull(one), new BusinessException(USER_ALREADY_EXISTED));
+            }
         }
         // 执行登录
         StpUtil.login(one.getId());
         return Result.success(StpUtil.getTokenValue());
     }
+
+    private User findByOpenId(String openId) {
+        return userMapper.selectOne(new QueryWrapper<User>()
+                .lambda()
+                .eq(User::getOpenId, openId)
+                .select(User::getId, User::getOpenId));
+    }
 }
@@ -5,18 +5,20 @@ import com.basis.annotations.LoginTypeAnno;
 import com.basis.common.ResponseCode;
 import com.basis.common.Result;
 import com.basis.exception.BusinessException;
+import com.basis.mail.MailQueue;
+import com.basis.mail.MailTemplateRenderer;
+import com.basis.model.enums.MailTemplateEnums;
 import com.basis.model.vo.SendVo;
 import com.basis.utils.RedisUtils;
 import com.basis.utils.ThrowUtil;
 import com.basis.utils.VerificationCode;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
-import javax.mail.internet.MimeMessage;
+import java.util.Locale;
 
+import static com.basis.model.constant.BasicConstant.CAPTCHA_CODE_FIELD;
 import static com.basis.model.constant.BasicConstant.EMAIL_CODE_PREFIX;
 
 /**
@@ -34,38 +36,28 @@ public class EmailCodeStrategy implements SendCaptchaStrategy {
     @Resource
     private VerificationCode verificationCode;
 
-    @Value("${spring.mail.username}")
-    private String username;
+    @Resource
+    private MailQueue mailQueue;
 
     @Resource
-    private JavaMailSender mailSender;
+    private MailTemplateRenderer mailTemplateRenderer;
 
     @Override
     public Result<String> send(SendVo vo) {
         ThrowUtil.throwIf(StrUtil.isEmpty(vo.getEmail()), new BusinessException(ResponseCode.EMAIL_NOT_ALLOW_EMPTY));
         // 判断 Redis 中是否已经存在验证码
         String cacheKey = StrUtil.join(EMAIL_CODE_PREFIX, vo.getEmail());
-        String captcha = (String) redisUtils.getValue(cacheKey);
+        String captcha = redisUtils.getCaptcha(cacheKey);
         // 判断是否不存在
         if (StrUtil.isEmpty(captcha)) {
             // 生成验证码 code
             captcha = verificationCode.VerificationCode(4);
             // 存入 Redis 中, 设置 5 分钟过期时间
-            redisUtils.setValueTimeout(cacheKey, captcha, 60 * 5);
-            // 创建邮件
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage);
-            try {
-                mimeMessageHelper.setFrom(username);
-                mimeMessageHelper.setTo(vo.getEmail());
-                mimeMessageHelper.setSubject("Deepfake");
-                // 将验证码转换为数组
-                mimeMessage.setContent(verificationCode.buildContent( String.valueOf(captcha.charAt(0)),
-                        String.valueOf(captcha.charAt(1)), String.valueOf(captcha.charAt(2)), String.valueOf(captcha.charAt(3))), "text/html;charset=UTF-8");
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-            mailSender.send(mimeMessage);
+            redisUtils.hashPutTimeout(cacheKey, CAPTCHA_CODE_FIELD, captcha, 60 * 5);
+            // 加入发送队列，由 MailDispatcher 异步发送
+            Locale locale = LocaleContextHolder.getLocale();
+            mailQueue.enqueue(vo.getEmail(), mailTemplateRenderer.subject(MailTemplateEnums.LOGIN_CODE, locale),
+                    mailTemplateRenderer.render(MailTemplateEnums.LOGIN_CODE, locale, captcha));
             return Result.success();
         }
         // 如果 Redis 中存在说明还未过期，则在前端禁用即可
@@ -1,21 +1,20 @@
 package com.basis.strategy.sendStrategy;
 
 import cn.hutool.core.util.StrUtil;
-import com.aliyuncs.dysmsapi.model.v20170525.SendSmsResponse;
-import com.aliyuncs.exceptions.ClientException;
 import com.basis.annotations.LoginTypeAnno;
 import com.basis.common.ResponseCode;
 import com.basis.common.Result;
 import com.basis.exception.BusinessException;
 import com.basis.model.vo.SendVo;
+import com.basis.sms.SmsGateway;
 import com.basis.utils.RedisUtils;
-import com.basis.utils.SmsProvider;
 import com.basis.utils.ThrowUtil;
 import com.basis.utils.VerificationCode;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 
+import static com.basis.model.constant.BasicConstant.CAPTCHA_CODE_FIELD;
 import static com.basis.model.constant.BasicConstant.PHONE_CODE_PREFIX;
 
 /**
@@ -34,32 +33,26 @@ public class PhoneCodeStrategy implements SendCaptchaStrategy {
     private VerificationCode verificationCode;
 
     @Resource
-    private SmsProvider smsProvider;
+    private SmsGateway smsGateway;
 
     @Override
     public Result<String> send(SendVo vo) {
         ThrowUtil.throwIf(StrUtil.isEmpty(vo.getPhone()), new BusinessException(ResponseCode.PHONE_NOT_ALLOW_EMPTY));
         // 判断 Redis 中是否已经存在验证码
         String cacheKey = StrUtil.join(PHONE_CODE_PREFIX, vo.getPhone());
-        String captcha = (String) redisUtils.getValue(cacheKey);
+        String captcha = redisUtils.getCaptcha(cacheKey);
         // 判断是否不存在
         if (StrUtil.isEmpty(captcha)) {
             // 生成验证码 code
             captcha = verificationCode.VerificationCode(4);
             // 存入 Redis 中, 设置 5 分钟过期时间
-            redisUtils.setValueTimeout(cacheKey, captcha, 60 * 5);
-            // 填充验证码
-            String TemplateParam = "{\"code\":\"" + captcha + "\"}";
-            try {
-                // 传入手机号码及短信模板中的验证码占位符
-                SendSmsResponse response = smsProvider.sendSms(vo.getPhone(), TemplateParam);
-                // 判断是否发送成功
-                if (response.getCode().equalsIgnoreCase("ok")) {
-                    // 存入 Redis 中, 设置 5 分钟过期时间
-                    redisUtils.setValueTimeout(cacheKey, captcha, 60 * 5);
-                }
-            } catch (ClientException e) {
-                throw new RuntimeException(e);
+            redisUtils.hashPutTimeout(cacheKey, CAPTCHA_CODE_FIELD, captcha, 60 * 5);
+            // 填充验证码, 加入短信发送队列, 由 SmsGateway 异步批量发送
+            String templateParam = "{\"code\":\"" + captcha + "\"}";
+            if (!smsGateway.submit(vo.getPhone(), templateParam)) {
+                // 队列已满, 删除验证码以便用户稍后重新获取
+                redisUtils.delKey(cacheKey);
+                throw new BusinessException(ResponseCode.SMS_BUSY);
             }
             return Result.success();
         }
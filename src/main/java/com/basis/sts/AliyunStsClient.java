@@ -0,0 +1,69 @@
+package com.basis.sts;
+
+import com.aliyuncs.DefaultAcsClient;
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.auth.sts.AssumeRoleRequest;
+import com.aliyuncs.auth.sts.AssumeRoleResponse;
+import com.aliyuncs.exceptions.ClientException;
+import com.aliyuncs.http.MethodType;
+import com.aliyuncs.http.ProtocolType;
+import com.aliyuncs.profile.DefaultProfile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 阿里云 STS 调用，启动时注册接入点并创建客户端，之后一直复用
+ */
+@Component
+public class AliyunStsClient implements StsClient {
+
+    @Value("${aliyun.sts-endpoint}")
+    private String endpoint;
+
+    @Value("${aliyun.access-key-id}")
+    private String accessKeyId;
+
+    @Value("${aliyun.access-key-secret}")
+    private String accessKeySecret;
+
+    @Value("${aliyun.role-arn}")
+    private String roleArn;
+
+    @Value("${aliyun.sts-protocol}")
+    private String protocol;
+
+    private IAcsClient client;
+
+    @PostConstruct
+    public void init() throws ClientException {
+        // 发起STS请求所在的地域。建议保留默认值，默认值为空字符串（""）。
+        String regionId = "";
+        DefaultProfile.addEndpoint(endpoint, regionId, "Sts", endpoint);
+        client = new DefaultAcsClient(DefaultProfile.getProfile(regionId, accessKeyId, accessKeySecret));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        client.shutdown();
+    }
+
+    @Override
+    public StsToken assumeRole(String policy, String sessionName, long durationSeconds) throws ClientException {
+        AssumeRoleRequest request = new AssumeRoleRequest();
+        request.setMethod(MethodType.POST);
+        request.setProtocol(ProtocolType.valueOf(protocol));
+        request.setRoleArn(roleArn);
+        request.setRoleSessionName(sessionName);
+        request.setPolicy(policy);
+        request.setDurationSeconds(durationSeconds);
+        AssumeRoleResponse.Credentials credentials = client.getAcsResponse(request).getCredentials();
+        return new StsToken(credentials.getAccessKeyId(), credentials.getAccessKeySecret(),
+                credentials.getSecurityToken(), Instant.parse(credentials.getExpiration()));
+    }
+}
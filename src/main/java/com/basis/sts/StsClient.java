@@ -0,0 +1,20 @@
+package com.basis.sts;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: STS 调用，测试中可替换为本地实现
+ */
+public interface StsClient {
+
+    /**
+     * 扮演角色获取临时凭证
+     *
+     * @param policy          权限策略，限定临时凭证可访问的资源
+     * @param sessionName     角色会话名称
+     * @param durationSeconds 有效时间（单位：秒）
+     * @return 临时凭证
+     * @throws Exception 调用失败
+     */
+    StsToken assumeRole(String policy, String sessionName, long durationSeconds) throws Exception;
+}
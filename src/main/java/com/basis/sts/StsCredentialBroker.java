@@ -0,0 +1,114 @@
+package com.basis.sts;
+
+import com.basis.common.ResponseCode;
+import com.basis.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: STS 临时凭证缓存
+ * 相同权限策略的请求共用一份临时凭证，直到距离过期不足安全余量时才重新申请；
+ * 同一策略的并发刷新只会发起一次 STS 调用，其他请求等待其结果
+ */
+@Slf4j
+@Component
+public class StsCredentialBroker {
+
+    @Resource
+    private StsClient stsClient;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${aliyun.sts-duration-seconds}")
+    private Long durationSeconds;
+
+    @Value("${aliyun.sts-refresh-margin-seconds}")
+    private Long refreshMarginSeconds;
+
+    /**
+     * 权限策略 -> 临时凭证（进行中的申请或已完成的结果）
+     */
+    private final Map<String, CompletableFuture<StsToken>> tokens = new ConcurrentHashMap<>();
+
+    private Counter hit;
+
+    private Counter miss;
+
+    private Timer latency;
+
+    @PostConstruct
+    public void init() {
+        hit = Counter.builder("sts_credentials").tag("result", "hit").register(meterRegistry);
+        miss = Counter.builder("sts_credentials").tag("result", "miss").register(meterRegistry);
+        latency = Timer.builder("sts_assume_role_latency").register(meterRegistry);
+    }
+
+    /**
+     * 获取指定权限策略的临时凭证
+     *
+     * @param policy      权限策略
+     * @param sessionName 角色会话名称，仅在需要重新申请时使用
+     * @return 距离过期至少还有安全余量的临时凭证
+     */
+    public StsToken getToken(String policy, String sessionName) {
+        CompletableFuture<StsToken> current = tokens.get(policy);
+        if (usable(current)) {
+            hit.increment();
+            return current.join();
+        }
+        CompletableFuture<StsToken> created = new CompletableFuture<>();
+        CompletableFuture<StsToken> winner = tokens.compute(policy,
+                (key, existing) -> Objects.nonNull(existing) && (!existing.isDone() || usable(existing)) ? existing : created);
+        if (winner != created) {
+            // 其他请求已在申请或刚申请完成
+            hit.increment();
+            return await(winner);
+        }
+        miss.increment();
+        try {
+            StsToken token = latency.recordCallable(() -> stsClient.assumeRole(policy, sessionName, durationSeconds));
+            created.complete(token);
+            return token;
+        } catch (Exception e) {
+            // 失败结果不缓存，下一次请求重新申请
+            tokens.remove(policy, created);
+            created.completeExceptionally(e);
+            log.error("Failed to obtain STS token: {}", e.getMessage());
+            throw new BusinessException(ResponseCode.OBTAIN_STS_TOKEN_FAILED);
+        }
+    }
+
+    private boolean usable(CompletableFuture<StsToken> future) {
+        if (Objects.isNull(future) || !future.isDone() || future.isCompletedExceptionally()) {
+            return false;
+        }
+        return future.join().getExpiration().isAfter(Instant.now().plusSeconds(refreshMarginSeconds));
+    }
+
+    private StsToken await(CompletableFuture<StsToken> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResponseCode.OBTAIN_STS_TOKEN_FAILED);
+        } catch (ExecutionException e) {
+            throw new BusinessException(ResponseCode.OBTAIN_STS_TOKEN_FAILED);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.basis.sts;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: STS 临时凭证
+ */
+@Data
+@AllArgsConstructor
+public class StsToken {
+
+    private String accessKeyId;
+
+    private String accessKeySecret;
+
+    private String securityToken;
+
+    /**
+     * 过期时间
+     */
+    private Instant expiration;
+}
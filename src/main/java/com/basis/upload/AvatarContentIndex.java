@@ -0,0 +1,158 @@
+package com.basis.upload;
+
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.basis.mapper.AvatarContentMapper;
+import com.basis.model.entity.AvatarContent;
+import com.basis.storage.OssObjectStore;
+import com.basis.utils.ThrowUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+import static com.basis.model.constant.BasicConstant.LOCAL_FILE_URL_PREFIX;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像内容索引，按内容 SHA-256 去重
+ * 相同内容只保留最先登记的一份，之后的上传指向同一头像路径，头像 URL 因此稳定，也提高 /avatar/ 缓存命中率；
+ * 本地上传在写入时计算摘要，OSS 上传在头像更新调度中流式读取对象计算摘要；引用数随用户头像变更在同一事务内调整
+ */
+@Slf4j
+@Component
+public class AvatarContentIndex {
+
+    private static final String SHA_256 = "SHA-256";
+
+    private static final int REGISTER_ATTEMPTS = 3;
+
+    @Resource
+    private AvatarContentMapper avatarContentMapper;
+
+    @Resource
+    private OssObjectStore ossObjectStore;
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(SHA_256);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String hex(MessageDigest digest) {
+        return HexUtil.encodeHexStr(digest.digest());
+    }
+
+    /**
+     * 按内容查找已有头像
+     *
+     * @param sha256 内容摘要
+     * @param size   文件大小，与登记的大小不一致时视为不存在
+     * @return 头像路径，不存在时返回 null
+     */
+    public String find(String sha256, long size) {
+        String key = sha256.toLowerCase();
+        // 先刷新更新时间再读取，读取到的内容不会在复用前被清理任务回收
+        if (avatarContentMapper.touch(key) == 0) {
+            return null;
+        }
+        AvatarContent content = avatarContentMapper.selectById(key);
+        return Objects.nonNull(content) && content.getSize() == size ? content.getAvatar() : null;
+    }
+
+    /**
+     * 登记头像内容，相同内容已登记时返回已有的头像路径
+     *
+     * @param sha256 内容摘要
+     * @param avatar 本次上传的头像路径
+     * @param size   文件大小
+     * @return 该内容对应的头像路径，与 avatar 不同时说明本次上传是重复内容
+     */
+    public String register(String sha256, String avatar, long size) {
+        AvatarContent content = new AvatarContent();
+        content.setSha256(sha256);
+        content.setAvatar(avatar);
+        content.setSize(size);
+        for (int attempt = 0; attempt < REGISTER_ATTEMPTS; attempt++) {
+            // 写入或刷新更新时间在同一条语句内完成，读回前不会被清理任务回收
+            avatarContentMapper.insertOrTouch(content);
+            AvatarContent registered = avatarContentMapper.selectById(sha256);
+            if (Objects.nonNull(registered)) {
+                if (!avatar.equals(registered.getAvatar())) {
+                    log.info("Duplicate avatar content {}, reuse {}", avatar, registered.getAvatar());
+                }
+                return registered.getAvatar();
+            }
+            // 头像路径已登记为其他内容，重试不会成功
+            ThrowUtil.throwIf(avatarContentMapper.selectCount(new LambdaQueryWrapper<AvatarContent>()
+                            .eq(AvatarContent::getAvatar, avatar)) > 0,
+                    new IllegalStateException("Avatar " + avatar + " is registered with different content"));
+            // 读回前恰好被清理，重新登记
+        }
+        throw new IllegalStateException("Register avatar content " + avatar + " failed after " + REGISTER_ATTEMPTS + " attempts");
+    }
+
+    /**
+     * 将上传的头像映射为去重后的头像路径
+     * 本地上传已在写入时登记；OSS 上传首次处理时流式读取对象计算摘要，重复调用时按已登记的路径直接返回
+     *
+     * @param avatar 上传的头像路径
+     * @return 去重后的头像路径
+     */
+    public String canonicalize(String avatar) {
+        if (avatar.startsWith(LOCAL_FILE_URL_PREFIX + "/")
+                || avatarContentMapper.selectCount(new LambdaQueryWrapper<AvatarContent>().eq(AvatarContent::getAvatar, avatar)) > 0) {
+            return avatar;
+        }
+        MessageDigest digest = newDigest();
+        long size;
+        try (InputStream in = new DigestInputStream(ossObjectStore.open(StrUtil.removePrefix(avatar, "/")), digest)) {
+            size = in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return register(hex(digest), avatar, size);
+    }
+
+    /**
+     * 删除与已有内容重复的上传对象，需在用户头像更新提交后调用
+     *
+     * @param avatar 重复的头像路径
+     */
+    public void discard(String avatar) {
+        try {
+            ossObjectStore.delete(StrUtil.removePrefix(avatar, "/"));
+        } catch (Exception e) {
+            // 未删除的对象没有任何引用，由清理任务回收
+            log.warn("Delete duplicate avatar {} failed: {}", avatar, e.getMessage());
+        }
+    }
+
+    /**
+     * 用户头像由 previous 变为 avatar 时调整引用数，需与用户头像更新在同一事务内执行
+     *
+     * @param previous 原头像路径
+     * @param avatar   新头像路径
+     */
+    public void transfer(String previous, String avatar) {
+        if (Objects.equals(previous, avatar)) {
+            return;
+        }
+        avatarContentMapper.addRefs(avatar, 1);
+        if (Objects.nonNull(previous)) {
+            avatarContentMapper.addRefs(previous, -1);
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.basis.upload;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.basis.image.AvatarVariants;
+import com.basis.mapper.AvatarContentMapper;
+import com.basis.mapper.UserMapper;
+import com.basis.model.entity.AvatarContent;
+import com.basis.model.entity.User;
+import com.basis.storage.LocalFileStore;
+import com.basis.storage.OssObjectStore;
+import com.basis.storage.StoredObject;
+import com.basis.utils.RedisUtils;
+import com.basis.utils.ThrowUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.basis.model.constant.BasicConstant.AVATAR_GC_LOCK_KEY;
+import static com.basis.model.constant.BasicConstant.AVATAR_UPLOAD_PREFIX;
+import static com.basis.model.constant.BasicConstant.LOCAL_FILE_URL_PREFIX;
+import static com.basis.model.constant.BasicConstant.MULTIPART_MANIFEST_PREFIX;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像存储清理
+ * 定时分页列出头像目录，每页与上传记录、xx_user 中的头像引用和内容索引对账，
+ * 删除超过保留期仍无人引用的对象：回调始终未到达的上传、被替换的旧头像、去重后多余的副本以及这些头像的缩略图；
+ * 同时清理清单已过期的分片上传临时目录。删除按速率限制进行，回收的字节数计入指标
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "avatar.gc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AvatarStorageSweeper {
+
+    /**
+     * 本地缩略图文件名：原图名_边长.jpg|png
+     */
+    private static final Pattern VARIANT = Pattern.compile("^(.+)_(\\d+)\\.(jpg|png)$");
+
+    /**
+     * 缩略图可能对应的原图扩展名
+     */
+    private static final String[] ORIGINAL_EXTENSIONS = {"jpg", "jpeg", "png", "gif"};
+
+    /**
+     * OSS 批量删除的上限
+     */
+    private static final int OSS_DELETE_BATCH = 1000;
+
+    private static final DefaultRedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>();
+
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        RENEW_LOCK_SCRIPT.setLocation(new ClassPathResource("lua/renew_lock.lua"));
+        RENEW_LOCK_SCRIPT.setResultType(Long.class);
+        RELEASE_LOCK_SCRIPT.setLocation(new ClassPathResource("lua/release_lock.lua"));
+        RELEASE_LOCK_SCRIPT.setResultType(Long.class);
+    }
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private AvatarContentMapper avatarContentMapper;
+
+    @Resource
+    private LocalFileStore localFileStore;
+
+    @Resource
+    private OssObjectStore ossObjectStore;
+
+    @Resource
+    private AvatarVariants avatarVariants;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${aliyun.oss.avatar.upload-mode}")
+    private String uploadMode;
+
+    @Value("${aliyun.oss.avatar.avatar-path}")
+    private String avatarPath;
+
+    @Value("${storage.multipart.temp-path}")
+    private String multipartTempPath;
+
+    @Value("${avatar.gc.interval-ms}")
+    private Long intervalMs;
+
+    @Value("${avatar.gc.page-size}")
+    private Integer pageSize;
+
+    @Value("${avatar.gc.grace-seconds}")
+    private Long graceSeconds;
+
+    @Value("${avatar.gc.delete-per-second}")
+    private Integer deletePerSecond;
+
+    @Value("${avatar.gc.keep-names}")
+    private String[] keepNames;
+
+    private final String nodeName = ManagementFactory.getRuntimeMXBean().getName();
+
+    private ScheduledExecutorService scheduler;
+
+    private Counter deletedObjects;
+
+    private Counter reclaimedBytes;
+
+    /**
+     * 下一次允许删除的时间（纳秒）
+     */
+    private long nextDeleteAt;
+
+    @PostConstruct
+    public void start() {
+        deletedObjects = Counter.builder("avatar_gc_deleted").register(meterRegistry);
+        reclaimedBytes = Counter.builder("avatar_gc_reclaimed").baseUnit("bytes").register(meterRegistry);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "avatar-gc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledSweep, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void scheduledSweep() {
+        try {
+            // 多个节点中只有一个执行本轮清理
+            Boolean locked = redisUtils.getRedisTemplate().opsForValue()
+                    .setIfAbsent(AVATAR_GC_LOCK_KEY, nodeName, Duration.ofMillis(intervalMs));
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+            try {
+                // 清理耗时可能超过锁有效期，每页处理前续期
+                Report report = sweep(this::renewLock);
+                log.info("Avatar gc finished, scanned: {}, deleted: {}, reclaimed bytes: {}",
+                        report.getScanned(), report.getDeleted(), report.getReclaimedBytes());
+            } finally {
+                redisUtils.getRedisTemplate().execute(RELEASE_LOCK_SCRIPT, Collections.singletonList(AVATAR_GC_LOCK_KEY), nodeName);
+            }
+        } catch (Exception e) {
+            log.error("Avatar gc failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 锁已过期并被其他节点获取时中止本轮清理
+     */
+    private void renewLock() {
+        Long renewed = (Long) redisUtils.getRedisTemplate().execute(RENEW_LOCK_SCRIPT,
+                Collections.singletonList(AVATAR_GC_LOCK_KEY), nodeName, intervalMs);
+        ThrowUtil.throwIf(!Objects.equals(renewed, 1L), new IllegalStateException("Avatar gc lock lost"));
+    }
+
+    /**
+     * 执行一轮清理
+     *
+     * @return 本轮清理结果
+     */
+    public Report sweep() {
+        return sweep(() -> {
+        });
+    }
+
+    private Report sweep(Runnable beforePage) {
+        Instant cutoff = Instant.now().minusSeconds(graceSeconds);
+        Report report = new Report();
+        boolean local = "local".equals(uploadMode);
+        if (local) {
+            localFileStore.list(avatarPath, pageSize, page -> {
+                beforePage.run();
+                sweepAvatars(page, true, cutoff, report);
+            });
+        } else {
+            ossObjectStore.list(avatarPath, Math.min(pageSize, OSS_DELETE_BATCH), page -> {
+                beforePage.run();
+                sweepAvatars(page, false, cutoff, report);
+            });
+        }
+        localFileStore.list(multipartTempPath, pageSize, page -> {
+            beforePage.run();
+            sweepMultipart(page, cutoff, report);
+        });
+        return report;
+    }
+
+    /**
+     * 对账一页头像对象，删除无人引用的部分
+     */
+    private void sweepAvatars(List<StoredObject> page, boolean local, Instant cutoff, Report report) {
+        report.scanned += page.size();
+        // 头像路径 -> 对象，只保留超过保留期且不在保留名单中的文件
+        Map<String, StoredObject> candidates = new LinkedHashMap<>();
+        for (StoredObject object : page) {
+            if (object.isDirectory() || object.getLastModified().isAfter(cutoff) || keep(object.getKey())) {
+                continue;
+            }
+            candidates.put((local ? LOCAL_FILE_URL_PREFIX + "/" : "/") + object.getKey(), object);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 上传记录仍在的对象可能还在等待回调
+        List<String> uploadKeys = candidates.values().stream()
+                .map(object -> AVATAR_UPLOAD_PREFIX + object.getKey())
+                .collect(Collectors.toList());
+        List<?> pending = redisUtils.getRedisTemplate().opsForValue().multiGet(uploadKeys);
+        List<String> avatars = new ArrayList<>(candidates.keySet());
+        for (int i = 0; Objects.nonNull(pending) && i < avatars.size(); i++) {
+            if (Objects.nonNull(pending.get(i))) {
+                candidates.remove(avatars.get(i));
+            }
+        }
+
+        // 原图被用户引用时保留原图及其缩略图
+        Map<String, List<String>> owners = new LinkedHashMap<>();
+        candidates.keySet().forEach(avatar -> owners.put(avatar, owners(avatar, local)));
+        Set<String> lookup = owners.values().stream().flatMap(List::stream).collect(Collectors.toSet());
+        if (!lookup.isEmpty()) {
+            Set<String> referenced = userMapper.selectList(new LambdaQueryWrapper<User>()
+                            .select(User::getAvatar)
+                            .in(User::getAvatar, lookup))
+                    .stream().map(User::getAvatar).collect(Collectors.toSet());
+            owners.forEach((avatar, list) -> {
+                if (list.stream().anyMatch(referenced::contains)) {
+                    candidates.remove(avatar);
+                }
+            });
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 内容索引中的头像只有在索引删除成功后才删除对象，最近被复用过的内容会保留
+        LocalDateTime cutoffTime = LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault());
+        List<AvatarContent> indexed = avatarContentMapper.selectList(new LambdaQueryWrapper<AvatarContent>()
+                .select(AvatarContent::getAvatar)
+                .in(AvatarContent::getAvatar, candidates.keySet()));
+        for (AvatarContent content : indexed) {
+            int removed = avatarContentMapper.delete(new LambdaQueryWrapper<AvatarContent>()
+                    .eq(AvatarContent::getAvatar, content.getAvatar())
+                    .le(AvatarContent::getRefCount, 0)
+                    .lt(AvatarContent::getUpdateTime, cutoffTime));
+            if (removed == 0) {
+                candidates.remove(content.getAvatar());
+            }
+        }
+
+        List<StoredObject> orphans = new ArrayList<>(candidates.values());
+        if (orphans.isEmpty()) {
+            return;
+        }
+        pace(orphans.size());
+        if (local) {
+            orphans.forEach(object -> reclaim(report, localFileStore.delete(object.getKey())));
+        } else {
+            ossObjectStore.delete(orphans.stream().map(StoredObject::getKey).collect(Collectors.toList()));
+            orphans.forEach(object -> reclaim(report, object.getSize()));
+        }
+    }
+
+    /**
+     * 清理清单已过期的分片上传目录
+     */
+    private void sweepMultipart(List<StoredObject> page, Instant cutoff, Report report) {
+        report.scanned += page.size();
+        for (StoredObject object : page) {
+            if (!object.isDirectory() || object.getLastModified().isAfter(cutoff)) {
+                continue;
+            }
+            String uploadId = object.getKey().substring(object.getKey().lastIndexOf('/') + 1);
+            if (Boolean.TRUE.equals(redisUtils.doesItExist(MULTIPART_MANIFEST_PREFIX + uploadId))) {
+                continue;
+            }
+            pace(1);
+            reclaim(report, localFileStore.delete(object.getKey()));
+        }
+    }
+
+    /**
+     * 引用哪些头像时该对象需要保留：对象本身，以及它是缩略图时对应的原图
+     */
+    private List<String> owners(String avatar, boolean local) {
+        List<String> owners = new ArrayList<>();
+        owners.add(avatar);
+        if (!local) {
+            return owners;
+        }
+        Matcher matcher = VARIANT.matcher(avatar);
+        if (matcher.matches() && Arrays.stream(avatarVariants.getSizes()).anyMatch(size -> String.valueOf(size).equals(matcher.group(2)))) {
+            for (String extension : ORIGINAL_EXTENSIONS) {
+                owners.add(matcher.group(1) + "." + extension);
+            }
+        }
+        return owners;
+    }
+
+    private boolean keep(String key) {
+        String name = key.substring(key.lastIndexOf('/') + 1);
+        return Arrays.asList(keepNames).contains(name);
+    }
+
+    private void reclaim(Report report, long bytes) {
+        report.deleted++;
+        report.reclaimedBytes += bytes;
+        deletedObjects.increment();
+        reclaimedBytes.increment(bytes);
+    }
+
+    /**
+     * 删除限速，每秒最多删除 deletePerSecond 个对象
+     */
+    private void pace(int count) {
+        long now = System.nanoTime();
+        long start = Math.max(now, nextDeleteAt);
+        nextDeleteAt = start + count * TimeUnit.SECONDS.toNanos(1) / deletePerSecond;
+        if (start > now) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(start - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Avatar gc interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * 一轮清理的结果
+     */
+    @Data
+    public static class Report {
+
+        private long scanned;
+
+        private long deleted;
+
+        private long reclaimedBytes;
+    }
+}
@@ -0,0 +1,310 @@
+package com.basis.upload;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.basis.cache.UserProfileCache;
+import com.basis.image.AvatarThumbnailPipeline;
+import com.basis.mapper.UserMapper;
+import com.basis.model.entity.User;
+import com.basis.utils.RedisUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.basis.model.constant.BasicConstant.AVATAR_UPDATE_GROUP;
+import static com.basis.model.constant.BasicConstant.AVATAR_UPDATE_STREAM_KEY;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像更新调度
+ * 单线程以消费组方式批量读取 Redis Stream，同一批内同一用户只写最后一次上传的头像，按内容去重后更新数据库，再失效资料缓存并生成缩略图；
+ * 更新失败的消息不确认，空闲超过重试间隔后被任一节点重新认领，超过最大尝试次数后记录错误并丢弃。
+ * 用户行记录最后应用的消息序号，重新认领的失败消息或其他节点乱序消费的消息早于该序号时跳过，不会用旧头像覆盖新头像
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "avatar.update-queue", name = "consumer-enabled", havingValue = "true", matchIfMissing = true)
+public class AvatarUpdateDispatcher {
+
+    private static final Duration READ_BLOCK = Duration.ofMillis(500);
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserProfileCache userProfileCache;
+
+    @Resource
+    private AvatarThumbnailPipeline thumbnailPipeline;
+
+    @Resource
+    private AvatarContentIndex avatarContentIndex;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${avatar.update-queue.batch-size}")
+    private Integer batchSize;
+
+    @Value("${avatar.update-queue.retry-ms}")
+    private Long retryMs;
+
+    @Value("${avatar.update-queue.max-attempts}")
+    private Integer maxAttempts;
+
+    private final String consumerName = ManagementFactory.getRuntimeMXBean().getName();
+
+    private ExecutorService worker;
+
+    private volatile boolean running;
+
+    private long lastReclaim;
+
+    private Counter updated;
+
+    private Counter failed;
+
+    private Counter dropped;
+
+    private Counter skipped;
+
+    @PostConstruct
+    public void start() {
+        createGroup();
+        Gauge.builder("avatar_update_queue_depth", this::queueDepth).register(meterRegistry);
+        updated = Counter.builder("avatar_update").tag("result", "success").register(meterRegistry);
+        failed = Counter.builder("avatar_update").tag("result", "failure").register(meterRegistry);
+        dropped = Counter.builder("avatar_update").tag("result", "dropped").register(meterRegistry);
+        skipped = Counter.builder("avatar_update").tag("result", "skipped").register(meterRegistry);
+
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "avatar-updater");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        worker.execute(this::pollLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.shutdown();
+        // 未处理完的消息保持未确认状态，由其他节点或重启后认领
+        if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+            worker.shutdownNow();
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                if (System.currentTimeMillis() - lastReclaim >= retryMs) {
+                    lastReclaim = System.currentTimeMillis();
+                    apply(reclaimPending());
+                }
+                apply(streamOps().read(
+                        Consumer.from(AVATAR_UPDATE_GROUP, consumerName),
+                        StreamReadOptions.empty().count(batchSize).block(READ_BLOCK),
+                        StreamOffset.create(AVATAR_UPDATE_STREAM_KEY, ReadOffset.lastConsumed())));
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Read avatar update queue failed: {}", e.getMessage());
+                sleepQuietly(1000);
+            }
+        }
+    }
+
+    /**
+     * 批量更新，同一用户只保留最后一条，早于已应用序号的消息直接确认
+     */
+    private void apply(List<MapRecord<String, Object, Object>> records) {
+        if (Objects.isNull(records) || records.isEmpty()) {
+            return;
+        }
+        Map<Long, List<MapRecord<String, Object, Object>>> byUser = new LinkedHashMap<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            Long userId = Long.valueOf(String.valueOf(record.getValue().get(AvatarUpdateQueue.FIELD_USER_ID)));
+            byUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(record);
+        }
+        byUser.forEach((userId, list) -> {
+            MapRecord<String, Object, Object> latest = list.get(0);
+            for (MapRecord<String, Object, Object> record : list) {
+                if (sequence(record.getId()) > sequence(latest.getId())) {
+                    latest = record;
+                }
+            }
+            final long seq = sequence(latest.getId());
+            try {
+                String uploaded = String.valueOf(latest.getValue().get(AvatarUpdateQueue.FIELD_AVATAR));
+                String avatar = avatarContentIndex.canonicalize(uploaded);
+                Boolean applied = transactionTemplate.execute(status -> {
+                    // 锁定用户行读取原头像，保证引用数调整与头像更新一致
+                    User current = userMapper.selectOne(new LambdaQueryWrapper<User>()
+                            .select(User::getId, User::getAvatar, User::getAvatarSeq)
+                            .eq(User::getId, userId)
+                            .last("FOR UPDATE"));
+                    // 用户已被删除时跳过，同样视为处理完成
+                    if (Objects.isNull(current)) {
+                        return false;
+                    }
+                    // 已应用过更新的消息，本条是重试或乱序到达的旧消息
+                    if (Objects.nonNull(current.getAvatarSeq()) && current.getAvatarSeq() >= seq) {
+                        return false;
+                    }
+                    User user = new User();
+                    user.setId(userId);
+                    user.setAvatar(avatar);
+                    user.setAvatarSeq(seq);
+                    user.setUpdateTime(LocalDateTime.now());
+                    userMapper.updateById(user);
+                    avatarContentIndex.transfer(current.getAvatar(), avatar);
+                    return true;
+                });
+                if (!avatar.equals(uploaded)) {
+                    avatarContentIndex.discard(uploaded);
+                }
+                if (Boolean.TRUE.equals(applied)) {
+                    userProfileCache.invalidate(userId);
+                    thumbnailPipeline.submit(avatar);
+                    updated.increment();
+                } else {
+                    // 未被引用的上传对象由清理任务回收
+                    skipped.increment();
+                }
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("Update avatar of user {} failed, will retry: {}", userId, e.getMessage());
+                return;
+            }
+            acknowledge(list.stream().map(MapRecord::getId).toArray(RecordId[]::new));
+        });
+    }
+
+    /**
+     * 消息 ID 由 Redis 按写入顺序生成，换算为可比较的序号：毫秒时间戳 * 1000000 + 同一毫秒内的序号
+     */
+    static long sequence(RecordId id) {
+        return id.getTimestamp() * 1_000_000 + id.getSequence();
+    }
+
+    /**
+     * 认领空闲超过重试间隔的 pending 消息，包括本节点失败的和其他节点宕机遗留的
+     */
+    private List<MapRecord<String, Object, Object>> reclaimPending() {
+        PendingMessages pending = streamOps().pending(AVATAR_UPDATE_STREAM_KEY, AVATAR_UPDATE_GROUP, Range.unbounded(), batchSize);
+        List<RecordId> retry = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().toMillis() < retryMs) {
+                continue;
+            }
+            if (message.getTotalDeliveryCount() >= maxAttempts) {
+                dropped.increment();
+                log.error("Update avatar {} failed after {} attempts, dropped", message.getId(), message.getTotalDeliveryCount());
+                acknowledge(message.getId());
+                continue;
+            }
+            retry.add(message.getId());
+        }
+        return retry.isEmpty() ? Collections.emptyList() : claim(retry.toArray(new RecordId[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> claim(RecordId... ids) {
+        RedisTemplate<String, Object> template = redisUtils.getRedisTemplate();
+        // 以重试间隔作为最小空闲时间认领，多个节点同时认领时只有一个成功
+        List<ByteRecord> records = template.execute((RedisCallback<List<ByteRecord>>) connection -> connection.streamCommands()
+                .xClaim(AVATAR_UPDATE_STREAM_KEY.getBytes(StandardCharsets.UTF_8), AVATAR_UPDATE_GROUP, consumerName,
+                        Duration.ofMillis(retryMs), ids));
+        if (Objects.isNull(records)) {
+            return Collections.emptyList();
+        }
+        return records.stream()
+                .map(record -> record.deserialize(template.getStringSerializer(),
+                        (RedisSerializer<Object>) template.getHashKeySerializer(),
+                        (RedisSerializer<Object>) template.getHashValueSerializer()))
+                .collect(Collectors.toList());
+    }
+
+    private void acknowledge(RecordId... ids) {
+        streamOps().acknowledge(AVATAR_UPDATE_STREAM_KEY, AVATAR_UPDATE_GROUP, ids);
+        // 已确认的消息直接删除，使队列长度即为积压数量
+        streamOps().delete(AVATAR_UPDATE_STREAM_KEY, ids);
+    }
+
+    private void createGroup() {
+        try {
+            redisUtils.getRedisTemplate().execute((RedisCallback<String>) connection -> connection.streamCommands().xGroupCreate(
+                    AVATAR_UPDATE_STREAM_KEY.getBytes(StandardCharsets.UTF_8), AVATAR_UPDATE_GROUP, ReadOffset.from("0"), true));
+        } catch (Exception e) {
+            // 消费组已存在
+            log.debug("Create avatar update consumer group: {}", e.getMessage());
+        }
+    }
+
+    private double queueDepth() {
+        try {
+            Long size = streamOps().size(AVATAR_UPDATE_STREAM_KEY);
+            return Objects.isNull(size) ? 0 : size;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private StreamOperations<String, Object, Object> streamOps() {
+        return redisUtils.getRedisTemplate().opsForStream();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
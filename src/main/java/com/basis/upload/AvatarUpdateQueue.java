@@ -0,0 +1,72 @@
+package com.basis.upload;
+
+import com.basis.utils.RedisUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.basis.model.constant.BasicConstant.AVATAR_CALLBACK_PREFIX;
+import static com.basis.model.constant.BasicConstant.AVATAR_UPDATE_STREAM_KEY;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像更新队列，OSS 回调只负责写入 Redis Stream，由 AvatarUpdateDispatcher 异步更新数据库
+ */
+@Component
+public class AvatarUpdateQueue {
+
+    static final String FIELD_USER_ID = "user_id";
+
+    static final String FIELD_AVATAR = "avatar";
+
+    private static final DefaultRedisScript<Long> ENQUEUE_ONCE_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        ENQUEUE_ONCE_SCRIPT.setLocation(new ClassPathResource("lua/enqueue_once.lua"));
+        ENQUEUE_ONCE_SCRIPT.setResultType(Long.class);
+    }
+
+    @Resource
+    private RedisUtils redisUtils;
+
+    @Value("${avatar.update-queue.idempotency-ttl-seconds}")
+    private Long idempotencyTtlSeconds;
+
+    /**
+     * 幂等入队，OSS 对同一对象的重复回调只入队一次
+     * 上传凭证可能由多次上传共用，每次上传的对象名唯一，因此以对象名作为幂等键
+     *
+     * @param object OSS 对象名
+     * @param userId 用户 ID
+     * @param avatar 头像路径
+     * @return 首次入队返回 true，重复回调返回 false
+     */
+    @SuppressWarnings("unchecked")
+    public boolean enqueueOnce(String object, Long userId, String avatar) {
+        Long ret = (Long) redisUtils.getRedisTemplate().execute(ENQUEUE_ONCE_SCRIPT,
+                Arrays.asList(AVATAR_CALLBACK_PREFIX + object, AVATAR_UPDATE_STREAM_KEY),
+                idempotencyTtlSeconds, userId, avatar);
+        return Long.valueOf(1).equals(ret);
+    }
+
+    /**
+     * 直接入队，用于不经过上传回调的头像变更，如复用已有内容的头像
+     *
+     * @param userId 用户 ID
+     * @param avatar 头像路径
+     */
+    public void enqueue(Long userId, String avatar) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(FIELD_USER_ID, userId);
+        fields.put(FIELD_AVATAR, avatar);
+        redisUtils.getRedisTemplate().opsForStream().add(StreamRecords.newRecord().in(AVATAR_UPDATE_STREAM_KEY).ofMap(fields));
+    }
+}
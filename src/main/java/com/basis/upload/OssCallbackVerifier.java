@@ -0,0 +1,140 @@
+package com.basis.upload;
+
+import cn.hutool.core.util.StrUtil;
+import com.basis.model.dto.OssCallbackDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: OSS 上传回调签名校验
+ * OSS 以 x-oss-pub-key-url 指定的公钥对 "路径[?查询串]\n请求体" 做 MD5withRSA 签名，签名放在 authorization 头中；
+ * 公钥地址只接受白名单主机，公钥按地址缓存，不会每次回调都去下载
+ */
+@Slf4j
+@Component
+public class OssCallbackVerifier {
+
+    @Value("${aliyun.oss.callback.verify-signature}")
+    private Boolean verifySignature;
+
+    @Value("${aliyun.oss.callback.public-key-hosts}")
+    private String[] publicKeyHosts;
+
+    @Value("${aliyun.oss.callback.public-key-cache-seconds}")
+    private Long publicKeyCacheSeconds;
+
+    @Value("${aliyun.oss.callback.public-key-timeout-ms}")
+    private Integer publicKeyTimeoutMs;
+
+    private Set<String> allowedHosts;
+
+    private Cache<String, PublicKey> publicKeys;
+
+    /**
+     * 下载 PEM 格式公钥
+     */
+    private Function<String, String> publicKeyLoader = this::download;
+
+    @PostConstruct
+    public void init() {
+        allowedHosts = new HashSet<>(Arrays.asList(publicKeyHosts));
+        publicKeys = Caffeine.newBuilder()
+                .maximumSize(16)
+                .expireAfterWrite(publicKeyCacheSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 校验回调签名
+     *
+     * @param callback 回调请求
+     * @return 签名有效返回 true，未开启校验时始终返回 true
+     */
+    public boolean verify(OssCallbackDto callback) {
+        if (!verifySignature) {
+            return true;
+        }
+        if (StrUtil.hasEmpty(callback.getAuthorization(), callback.getPublicKeyUrl())) {
+            return false;
+        }
+        try {
+            String publicKeyUrl = new String(Base64.getDecoder().decode(callback.getPublicKeyUrl()), StandardCharsets.UTF_8);
+            if (!allowedHosts.contains(URI.create(publicKeyUrl).getHost())) {
+                log.warn("Reject oss callback with untrusted public key url: {}", publicKeyUrl);
+                return false;
+            }
+            PublicKey publicKey = publicKeys.get(publicKeyUrl, url -> parsePublicKey(publicKeyLoader.apply(url)));
+
+            Signature signature = Signature.getInstance("MD5withRSA");
+            signature.initVerify(publicKey);
+            signature.update(stringToSign(callback).getBytes(StandardCharsets.UTF_8));
+            return signature.verify(Base64.getDecoder().decode(callback.getAuthorization()));
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            log.warn("Verify oss callback signature failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static String stringToSign(OssCallbackDto callback) {
+        StringBuilder builder = new StringBuilder(URLDecoder.decode(callback.getPath(), StandardCharsets.UTF_8));
+        if (StrUtil.isNotEmpty(callback.getQueryString())) {
+            builder.append('?').append(callback.getQueryString());
+        }
+        return builder.append('\n').append(Objects.toString(callback.getBody(), "")).toString();
+    }
+
+    private static PublicKey parsePublicKey(String pem) {
+        String base64 = pem.replace("-----BEGIN PUBLIC KEY-----", "")
+                .replace("-----END PUBLIC KEY-----", "")
+                .replaceAll("\\s", "");
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(base64)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid oss public key", e);
+        }
+    }
+
+    private String download(String url) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(publicKeyTimeoutMs);
+            connection.setReadTimeout(publicKeyTimeoutMs);
+            try (InputStream in = connection.getInputStream()) {
+                return new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Download oss public key failed: " + url, e);
+        } finally {
+            if (Objects.nonNull(connection)) {
+                connection.disconnect();
+            }
+        }
+    }
+}
@@ -2,12 +2,27 @@ package com.basis.utils;
 
 import com.basis.common.ResponseCode;
 import com.basis.exception.BusinessException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Component;
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
 import java.util.Base64;
 
 /*
@@ -19,37 +34,141 @@ import java.util.Base64;
 @Component
 public class ImageUtils {
 
+    /**
+     * 编码时每次读取的字节数，需为 3 的倍数
+     */
+    private static final int ENCODE_CHUNK = 48 * 1024;
 
     @Value("${file.path}")
     private String path;
 
+    @Value("${file.base64-cache.max-bytes}")
+    private Long cacheMaxBytes;
+
+    @Value("${file.base64-cache.max-entry-bytes}")
+    private Long cacheMaxEntryBytes;
+
     /**
-     * 将图片转换为base64字符串
-     * @param imagePath
-     * @return
+     * 最近编码的 data URI，key 包含文件修改时间和大小，文件变化后自然失效
+     */
+    private Cache<String, String> dataUriCache;
+
+    @PostConstruct
+    public void init() {
+        dataUriCache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String key, String value) -> value.length())
+                .build();
+    }
+
+    /**
+     * 将图片转换为 base64 data URI
+     * 直接对文件原始字节做 base64 编码，不解码为 BufferedImage；文件按块读取编码，
+     * 除结果字符串外不产生与图片大小相当的中间数组
+     * @param imagePath 相对于 file.path 的图片路径
+     * @return data URI
      */
     public String convertImageToBase64(final String imagePath) {
         try {
-            BufferedImage image = ImageIO.read(new File(path + imagePath));
-            ByteArrayOutputStream base = new ByteArrayOutputStream();
-            ImageIO.write(image, getImageFormat(imagePath), base);
-            byte[] imageBytes = base.toByteArray();
-            String base64String = Base64.getEncoder().encodeToString(imageBytes);
-            return "data:image/png;base64," + base64String;
+            Path file = Paths.get(path + imagePath);
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            String cacheKey = imagePath + '@' + attributes.lastModifiedTime().toMillis() + '@' + attributes.size();
+            String cached = dataUriCache.getIfPresent(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+            String dataUri = encode(file, attributes.size(), imagePath);
+            if (dataUri.length() <= cacheMaxEntryBytes) {
+                dataUriCache.put(cacheKey, dataUri);
+            }
+            return dataUri;
         } catch (Exception e) {
             throw new BusinessException(ResponseCode.UPLOAD_FILE_ERROR);
         }
     }
 
     /**
-     * 获取图片后缀
+     * 将图片以 base64 data URI 写出到输出流，如 HTTP 响应
+     * 文件通道的数据经 Base64 编码流直接写出，内存占用与图片大小无关
+     * @param imagePath 相对于 file.path 的图片路径
+     * @param out 输出流，调用方负责关闭
+     */
+    public void writeImageAsBase64(final String imagePath, final OutputStream out) {
+        Path file = Paths.get(path + imagePath);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            out.write(dataUriPrefix(imagePath).getBytes(StandardCharsets.US_ASCII));
+            // wrap 返回的流关闭时才会写出最后不足 3 字节的部分，这里屏蔽对下层流的关闭
+            try (OutputStream encoder = Base64.getEncoder().wrap(new NonClosingOutputStream(out))) {
+                WritableByteChannel target = Channels.newChannel(encoder);
+                long size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new BusinessException(ResponseCode.UPLOAD_FILE_ERROR);
+        }
+    }
+
+    private static String encode(Path file, long size, String imagePath) throws IOException {
+        byte[] prefix = dataUriPrefix(imagePath).getBytes(StandardCharsets.US_ASCII);
+        // 结果数组一次分配到最终长度，文件按块读取后直接编码到结果中
+        byte[] result = new byte[prefix.length + (int) (4 * ((size + 2) / 3))];
+        System.arraycopy(prefix, 0, result, 0, prefix.length);
+        int offset = prefix.length;
+        Base64.Encoder encoder = Base64.getEncoder();
+        byte[] chunk = new byte[ENCODE_CHUNK];
+        byte[] encoded = new byte[ENCODE_CHUNK / 3 * 4];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            // 每次读满整块再编码，块长度是 3 的倍数，只有最后一块会产生填充
+            while ((read = readFully(channel, chunk)) > 0) {
+                byte[] src = read == chunk.length ? chunk : Arrays.copyOf(chunk, read);
+                int written = encoder.encode(src, encoded);
+                System.arraycopy(encoded, 0, result, offset, written);
+                offset += written;
+            }
+        }
+        return new String(result, 0, offset, StandardCharsets.US_ASCII);
+    }
+
+    private static int readFully(FileChannel channel, byte[] chunk) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+            // 读到块满或文件结束
+        }
+        return buffer.position();
+    }
+
+    /**
+     * data URI 前缀，MIME 类型按文件扩展名推断
      * @param imagePath
      * @return
      */
-    private String getImageFormat(String imagePath) {
-        String extension = imagePath.substring(imagePath.lastIndexOf(".") + 1);
-        return extension.equalsIgnoreCase("jpg") ? "jpeg" : extension;
+    private static String dataUriPrefix(String imagePath) {
+        MediaType mediaType = MediaTypeFactory.getMediaType(imagePath).orElse(MediaType.IMAGE_PNG);
+        return "data:" + mediaType + ";base64,";
     }
 
+    /**
+     * 屏蔽 close 的输出流包装
+     */
+    private static final class NonClosingOutputStream extends java.io.FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
 
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
 }
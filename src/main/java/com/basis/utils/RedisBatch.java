@@ -0,0 +1,118 @@
+package com.basis.utils;
+
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 批量操作，收集的命令在一次 pipeline 中发送，只产生一次网络往返
+ * 通过 RedisUtils#batch 创建，非线程安全；命令之间没有原子性，需要原子性时使用 Lua 脚本
+ */
+public final class RedisBatch {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final List<Consumer<RedisOperations<String, Object>>> commands = new ArrayList<>();
+
+    RedisBatch(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public RedisBatch get(final String key) {
+        return add(operations -> operations.opsForValue().get(key));
+    }
+
+    public RedisBatch set(final String key, final Object value) {
+        return add(operations -> operations.opsForValue().set(key, value));
+    }
+
+    public RedisBatch setTimeout(final String key, final Object value, final long timeout) {
+        return add(operations -> operations.opsForValue().set(key, value, timeout, TimeUnit.SECONDS));
+    }
+
+    public RedisBatch setBit(final String key, final long offset, final boolean value) {
+        return add(operations -> operations.opsForValue().setBit(key, offset, value));
+    }
+
+    public RedisBatch increment(final String key) {
+        return add(operations -> operations.opsForValue().increment(key));
+    }
+
+    public RedisBatch increment(final String key, final long delta) {
+        return add(operations -> operations.opsForValue().increment(key, delta));
+    }
+
+    public RedisBatch zsetIncrementScore(final String key, final Object value, final double delta) {
+        return add(operations -> operations.opsForZSet().incrementScore(key, value, delta));
+    }
+
+    public RedisBatch expire(final String key, final long timeout) {
+        return add(operations -> operations.expire(key, timeout, TimeUnit.SECONDS));
+    }
+
+    public RedisBatch exists(final String key) {
+        return add(operations -> operations.hasKey(key));
+    }
+
+    public RedisBatch delete(final String... keys) {
+        return delete(Arrays.asList(keys));
+    }
+
+    public RedisBatch delete(final Collection<String> keys) {
+        return add(operations -> operations.delete(keys));
+    }
+
+    public RedisBatch hashGet(final String key, final String hKey) {
+        return add(operations -> operations.opsForHash().get(key, hKey));
+    }
+
+    public RedisBatch hashGetAll(final String key) {
+        return add(operations -> operations.opsForHash().entries(key));
+    }
+
+    public RedisBatch hashPut(final String key, final String hKey, final Object value) {
+        return add(operations -> operations.opsForHash().put(key, hKey, value));
+    }
+
+    /**
+     * 添加任意命令，命令的返回值在 pipeline 中无意义，结果从 execute 的返回值中按顺序获取
+     */
+    public RedisBatch add(final Consumer<RedisOperations<String, Object>> command) {
+        commands.add(command);
+        return this;
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * 发送所有命令
+     *
+     * @return 各命令的结果，顺序与添加顺序一致
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> execute() {
+        if (commands.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                commands.forEach(command -> command.accept(ops));
+                return null;
+            }
+        });
+    }
+}
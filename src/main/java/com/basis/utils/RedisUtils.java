@@ -1,35 +1,162 @@
 package com.basis.utils;
 
+import com.basis.cache.RedisNearCache;
+import com.basis.model.enums.CaptchaVerifyResult;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
 import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DataAccessException;
-import org.springframework.data.redis.core.RedisOperations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.basis.model.constant.BasicConstant.CAPTCHA_CODE_FIELD;
 
 /**
  * @Author: IT 派同学
  * @Date: 2024/12/7
  * @Description: redis工具类
  */
+@Slf4j
 @Component
 @SuppressWarnings("all")
 @RequiredArgsConstructor
 public final class RedisUtils {
 
+    private static final DefaultRedisScript<Long> VERIFY_CAPTCHA_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        VERIFY_CAPTCHA_SCRIPT.setLocation(new ClassPathResource("lua/verify_captcha.lua"));
+        VERIFY_CAPTCHA_SCRIPT.setResultType(Long.class);
+    }
+
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * 近端缓存，为 null 时（如测试中直接构造）所有读取都访问 Redis
+     */
+    @Resource
+    private RedisNearCache redisNearCache;
+
+    /**
+     * 异步命令使用独立的 Lettuce 连接，首次使用时创建；命令在同一连接上自动 pipeline
+     */
+    private volatile StatefulConnection<byte[], byte[]> asyncConnection;
+
+    private volatile RedisClusterAsyncCommands<byte[], byte[]> asyncCommands;
+
+    /**
+     * 启动时预加载脚本，之后通过 EVALSHA 执行；Redis 重启导致脚本丢失时 RedisTemplate 会自动回退到 EVAL
+     */
+    @PostConstruct
+    public void loadScripts() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(VERIFY_CAPTCHA_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.warn("Preload redis scripts failed, will load on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 关闭异步命令使用的连接
+     */
+    @PreDestroy
+    public void closeAsync() {
+        if (asyncConnection != null) {
+            asyncConnection.close();
+        }
+    }
+
     public RedisTemplate getRedisTemplate() {
         return this.redisTemplate;
     }
 
+    /**
+     * 创建批量操作，多条命令在一次往返内发送
+     */
+    public RedisBatch batch() {
+        return new RedisBatch(redisTemplate);
+    }
+
+    /**
+     * 批量读取字符串值，一次 MGET
+     *
+     * @return 与 keys 顺序一致，不存在的键对应 null
+     */
+    public List<Object> multiGet(final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> ret = redisTemplate.opsForValue().multiGet(keys);
+        return ret == null ? Collections.emptyList() : ret;
+    }
+
+    /**
+     * 批量写入并设置相同的过期时间，一次 pipeline
+     */
+    public void multiSetTimeout(final Map<String, Object> values, final long timeout) {
+        RedisBatch batch = batch();
+        values.forEach((key, value) -> batch.setTimeout(key, value, timeout));
+        batch.execute();
+    }
+
+    public CompletableFuture<Object> getValueAsync(final String key) {
+        return async().get(rawKey(key)).thenApply(this::deserializeValue).toCompletableFuture();
+    }
+
+    public CompletableFuture<List<Object>> multiGetAsync(final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        byte[][] rawKeys = keys.stream().map(this::rawKey).toArray(byte[][]::new);
+        return async().mget(rawKeys)
+                .thenApply(values -> values.stream()
+                        .map(value -> value.hasValue() ? deserializeValue(value.getValue()) : null)
+                        .collect(Collectors.toList()))
+                .toCompletableFuture();
+    }
+
+    public CompletableFuture<Boolean> setValueTimeoutAsync(final String key, final Object value, final long timeout) {
+        return async().setex(rawKey(key), timeout, rawValue(value)).thenApply("OK"::equals).toCompletableFuture();
+    }
+
+    public CompletableFuture<Boolean> expireAsync(final String key, final long timeout) {
+        return async().expire(rawKey(key), timeout).toCompletableFuture();
+    }
+
+    public CompletableFuture<Long> delKeysAsync(final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        return async().del(keys.stream().map(this::rawKey).toArray(byte[][]::new)).toCompletableFuture();
+    }
+
 
     public boolean expire(final String key, final long timeout) {
         return expire(key, timeout, TimeUnit.SECONDS);
@@ -64,11 +191,56 @@ public final class RedisUtils {
     }
 
 
+    /**
+     * 读取值；key 属于近端缓存前缀时优先从本地读取，返回的对象不可修改
+     */
     public Object getValue(final String key) {
+        if (redisNearCache != null) {
+            return redisNearCache.get(key, k -> redisTemplate.opsForValue().get(k));
+        }
         return redisTemplate.opsForValue().get(key);
     }
 
 
+    public void hashPutTimeout(final String key, final String hKey, final Object value, final long timeout) {
+        batch().hashPut(key, hKey, value).expire(key, timeout).execute();
+    }
+
+
+    /**
+     * 一次往返内原子地校验并消费验证码
+     * 验证码以 hash 存储，code 字段为验证码，attempts 字段记录错误次数，错误次数达到上限后验证码作废
+     *
+     * @param key         验证码缓存键
+     * @param code        用户提交的验证码
+     * @param maxAttempts 允许的最大错误次数
+     * @return 校验结果
+     */
+    public CaptchaVerifyResult verifyCaptcha(final String key, final String code, final int maxAttempts) {
+        Long ret = redisTemplate.execute(VERIFY_CAPTCHA_SCRIPT, Collections.singletonList(key), code, maxAttempts);
+        return CaptchaVerifyResult.of(ret);
+    }
+
+    /**
+     * 读取未过期的验证码
+     * 旧版本以字符串写入的验证码直接 HGET 会报 WRONGTYPE，滚动发布期间视为不存在并删除，由调用方重新生成
+     *
+     * @param key 验证码缓存键
+     * @return 验证码，不存在时返回 null
+     */
+    public String getCaptcha(final String key) {
+        DataType type = redisTemplate.type(key);
+        if (type == null || type == DataType.NONE) {
+            return null;
+        }
+        if (type != DataType.HASH) {
+            redisTemplate.delete(key);
+            return null;
+        }
+        return (String) hashGet(key, CAPTCHA_CODE_FIELD);
+    }
+
+
     public boolean hasHashKey(final String key, String hkey) {
         Boolean ret = redisTemplate.opsForHash().hasKey(key, hkey);
         return ret != null && ret;
@@ -90,7 +262,17 @@ public final class RedisUtils {
     }
 
 
+    /**
+     * 读取整个 hash；key 属于近端缓存前缀时优先从本地读取，返回的 Map 不可修改
+     */
     public Map<Object, Object> hashGetAll(final String key) {
+        if (redisNearCache != null) {
+            Map<Object, Object> entries = redisNearCache.get(key, k -> {
+                Map<Object, Object> remote = redisTemplate.opsForHash().entries(k);
+                return remote.isEmpty() ? null : Collections.unmodifiableMap(remote);
+            });
+            return entries == null ? Collections.emptyMap() : entries;
+        }
         return redisTemplate.opsForHash().entries(key);
     }
 
@@ -161,28 +343,21 @@ public final class RedisUtils {
     }
 
 
+    /**
+     * 精确自增，单条 INCR 本身即为原子操作，直接返回自增后的值
+     * 允许短暂延迟的高频计数使用 RedisCounterAggregator 在本地聚合后批量写入
+     */
     public long selfIncrease(final String key) {
-        return redisTemplate.execute(new SessionCallback<Long>() {
-            @Override
-            public Long execute(RedisOperations operations) throws DataAccessException {
-                operations.multi();
-                Long count = operations.opsForValue().increment(key);
-                operations.exec();
-                return count;
-            }
-        });
+        return increment(key, 1);
     }
 
-    public Double selfIncreaseSource(final String key,final Object value) {
-        return redisTemplate.execute(new SessionCallback<Double>() {
-            @Override
-            public Double execute(RedisOperations operations) throws DataAccessException {
-                operations.multi();
-                Double count = operations.opsForZSet().incrementScore(key,value,1);
-                operations.exec();
-                return count;
-            }
-        });
+    public long increment(final String key, final long delta) {
+        Long count = redisTemplate.opsForValue().increment(key, delta);
+        return count == null ? 0 : count;
+    }
+
+    public Double selfIncreaseSource(final String key, final Object value) {
+        return redisTemplate.opsForZSet().incrementScore(key, value, 1);
     }
 
     public long zsetDelAll(final String key, final Set<ZSetOperations.TypedTuple<Object>> values) {
@@ -222,4 +397,39 @@ public final class RedisUtils {
     public Long keySize(final String key) {
         return redisTemplate.opsForList().size(key);
     }
+
+    private RedisClusterAsyncCommands<byte[], byte[]> async() {
+        RedisClusterAsyncCommands<byte[], byte[]> commands = asyncCommands;
+        if (commands != null) {
+            return commands;
+        }
+        synchronized (this) {
+            if (asyncCommands == null) {
+                LettuceConnectionFactory factory = (LettuceConnectionFactory) redisTemplate.getRequiredConnectionFactory();
+                AbstractRedisClient client = factory.getRequiredNativeClient();
+                if (client instanceof RedisClusterClient) {
+                    StatefulRedisClusterConnection<byte[], byte[]> connection = ((RedisClusterClient) client).connect(ByteArrayCodec.INSTANCE);
+                    asyncConnection = connection;
+                    asyncCommands = connection.async();
+                } else {
+                    StatefulRedisConnection<byte[], byte[]> connection = ((RedisClient) client).connect(ByteArrayCodec.INSTANCE);
+                    asyncConnection = connection;
+                    asyncCommands = connection.async();
+                }
+            }
+            return asyncCommands;
+        }
+    }
+
+    private byte[] rawKey(final String key) {
+        return ((RedisSerializer<String>) redisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    private byte[] rawValue(final Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+
+    private Object deserializeValue(final byte[] value) {
+        return redisTemplate.getValueSerializer().deserialize(value);
+    }
 }
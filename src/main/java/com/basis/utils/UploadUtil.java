@@ -11,9 +11,12 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.UUID;
 
@@ -29,6 +32,11 @@ import java.util.UUID;
 
 public class UploadUtil {
 
+    /**
+     * 解码时每次处理的字符数，需为 4 的倍数
+     */
+    private static final int DECODE_CHUNK = 64 * 1024;
+
     @Value(value = "${file.path}")
     private String path;
 
@@ -63,29 +71,62 @@ public class UploadUtil {
 
     /**
      * 下载图片
-     * @param base64 base64字符串
+     * base64 文本按块解码后直接写入磁盘，不在堆上生成完整的解码字节数组
+     * @param base64 base64字符串，可带 data URI 前缀
      * @param path 路径
      * @return
      * @throws IOException
      */
     public Pair<String, String> downloadImage(final String base64, String path) throws IOException {
-        try {
-            // 解码base64字符串为字节数组
-            byte[] decodedBytes = Base64.getDecoder().decode(base64);
-            // 生成随机的图片文件名
-            String fileName = UUID.randomUUID().toString() + ".jpg";
-            // 拼接文件路径
-            String folderPath = this.path + path;
-            File folder = new File(folderPath);
-            if (!folder.exists()) {
-                folder.mkdirs(); // 创建文件夹
+        int start = base64.startsWith("data:") ? base64.indexOf(',') + 1 : 0;
+        return saveImage(path, target -> {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] chunk = new byte[DECODE_CHUNK];
+            byte[] decoded = new byte[DECODE_CHUNK / 4 * 3];
+            try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE_NEW)) {
+                // 块长度是 4 的倍数，填充只会出现在最后一块
+                for (int from = start; from < base64.length(); from += DECODE_CHUNK) {
+                    int to = Math.min(base64.length(), from + DECODE_CHUNK);
+                    for (int i = 0; i < to - from; i++) {
+                        char c = base64.charAt(from + i);
+                        // 非 ASCII 字符截断为字节后可能恰好落在 base64 字母表内，需显式拒绝
+                        if (c > 0x7F) {
+                            throw new IllegalArgumentException("Illegal base64 character " + Integer.toHexString(c));
+                        }
+                        chunk[i] = (byte) c;
+                    }
+                    byte[] src = to - from == DECODE_CHUNK ? chunk : Arrays.copyOf(chunk, to - from);
+                    out.write(decoded, 0, decoder.decode(src, decoded));
+                }
             }
-            String filePath = folderPath + "/" + fileName;
-            // 将字节数组保存为图片文件
-            Path _path = Path.of(filePath);
-            Files.write(_path, decodedBytes, StandardOpenOption.CREATE);
+        });
+    }
+
+    /**
+     * 下载图片
+     * @param base64 base64 文本输入流，调用方负责关闭
+     * @param path 路径
+     * @return
+     * @throws IOException
+     */
+    public Pair<String, String> downloadImage(final InputStream base64, String path) throws IOException {
+        // 解码流边读边解码，写入磁盘
+        return saveImage(path, target -> Files.copy(Base64.getDecoder().wrap(base64), target));
+    }
+
+    private Pair<String, String> saveImage(String path, ImageWriter writer) throws IOException {
+        // 生成随机的图片文件名
+        String fileName = UUID.randomUUID().toString() + ".jpg";
+        // 拼接文件路径
+        Path folder = Path.of(this.path + path);
+        Path target = folder.resolve(fileName);
+        try {
+            Files.createDirectories(folder);
+            writer.write(target);
             return Pair.of((path + "/" + fileName), ("/upload/" + fileName));
         } catch (Exception e) {
+            log.error("下载图片失败 原因:{} 位置类:{}", e.getMessage(), e.getClass());
+            Files.deleteIfExists(target);
             throw new BusinessException(ResponseCode.DOWN_LOAD_FILE_ERROR);
         }
     }
@@ -116,4 +157,10 @@ public class UploadUtil {
         return fileExtension.equalsIgnoreCase("mp4");
     }
 
+    @FunctionalInterface
+    private interface ImageWriter {
+
+        void write(Path target) throws IOException;
+    }
+
 }
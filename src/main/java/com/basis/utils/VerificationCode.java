@@ -3,11 +3,6 @@ package com.basis.utils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.text.MessageFormat;
 import java.util.Random;
 
 /**
@@ -44,47 +39,4 @@ public class VerificationCode {
         }
         return verificationCode.toString();
     }
-
-    /**
-     * 构建邮件模板信息
-     *
-     * @param one
-     * @param two
-     * @param three
-     * @param four
-     * @return
-     */
-    public String buildContent(String one, String two, String three, String four) {
-        //获取文件路径
-        InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream("templates/code.html");
-        BufferedReader fileReader = null;
-        StringBuffer buffer = new StringBuffer();
-        String line = "";
-        try {
-            fileReader = new BufferedReader(new InputStreamReader(inputStream));
-            while ((line = fileReader.readLine()) != null) {
-                buffer.append(line);
-            }
-        } catch (Exception e) {
-            log.error(String.format("发送邮件读取模板失败，错误堆栈信息：%s", e.getMessage()));
-        } finally {
-            if (fileReader != null) {
-                try {
-                    fileReader.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-            if (inputStream != null) {
-                try {
-                    inputStream.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-        //使用动态参数替换html模板中的占位符参数
-        String htmlText = MessageFormat.format(buffer.toString(), one, two, three, four);
-        return htmlText;
-    }
 }
@@ -2,12 +2,8 @@
 package com.basis.utils;
 
 import com.alibaba.fastjson.JSONObject;
-import lombok.Data;
-import lombok.experimental.Accessors;
 import org.springframework.web.reactive.function.client.WebClient;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
  * @Author: IT 派同学
  * @Date: 2024/12/7
@@ -17,27 +13,17 @@ public enum WeChatTokenUtil {
 
     INSTANCE;
 
-    private final Token token = new Token();
-    private final AtomicLong tokenExpireTime = new AtomicLong(0L);
-
-    public String getWechatToken(final String appid, final String secret) {
-        if (System.currentTimeMillis() / 1000 >= tokenExpireTime.get()) {
-            resetToken(appid, secret);
-        }
-        return token.getToken();
+    /**
+     * 向微信请求新的接口调用凭证
+     * 每次请求都会使之前的凭证在 5 分钟后失效，调用方需缓存并协调各节点只由一个节点请求，见 WeChatUtils#getAccessToken
+     */
+    public String requestToken(final String baseUrl, final String appid, final String secret) {
+        final JSONObject block = JSONObject.parseObject(getAccessToken(baseUrl, appid, secret));
+        return block.getString("access_token");
     }
 
-    private void resetToken(final String appid, final String secret) {
-        final JSONObject block = JSONObject.parseObject(getAccessToken(appid, secret));
-        long timestamp = System.currentTimeMillis() / 1000;
-        String accessToken = block.getString("access_token");
-        int expiresIn = block.getInteger("expires_in");
-        token.setToken(accessToken);
-        tokenExpireTime.set(timestamp + expiresIn);
-    }
-
-    private String getAccessToken(final String appid, final String secret) {
-        final String accessTokenUrl = "https://api.weixin.qq.com/cgi-bin/token?grant_type=client_credential&appid=" + appid + "&secret=" + secret;
+    private String getAccessToken(final String baseUrl, final String appid, final String secret) {
+        final String accessTokenUrl = baseUrl + "/cgi-bin/token?grant_type=client_credential&appid=" + appid + "&secret=" + secret;
         try {
             return WebClient.create()
                     .get().uri(accessTokenUrl)
@@ -49,10 +35,4 @@ public enum WeChatTokenUtil {
 
         }
     }
-
-    @Accessors(chain = true)
-    @Data
-    public static class Token {
-        public String token;
-    }
 }
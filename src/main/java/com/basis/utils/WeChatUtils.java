@@ -1,6 +1,7 @@
 package com.basis.utils;
 
 import com.alibaba.fastjson.JSONObject;
+import com.basis.cache.RedisCacheLoader;
 import com.basis.common.ResponseCode;
 import com.basis.exception.BusinessException;
 import com.basis.model.vo.WeChatMsgCheckVo;
@@ -11,6 +12,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import static com.basis.model.constant.BasicConstant.WECHAT_ACCESS_TOKEN_PREFIX;
+
 /**
  * @Author: IT 派同学
  * @Date: 2024/12/7
@@ -28,14 +31,24 @@ public class WeChatUtils {
     @Value("${we-chat.secret}")
     private String secret;
 
+    @Value("${we-chat.api-base-url}")
+    private String apiBaseUrl;
+
 
     private final RedisUtils redisUtils;
 
+    private final RedisCacheLoader redisCacheLoader;
+
+    /**
+     * 接口调用凭证有效期 7200 秒，提前刷新留出余量；过期后不能再使用旧凭证
+     */
+    private static final long ACCESS_TOKEN_TTL_SECONDS = 7000;
+
     private static final WebClient WEB_CLIENT = WebClient.builder().build();
 
     public String getOpenId(final String code) {
         try {
-            final String url = "https://api.weixin.qq.com/sns/jscode2session?appid=" + this.appId +
+            final String url = apiBaseUrl + "/sns/jscode2session?appid=" + this.appId +
                     "&secret=" + this.secret + "&js_code=" + code + "&grant_type=authorization_code";
             final String response = WEB_CLIENT.get().uri(url).retrieve().bodyToMono(String.class).block();
             final JSONObject block = JSONObject.parseObject(response);
@@ -49,10 +62,18 @@ public class WeChatUtils {
         }
     }
 
+    /**
+     * 获取接口调用凭证，各节点共享 Redis 中的凭证，过期时只有一个节点向微信请求
+     */
+    public String getAccessToken() {
+        return redisCacheLoader.get(WECHAT_ACCESS_TOKEN_PREFIX + appId, ACCESS_TOKEN_TTL_SECONDS, 0, String.class,
+                () -> WeChatTokenUtil.INSTANCE.requestToken(apiBaseUrl, appId, secret));
+    }
+
     public void filterText(final String content, final String openId) {
         JSONObject jsonObject = null;
         try {
-            final String response = WEB_CLIENT.post().uri("https://api.weixin.qq.com/wxa/msg_sec_check?access_token=" + WeChatTokenUtil.INSTANCE.getWechatToken(appId, secret))
+            final String response = WEB_CLIENT.post().uri(apiBaseUrl + "/wxa/msg_sec_check?access_token=" + getAccessToken())
                     .body(BodyInserters.fromValue(new WeChatMsgCheckVo().setContent(content).setOpenid(openId)))
                     .retrieve()
                     .bodyToMono(String.class)
@@ -0,0 +1,4 @@
+-- 旧版微信登录写入用户时未设置 is_deleted，值为 NULL 的行被逻辑删除条件过滤，用户再次登录会重复写入
+-- 统一改为未删除；需在 V2 创建 open_id 唯一索引之前执行，重复行由 V2 处理
+
+UPDATE `xx_user` SET `is_deleted` = 0 WHERE `is_deleted` IS NULL;
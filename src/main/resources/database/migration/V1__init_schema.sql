@@ -1,11 +1,6 @@
+-- 初始表结构，表结构的唯一来源为本目录下的迁移脚本；已有表的数据库（由旧版 dfdb.sql 初始化）会以此版本为基线跳过
 
-
-CREATE DATABASE
-
-USE `dfdb`;
-
-
-CREATE TABLE `xx_permission` (
+CREATE TABLE IF NOT EXISTS `xx_permission` (
   `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键',
   `p_code` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '权限码',
   `p_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '权限名称',
@@ -15,9 +10,7 @@ CREATE TABLE `xx_permission` (
   PRIMARY KEY (`id`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=8 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci ROW_FORMAT=DYNAMIC;
 
-DROP TABLE IF EXISTS `xx_role`;
-
-CREATE TABLE `xx_role` (
+CREATE TABLE IF NOT EXISTS `xx_role` (
   `id` int NOT NULL AUTO_INCREMENT COMMENT '主键',
   `role_code` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '角色码',
   `role_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '角色名称',
@@ -27,10 +20,7 @@ CREATE TABLE `xx_role` (
   PRIMARY KEY (`id`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=4 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci ROW_FORMAT=DYNAMIC;
 
-
-DROP TABLE IF EXISTS `xx_role_permission`;
-
-CREATE TABLE `xx_role_permission` (
+CREATE TABLE IF NOT EXISTS `xx_role_permission` (
   `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键',
   `r_id` bigint DEFAULT NULL COMMENT '角色 ID',
   `p_id` bigint DEFAULT NULL COMMENT '权限 ID',
@@ -40,10 +30,7 @@ CREATE TABLE `xx_role_permission` (
   PRIMARY KEY (`id`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=5 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci ROW_FORMAT=DYNAMIC;
 
-
-DROP TABLE IF EXISTS `xx_user`;
-
-CREATE TABLE `xx_user` (
+CREATE TABLE IF NOT EXISTS `xx_user` (
   `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键',
   `user_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '用户名',
   `nick_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '昵称',
@@ -59,9 +46,7 @@ CREATE TABLE `xx_user` (
   PRIMARY KEY (`id`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=2 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci ROW_FORMAT=DYNAMIC;
 
-DROP TABLE IF EXISTS `xx_user_role`;
-
-CREATE TABLE `xx_user_role` (
+CREATE TABLE IF NOT EXISTS `xx_user_role` (
   `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键',
   `u_id` bigint DEFAULT NULL COMMENT '用户 ID',
   `r_id` bigint DEFAULT NULL COMMENT '角色 ID',
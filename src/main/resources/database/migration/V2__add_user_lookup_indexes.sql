@@ -0,0 +1,29 @@
+-- xx_user 登录、注册使用的查询列索引
+-- email、open_id 是账号的唯一标识（注册与微信登录均先查重再写入），使用唯一索引
+-- user_name、phone 允许由客户端传入或修改，历史数据可能重复，使用普通索引
+-- 资料接口已改为按主键读取，聚簇索引本身即覆盖该查询，无需额外的覆盖索引
+
+-- 创建唯一索引前处理历史重复数据（is_deleted 为 NULL 的行已由 V1_1 改为未删除）：
+-- 每个 open_id / email 保留一行，优先保留未删除的行，其次保留 id 最小的行；其余行清空该列（唯一索引允许多个 NULL），
+-- 旧版微信登录重复写入的 open_id 行只登录过一次，同时标记为删除。执行前可用以下语句查看将被处理的重复数据：
+--   SELECT `open_id`, COUNT(*) FROM `xx_user` WHERE `open_id` IS NOT NULL GROUP BY `open_id` HAVING COUNT(*) > 1;
+--   SELECT `email`, COUNT(*) FROM `xx_user` WHERE `email` IS NOT NULL GROUP BY `email` HAVING COUNT(*) > 1;
+-- 子查询带 GROUP BY，MySQL 会先物化，不受“更新表不能出现在子查询中”的限制
+
+UPDATE `xx_user` SET `open_id` = NULL, `is_deleted` = 1
+WHERE `open_id` IS NOT NULL
+  AND `id` NOT IN (SELECT `keep_id` FROM (
+      SELECT COALESCE(MIN(CASE WHEN `is_deleted` = 0 THEN `id` END), MIN(`id`)) AS `keep_id`
+      FROM `xx_user` WHERE `open_id` IS NOT NULL GROUP BY `open_id`) `kept`);
+
+UPDATE `xx_user` SET `email` = NULL
+WHERE `email` IS NOT NULL
+  AND `id` NOT IN (SELECT `keep_id` FROM (
+      SELECT COALESCE(MIN(CASE WHEN `is_deleted` = 0 THEN `id` END), MIN(`id`)) AS `keep_id`
+      FROM `xx_user` WHERE `email` IS NOT NULL GROUP BY `email`) `kept`);
+
+ALTER TABLE `xx_user`
+    ADD UNIQUE INDEX `uk_user_email` (`email`),
+    ADD UNIQUE INDEX `uk_user_open_id` (`open_id`),
+    ADD INDEX `idx_user_user_name` (`user_name`),
+    ADD INDEX `idx_user_phone` (`phone`);
@@ -0,0 +1,13 @@
+-- 头像内容索引：相同内容（SHA-256）的头像只存储一份，多个用户共用同一头像路径
+-- ref_count 为当前使用该头像的用户数，由头像更新调度在更新用户时维护，归零后由清理任务回收
+
+CREATE TABLE IF NOT EXISTS `xx_avatar_content` (
+  `sha256` char(64) CHARACTER SET ascii NOT NULL COMMENT '内容 SHA-256（十六进制）',
+  `avatar` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '头像路径，与 xx_user.avatar 一致',
+  `size` bigint NOT NULL COMMENT '文件大小（字节）',
+  `ref_count` int NOT NULL DEFAULT 0 COMMENT '引用数',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '更新时间',
+  PRIMARY KEY (`sha256`) USING BTREE,
+  UNIQUE INDEX `uk_avatar_content_avatar` (`avatar`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci ROW_FORMAT=DYNAMIC;
@@ -0,0 +1,4 @@
+-- 存储清理任务按头像路径批量查询引用该头像的用户
+
+ALTER TABLE `xx_user`
+    ADD INDEX `idx_user_avatar` (`avatar`);
@@ -0,0 +1,4 @@
+-- 头像更新调度记录每个用户最后应用的消息序号，重试或乱序消费的旧消息不再覆盖较新的头像
+
+ALTER TABLE `xx_user`
+    ADD COLUMN `avatar_seq` bigint NOT NULL DEFAULT 0 COMMENT '最后应用的头像更新消息序号';
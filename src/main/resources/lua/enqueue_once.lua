@@ -0,0 +1,12 @@
+-- 幂等入队：同一幂等键只写入一次 Stream
+-- KEYS[1] 幂等键
+-- KEYS[2] Stream
+-- ARGV[1] 幂等键有效期（秒）
+-- ARGV[2] 用户 ID
+-- ARGV[3] 头像路径
+-- 返回值：1 已入队；0 重复请求，未入队
+if not redis.call('SET', KEYS[1], '1', 'NX', 'EX', ARGV[1]) then
+    return 0
+end
+redis.call('XADD', KEYS[2], '*', 'user_id', ARGV[2], 'avatar', ARGV[3])
+return 1
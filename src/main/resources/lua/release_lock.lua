@@ -0,0 +1,8 @@
+-- 释放锁：仅删除本节点持有的锁
+-- KEYS[1] 锁键
+-- ARGV[1] 持有者（与加锁时使用相同的序列化方式）
+-- 返回值：1 已释放；0 锁已过期或被其他节点持有
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
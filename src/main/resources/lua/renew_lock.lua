@@ -0,0 +1,9 @@
+-- 续期锁：仍由本节点持有时刷新有效期
+-- KEYS[1] 锁键
+-- ARGV[1] 持有者（与加锁时使用相同的序列化方式）
+-- ARGV[2] 有效期（毫秒）
+-- 返回值：1 已续期；0 锁已过期或被其他节点持有
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[2]))
+end
+return 0
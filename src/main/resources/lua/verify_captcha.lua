@@ -0,0 +1,28 @@
+-- 原子校验并消费验证码
+-- KEYS[1] 验证码缓存键（hash：code 为验证码，attempts 为错误次数）
+-- ARGV[1] 用户提交的验证码（与写入时使用相同的序列化方式）
+-- ARGV[2] 允许的最大错误次数
+-- 返回值：1 匹配并已删除；0 不匹配；-1 不存在或已过期；-2 错误次数超限并已删除
+local keyType = redis.call('TYPE', KEYS[1])['ok']
+if keyType == 'none' then
+    return -1
+end
+if keyType ~= 'hash' then
+    redis.call('DEL', KEYS[1])
+    return -1
+end
+local code = redis.call('HGET', KEYS[1], 'code')
+if not code then
+    redis.call('DEL', KEYS[1])
+    return -1
+end
+if code == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    return 1
+end
+local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+if attempts >= tonumber(ARGV[2]) then
+    redis.call('DEL', KEYS[1])
+    return -2
+end
+return 0
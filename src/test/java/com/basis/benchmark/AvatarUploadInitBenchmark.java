@@ -0,0 +1,150 @@
+package com.basis.benchmark;
+
+import com.basis.context.UserContext;
+import com.basis.model.vo.AvatarMetaVo;
+import com.basis.service.impl.CloudStorageService;
+import com.basis.service.impl.PostPolicyStorageService;
+import com.basis.sts.StsClient;
+import com.basis.sts.StsCredentialBroker;
+import com.basis.sts.StsToken;
+import com.basis.utils.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像上传初始化吞吐基准测试，对比 STS 模式与 PostObject 本地签名模式
+ * STS 由本地替身代替，stsLatencyMs 模拟一次 AssumeRole 的网络耗时；两种模式都包含写入 Redis 上传记录的开销
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvatarUploadInitBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({"30"})
+    private long stsLatencyMs;
+
+    private EmbeddedRedis redis;
+
+    private StsClient stsClient;
+
+    private CloudStorageService stsService;
+
+    private PostPolicyStorageService postPolicyService;
+
+    private AvatarMetaVo meta;
+
+    @Setup
+    public void setUp() throws IOException {
+        redis = new EmbeddedRedis();
+        stsClient = (policy, sessionName, durationSeconds) -> {
+            Thread.sleep(stsLatencyMs);
+            return new StsToken("STS.ak", "secret", "security-token", Instant.now().plusSeconds(durationSeconds));
+        };
+
+        StsCredentialBroker broker = new StsCredentialBroker();
+        ReflectionTestUtils.setField(broker, "stsClient", stsClient);
+        ReflectionTestUtils.setField(broker, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(broker, "durationSeconds", 3600L);
+        ReflectionTestUtils.setField(broker, "refreshMarginSeconds", 600L);
+        broker.init();
+
+        stsService = new CloudStorageService();
+        common(stsService);
+        ReflectionTestUtils.setField(stsService, "endpoint", "sts.cn-guangzhou.aliyuncs.com");
+        ReflectionTestUtils.setField(stsService, "stsCredentialBroker", broker);
+        stsService.init();
+
+        postPolicyService = new PostPolicyStorageService();
+        common(postPolicyService);
+        ReflectionTestUtils.setField(postPolicyService, "accessKeyId", "ak");
+        ReflectionTestUtils.setField(postPolicyService, "accessKeySecret", "secret");
+        ReflectionTestUtils.setField(postPolicyService, "ossEndpoint", "https://oss-cn-guangzhou.aliyuncs.com");
+        ReflectionTestUtils.setField(postPolicyService, "callbackUrl", "http://localhost/user/avatar-upload/callback");
+        ReflectionTestUtils.setField(postPolicyService, "policyExpireSeconds", 600L);
+        postPolicyService.init();
+
+        meta = new AvatarMetaVo();
+        meta.setMimeType("image/png");
+        meta.setFileSize(1024L);
+    }
+
+    /**
+     * 当前用户保存在线程变量中，每轮迭代在执行基准方法的线程上设置
+     */
+    @Setup(Level.Iteration)
+    @SuppressWarnings("unchecked")
+    public void bindUser() {
+        ((ThreadLocal<Long>) ReflectionTestUtils.getField(UserContext.class, "USER_ID")).set(USER_ID);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        redis.stop();
+    }
+
+    /**
+     * 未缓存凭证时每次初始化都要调用一次 AssumeRole
+     */
+    @Benchmark
+    public Object stsPerRequest() throws Exception {
+        return stsClient.assumeRole("policy", "avatar-upload", 3600L);
+    }
+
+    /**
+     * STS 模式，凭证由 StsCredentialBroker 缓存
+     */
+    @Benchmark
+    public Object stsCached() {
+        return stsService.getAvatarUploadCredentials(USER_ID, "bench", meta);
+    }
+
+    /**
+     * PostObject 本地签名模式
+     */
+    @Benchmark
+    public Object postPolicy() {
+        return postPolicyService.getAvatarUploadCredentials(USER_ID, "bench", meta);
+    }
+
+    private void common(Object service) {
+        ReflectionTestUtils.setField(service, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(service, "bucketName", "avatars");
+        ReflectionTestUtils.setField(service, "avatarPath", "avatar/");
+        ReflectionTestUtils.setField(service, "maxFileSize", 10485760L);
+        ReflectionTestUtils.setField(service, "allowedFileTypes", new String[]{"jpg", "png"});
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AvatarUploadInitBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
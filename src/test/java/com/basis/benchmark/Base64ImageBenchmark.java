@@ -0,0 +1,132 @@
+package com.basis.benchmark;
+
+import com.basis.utils.ImageUtils;
+import com.basis.utils.UploadUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 大图 base64 编解码基准测试，对比原先 ImageIO 重编码 / 整块解码与流式实现
+ * 以 GC profiler 的 gc.alloc.rate.norm 观察每次请求的分配量；编码的数据 URI 缓存已关闭
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Djava.awt.headless=true"})
+public class Base64ImageBenchmark {
+
+    private static final String IMAGE = "large.png";
+
+    private Path root;
+
+    private ImageUtils imageUtils;
+
+    private UploadUtil uploadUtil;
+
+    private String dataUri;
+
+    private String base64;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("base64-bench");
+        // 噪声图片压缩率低，文件约 10MB 量级
+        BufferedImage image = new BufferedImage(2000, 2000, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ImageIO.write(image, "png", root.resolve(IMAGE).toFile());
+
+        imageUtils = new ImageUtils();
+        ReflectionTestUtils.setField(imageUtils, "path", root + "/");
+        ReflectionTestUtils.setField(imageUtils, "cacheMaxBytes", 0L);
+        ReflectionTestUtils.setField(imageUtils, "cacheMaxEntryBytes", 0L);
+        imageUtils.init();
+        uploadUtil = new UploadUtil();
+        ReflectionTestUtils.setField(uploadUtil, "path", root + "/");
+
+        dataUri = imageUtils.convertImageToBase64(IMAGE);
+        base64 = dataUri.substring(dataUri.indexOf(',') + 1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public String encodeLegacy() throws IOException {
+        BufferedImage image = ImageIO.read(new File(root + "/" + IMAGE));
+        ByteArrayOutputStream base = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", base);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(base.toByteArray());
+    }
+
+    @Benchmark
+    public String encodeToString() {
+        return imageUtils.convertImageToBase64(IMAGE);
+    }
+
+    @Benchmark
+    public void encodeToStream() {
+        imageUtils.writeImageAsBase64(IMAGE, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void decodeLegacy() throws IOException {
+        byte[] decoded = Base64.getDecoder().decode(base64);
+        Path target = root.resolve(UUID.randomUUID() + ".jpg");
+        Files.write(target, decoded, StandardOpenOption.CREATE);
+        Files.delete(target);
+    }
+
+    @Benchmark
+    public void decodeStreamed() throws IOException {
+        Path target = root.resolve(uploadUtil.downloadImage(base64, "").getLeft().substring(1));
+        Files.delete(target);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Base64ImageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
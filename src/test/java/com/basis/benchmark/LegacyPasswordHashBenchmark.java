@@ -0,0 +1,63 @@
+package com.basis.benchmark;
+
+import cn.hutool.core.lang.UUID;
+import cn.hutool.crypto.SecureUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 旧版密码哈希基准测试，作为 PasswordHashBenchmark 的对照
+ * 按改造前的注册、登录路径在调用线程上直接计算：UUID 截取 8 位作为盐，md5(明文{盐}) 的十六进制，不经过哈希线程池
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法，结果包含 GC 分配速率
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LegacyPasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct-horse-battery";
+
+    private static final String LEGACY_SALT = "ab12cd34";
+
+    private static final String LEGACY_HASH = md5(PASSWORD, LEGACY_SALT);
+
+    @Benchmark
+    public String hash() {
+        String salt = UUID.randomUUID().toString().replaceAll("-", "").substring(0, 8);
+        return md5(PASSWORD, salt);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return LEGACY_HASH.equals(md5(PASSWORD, LEGACY_SALT));
+    }
+
+    private static String md5(String raw, String salt) {
+        return SecureUtil.md5(raw + "{" + salt + "}");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LegacyPasswordHashBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.basis.benchmark;
+
+import com.basis.mail.MailTemplateRenderer;
+import com.basis.model.enums.MailTemplateEnums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 验证码邮件渲染基准测试，对比每次读取并解析模板与启动时预编译模板的耗时
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private static final String CODE = "A7K2";
+
+    private MailTemplateRenderer renderer;
+
+    @Setup
+    public void setUp() throws IOException {
+        renderer = new MailTemplateRenderer();
+        renderer.init();
+    }
+
+    /**
+     * 原实现：每次发送从 classpath 逐行读取模板，再用 MessageFormat 解析并替换
+     */
+    @Benchmark
+    public String legacyReadAndFormat() throws IOException {
+        StringBuffer buffer = new StringBuffer();
+        try (InputStream inputStream = MailTemplateBenchmark.class.getClassLoader().getResourceAsStream("templates/legacy_code.html");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                buffer.append(line);
+            }
+        }
+        return MessageFormat.format(buffer.toString(), String.valueOf(CODE.charAt(0)), String.valueOf(CODE.charAt(1)),
+                String.valueOf(CODE.charAt(2)), String.valueOf(CODE.charAt(3)));
+    }
+
+    @Benchmark
+    public String precompiledTemplate() {
+        return renderer.render(MailTemplateEnums.LOGIN_CODE, Locale.SIMPLIFIED_CHINESE, CODE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
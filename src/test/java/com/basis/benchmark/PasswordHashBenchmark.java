@@ -0,0 +1,97 @@
+package com.basis.benchmark;
+
+import cn.hutool.crypto.SecureUtil;
+import com.basis.password.PasswordEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 密码哈希基准测试，覆盖注册（hash）和登录（matches）两条路径，包含哈希线程池的调度开销
+ * 使用各算法的最低参数，不做校准，便于不同机器之间对比；legacyMd5Matches 为存量 MD5 哈希的校验
+ * 改造前不经线程池的 MD5 路径见 LegacyPasswordHashBenchmark，本类的 main 方法按类名匹配，会一并运行
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法，结果包含 GC 分配速率
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct-horse-battery";
+
+    private static final String LEGACY_SALT = "ab12cd34";
+
+    @Param({"argon2id", "bcrypt", "pbkdf2"})
+    private String algorithm;
+
+    private PasswordEngine engine;
+
+    private String encoded;
+
+    private String legacy;
+
+    @Setup
+    public void setUp() {
+        engine = new PasswordEngine();
+        ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "algorithm", algorithm);
+        ReflectionTestUtils.setField(engine, "targetMs", 1L);
+        ReflectionTestUtils.setField(engine, "workers", 1);
+        ReflectionTestUtils.setField(engine, "queueCapacity", 16);
+        ReflectionTestUtils.setField(engine, "maxWaitMs", 60_000L);
+        ReflectionTestUtils.setField(engine, "argon2MemoryKb", 19456);
+        engine.start();
+        encoded = engine.hash(PASSWORD);
+        // 旧版 PasswordEncoder 的哈希：md5(明文{盐})
+        legacy = SecureUtil.md5(PASSWORD + "{" + LEGACY_SALT + "}");
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.stop();
+    }
+
+    @Benchmark
+    public String hash() {
+        return engine.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return engine.matches(PASSWORD, encoded, null);
+    }
+
+    @Benchmark
+    public boolean legacyMd5Matches() {
+        return engine.matches(PASSWORD, legacy, LEGACY_SALT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.basis.benchmark;
+
+import com.basis.configuration.RedisConfig;
+import com.basis.model.dto.AvatarUploadCache;
+import com.basis.model.dto.UserProfileDto;
+import com.basis.model.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 值编码基准测试，对比原 JSON（带类名）与紧凑编码的编解码耗时，每条值的字节数在启动时写入日志
+ * session 为登录用户的资料缓存（UserProfileDto），即每次请求读取的会话数据
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisCodecBenchmark {
+
+    @Param({"avatarUpload", "user", "session"})
+    private String payload;
+
+    @Param({"json", "smile"})
+    private String codec;
+
+    private RedisSerializer<Object> serializer;
+
+    private Object value;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        RedisConfig config = new RedisConfig();
+        Jackson2JsonRedisSerializer<Object> legacy = config.jackson2JsonRedisSerializer();
+        serializer = "json".equals(codec) ? legacy : config.redisValueSerializer(legacy, codec);
+        value = sample(payload);
+        encoded = serializer.serialize(value);
+        log.info("Encoded size of {}/{}: {} bytes", payload, codec, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static Object sample(String payload) {
+        switch (payload) {
+            case "avatarUpload":
+                return AvatarUploadCache.builder()
+                        .userId(10086L)
+                        .username("zhangsan")
+                        .objectPath("avatar/10086/6f1c2b7e4a9d4e0f8b3a1c5d7e9f0a2b.png")
+                        .expectedBucket("basis-avatar")
+                        .uploadTime(1792310400000L)
+                        .build();
+            case "user":
+                User user = new User();
+                user.setId(10086L);
+                user.setUserName("zhangsan");
+                user.setNickName("张三");
+                user.setAvatar("avatar/10086/6f1c2b7e4a9d4e0f8b3a1c5d7e9f0a2b.png");
+                user.setEmail("zhangsan@example.com");
+                user.setPassword("3f7a9c1e5b2d8f4a6c0e1b3d5f7a9c2e4b6d8f0a1c3e5b7d9f2a4c6e8b0d1f3a");
+                user.setSalt("8c2e4a6b0d1f3a5c");
+                user.setPhone("13800138000");
+                user.setCreateTime(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+                user.setUpdateTime(LocalDateTime.of(2026, 10, 18, 12, 0, 0));
+                user.setIsDeleted(false);
+                return user;
+            default:
+                return UserProfileDto.builder()
+                        .id(10086L)
+                        .userName("zhangsan")
+                        .nickName("张三")
+                        .email("zhangsan@example.com")
+                        .phone("13800138000")
+                        .avatar("avatar/10086/6f1c2b7e4a9d4e0f8b3a1c5d7e9f0a2b.png")
+                        .build();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RedisCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,157 @@
+package com.basis.benchmark;
+
+import com.basis.model.dto.AvatarUploadCache;
+import com.basis.utils.EmbeddedRedis;
+import com.basis.utils.RedisUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 往返次数基准测试，对比逐条命令与 pipeline / MGET / 异步命令
+ * 使用本机 redis-server，往返耗时只有几十微秒；跨机房部署时往返耗时按比例放大，节省更明显
+ * 各流程的往返次数：
+ * 分片上传记录（SETBIT + 2 × EXPIRE）：逐条 3 次，batch 1 次
+ * 本地上传初始化（上传令牌 + 上传记录）：逐条 2 次，batch 1 次
+ * 验证码写入（HSET + EXPIRE）：逐条 2 次，batch 1 次
+ * 资料批量读取（keys 个 GET）：逐条 keys 次，MGET 1 次，异步命令并发发送后统一等待
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisRoundTripBenchmark {
+
+    @Param({"10"})
+    private int keys;
+
+    private EmbeddedRedis redis;
+
+    private RedisUtils redisUtils;
+
+    private List<String> profileKeys;
+
+    private AvatarUploadCache uploadCache;
+
+    @Setup
+    public void setUp() throws IOException {
+        redis = new EmbeddedRedis();
+        redisUtils = redis.redisUtils();
+        profileKeys = new ArrayList<>();
+        for (int i = 0; i < keys; i++) {
+            profileKeys.add("bench_profile_" + i);
+            redisUtils.setValueTimeout("bench_profile_" + i, "profile-" + i, 3600);
+        }
+        uploadCache = AvatarUploadCache.builder()
+                .userId(1L)
+                .username("alice")
+                .objectPath("/avatar/avatar-alice1234.png")
+                .expectedBucket("bucket")
+                .uploadTime(System.currentTimeMillis())
+                .build();
+        // 预先建立异步连接
+        redisUtils.getValueAsync("bench_profile_0").join();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        redis.stop();
+    }
+
+    @Benchmark
+    public void partUploadSequential() {
+        redisUtils.getRedisTemplate().opsForValue().setBit("bench_parts", 3, true);
+        redisUtils.expire("bench_parts", 3600);
+        redisUtils.expire("bench_manifest", 3600);
+    }
+
+    @Benchmark
+    public List<Object> partUploadBatch() {
+        return redisUtils.batch()
+                .setBit("bench_parts", 3, true)
+                .expire("bench_parts", 3600)
+                .expire("bench_manifest", 3600)
+                .execute();
+    }
+
+    @Benchmark
+    public void uploadInitSequential() {
+        redisUtils.setValueTimeout("bench_token", uploadCache, 600);
+        redisUtils.setValueTimeout("bench_upload", uploadCache, 4200);
+    }
+
+    @Benchmark
+    public List<Object> uploadInitBatch() {
+        return redisUtils.batch()
+                .setTimeout("bench_token", uploadCache, 600)
+                .setTimeout("bench_upload", uploadCache, 4200)
+                .execute();
+    }
+
+    @Benchmark
+    public void captchaSequential() {
+        redisUtils.getRedisTemplate().opsForHash().put("bench_captcha", "code", "1234");
+        redisUtils.expire("bench_captcha", 300);
+    }
+
+    @Benchmark
+    public void captchaBatch() {
+        redisUtils.hashPutTimeout("bench_captcha", "code", "1234", 300);
+    }
+
+    @Benchmark
+    public List<Object> lookupSequential() {
+        List<Object> values = new ArrayList<>(keys);
+        for (String key : profileKeys) {
+            values.add(redisUtils.getValue(key));
+        }
+        return values;
+    }
+
+    @Benchmark
+    public List<Object> lookupMultiGet() {
+        return redisUtils.multiGet(profileKeys);
+    }
+
+    @Benchmark
+    public List<Object> lookupAsync() {
+        List<CompletableFuture<Object>> futures = new ArrayList<>(keys);
+        for (String key : profileKeys) {
+            futures.add(redisUtils.getValueAsync(key));
+        }
+        List<Object> values = new ArrayList<>(keys);
+        for (CompletableFuture<Object> future : futures) {
+            values.add(future.join());
+        }
+        return values;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RedisRoundTripBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.basis.benchmark;
+
+import com.basis.common.Result;
+import com.basis.model.dto.UserProfileDto;
+import com.basis.utils.CodeUtil;
+import com.basis.utils.UsernameUtil;
+import com.basis.utils.VerificationCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 每个请求都会经过的小工具的基准测试：验证码、用户名生成和 Result 的 JSON 序列化
+ * 作为改写这些工具之前的基线，关注吞吐量和每次操作的分配字节数（gc.alloc.rate.norm）
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestUtilsBenchmark {
+
+    private VerificationCode verificationCode;
+
+    /**
+     * 与 Spring MVC 默认消息转换器同样的 Jackson 序列化，不含 Spring Boot 的额外模块
+     */
+    private ObjectMapper objectMapper;
+
+    private UserProfileDto profile;
+
+    @Setup
+    public void setUp() {
+        verificationCode = new VerificationCode();
+        objectMapper = new ObjectMapper();
+        profile = UserProfileDto.builder()
+                .id(1_000_001L)
+                .userName("alice_3f9a2c1b")
+                .nickName("派同学")
+                .email("alice@example.com")
+                .phone("13800138000")
+                .avatar("avatar/1000001/3f9a2c1b.png")
+                .build();
+    }
+
+    @Benchmark
+    public String verificationCode() {
+        return verificationCode.VerificationCode(4);
+    }
+
+    @Benchmark
+    public String codeUtilVerifyCode() {
+        return CodeUtil.generateVerifyCode(6);
+    }
+
+    @Benchmark
+    public String usernameFromUuid() {
+        return UsernameUtil.generateUsernameFromUUID();
+    }
+
+    @Benchmark
+    public String usernameFromEmail() {
+        return UsernameUtil.generateUsernameFromEmail("alice@example.com");
+    }
+
+    /**
+     * 登录接口的响应体
+     */
+    @Benchmark
+    public String tokenResultJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(Result.success("9c1b0e5e-3a53-4a0e-9d7f-54b1f3c2a8e1"));
+    }
+
+    /**
+     * 获取用户资料接口的响应体
+     */
+    @Benchmark
+    public String profileResultJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(Result.success(profile));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestUtilsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.basis.cache;
+
+import com.basis.configuration.RedisConfig;
+import com.basis.model.dto.AvatarUploadCache;
+import com.basis.model.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 紧凑编码测试
+ */
+class CompactRedisSerializerTests {
+
+    private final RedisConfig config = new RedisConfig();
+
+    private final Jackson2JsonRedisSerializer<Object> legacy = config.jackson2JsonRedisSerializer();
+
+    private final CompactRedisSerializer serializer = config.redisValueSerializer(legacy, "smile");
+
+    @Test
+    void registeredTypesRoundTripWithoutClassNames() {
+        User user = new User();
+        user.setId(42L);
+        user.setUserName("alice");
+        user.setAvatar("avatar/42/a.png");
+        user.setCreateTime(LocalDateTime.of(2026, 10, 18, 12, 30, 0));
+        user.setIsDeleted(false);
+
+        byte[] compact = serializer.serialize(user);
+        byte[] json = legacy.serialize(user);
+
+        assertEquals(CompactRedisSerializer.MAGIC, compact[0]);
+        assertFalse(new String(compact, StandardCharsets.ISO_8859_1).contains(User.class.getName()));
+        assertTrue(compact.length < json.length);
+        assertEquals(user, serializer.deserialize(compact));
+    }
+
+    @Test
+    void scalarsKeepJsonEncoding() {
+        // 验证码 Lua 脚本按字节比较，标量的编码必须与原格式一致
+        assertArrayEquals(legacy.serialize("123456"), serializer.serialize("123456"));
+        assertArrayEquals(legacy.serialize(7L), serializer.serialize(7L));
+        assertEquals("123456", serializer.deserialize(serializer.serialize("123456")));
+    }
+
+    @Test
+    void readsLegacyJsonAndCanKeepWritingIt() {
+        AvatarUploadCache cache = AvatarUploadCache.builder()
+                .userId(1L).username("bob").objectPath("avatar/1/x.png").expectedBucket("b").uploadTime(1L).build();
+
+        assertEquals(cache, serializer.deserialize(legacy.serialize(cache)));
+
+        CompactRedisSerializer jsonWriter = config.redisValueSerializer(legacy, "json");
+        assertArrayEquals(legacy.serialize(cache), jsonWriter.serialize(cache));
+        assertEquals(cache, jsonWriter.deserialize(serializer.serialize(cache)));
+    }
+
+    @Test
+    void rejectsUnknownTypeOrVersion() {
+        assertThrows(SerializationException.class,
+                () -> serializer.deserialize(new byte[]{CompactRedisSerializer.MAGIC, CompactRedisSerializer.VERSION, (byte) 200}));
+        assertThrows(SerializationException.class,
+                () -> serializer.deserialize(new byte[]{CompactRedisSerializer.MAGIC, 9, 1}));
+    }
+}
@@ -0,0 +1,193 @@
+package com.basis.cache;
+
+import com.basis.utils.EmbeddedRedis;
+import com.basis.utils.RedisUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 防击穿缓存加载测试，模拟两个节点的并发请求在缓存过期瞬间同时到达
+ */
+@Slf4j
+class RedisCacheLoaderTests {
+
+    private static final int NODES = 2;
+
+    private static final int THREADS_PER_NODE = 32;
+
+    private static EmbeddedRedis redis;
+
+    private static RedisUtils redisUtils;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        redisUtils = redis.redisUtils();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        redis.stop();
+    }
+
+    private static RedisCacheLoader newLoader(double beta) {
+        RedisCacheLoader loader = new RedisCacheLoader();
+        ReflectionTestUtils.setField(loader, "redisUtils", redisUtils);
+        ReflectionTestUtils.setField(loader, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(loader, "lockMs", 3000L);
+        ReflectionTestUtils.setField(loader, "beta", beta);
+        ReflectionTestUtils.setField(loader, "refreshWorkers", 1);
+        loader.start();
+        return loader;
+    }
+
+    /**
+     * 慢回源，记录调用次数
+     */
+    private static Supplier<String> slowBackend(AtomicInteger calls, long millis) {
+        return () -> {
+            int call = calls.incrementAndGet();
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "profile-" + call;
+        };
+    }
+
+    /**
+     * 所有线程同时发起请求
+     */
+    private static List<String> burst(List<Supplier<String>> requests) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(requests.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (Supplier<String> request : requests) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return request.get();
+            }));
+        }
+        start.countDown();
+        List<String> results = new ArrayList<>();
+        for (Future<String> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        return results;
+    }
+
+    @Test
+    void backendCallsPerExpiryDropFromNToOne() throws Exception {
+        int rounds = 3;
+        int requests = NODES * THREADS_PER_NODE;
+
+        // 原方式：GET 未命中后各自回源并 SET
+        AtomicInteger naiveCalls = new AtomicInteger();
+        Supplier<String> naiveBackend = slowBackend(naiveCalls, 200);
+        for (int round = 0; round < rounds; round++) {
+            redisUtils.delKey("stampede_naive");
+            List<Supplier<String>> naive = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                naive.add(() -> {
+                    Object cached = redisUtils.getValue("stampede_naive");
+                    if (cached != null) {
+                        return (String) cached;
+                    }
+                    String value = naiveBackend.get();
+                    redisUtils.setValueTimeout("stampede_naive", value, 60);
+                    return value;
+                });
+            }
+            burst(naive);
+        }
+
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Supplier<String> backend = slowBackend(loaderCalls, 200);
+        List<RedisCacheLoader> nodes = new ArrayList<>();
+        for (int n = 0; n < NODES; n++) {
+            nodes.add(newLoader(1.0));
+        }
+        for (int round = 0; round < rounds; round++) {
+            // 模拟缓存过期
+            nodes.get(0).evict("stampede");
+            List<Supplier<String>> coalesced = new ArrayList<>();
+            for (RedisCacheLoader node : nodes) {
+                for (int i = 0; i < THREADS_PER_NODE; i++) {
+                    coalesced.add(() -> node.get("stampede", 60, 0, String.class, backend));
+                }
+            }
+            List<String> results = burst(coalesced);
+            assertEquals(1, results.stream().distinct().count());
+        }
+        nodes.forEach(RedisCacheLoader::stop);
+
+        log.info("Backend calls per expiry with {} concurrent requests: naive {}, coalesced {}",
+                requests, naiveCalls.get() / (double) rounds, loaderCalls.get() / (double) rounds);
+        assertTrue(naiveCalls.get() > rounds * 2);
+        assertEquals(rounds, loaderCalls.get());
+    }
+
+    @Test
+    void servesStaleValueWhileRefreshing() throws Exception {
+        RedisCacheLoader loader = newLoader(1.0);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> backend = slowBackend(calls, 100);
+
+        assertEquals("profile-1", loader.get("stale", 1, 60, String.class, backend));
+        TimeUnit.MILLISECONDS.sleep(1100);
+
+        // 逻辑已过期：立即返回旧值，后台刷新
+        long start = System.nanoTime();
+        assertEquals("profile-1", loader.get("stale", 1, 60, String.class, backend));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"profile-2".equals(loader.get("stale", 60, 60, String.class, backend)) && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals("profile-2", loader.get("stale", 60, 60, String.class, backend));
+        assertEquals(2, calls.get());
+        loader.stop();
+    }
+
+    @Test
+    void refreshesEarlyBeforeExpiry() throws Exception {
+        // beta 很大时 XFetch 在有效期内必然触发提前刷新
+        RedisCacheLoader loader = newLoader(1e9);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> backend = slowBackend(calls, 20);
+
+        assertEquals("profile-1", loader.get("early", 60, 0, String.class, backend));
+        assertEquals("profile-1", loader.get("early", 60, 0, String.class, backend));
+        awaitCalls(calls, 2);
+        loader.stop();
+    }
+
+    private static void awaitCalls(AtomicInteger calls, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (calls.get() < expected && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(expected, calls.get());
+    }
+}
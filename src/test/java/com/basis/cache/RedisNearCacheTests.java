@@ -0,0 +1,148 @@
+package com.basis.cache;
+
+import com.basis.utils.EmbeddedRedis;
+import com.basis.utils.RedisUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 近端缓存测试，失效消息来自内嵌 Redis 的 CLIENT TRACKING 推送
+ */
+class RedisNearCacheTests {
+
+    private static EmbeddedRedis redis;
+
+    private static RedisUtils redisUtils;
+
+    private static RedisTemplate<String, Object> template;
+
+    private static RedisNearCache nearCache;
+
+    private static SimpleMeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        redisUtils = redis.redisUtils();
+        template = redisUtils.getRedisTemplate();
+        nearCache = new RedisNearCache();
+        ReflectionTestUtils.setField(nearCache, "redisTemplate", template);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(nearCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(nearCache, "enabled", true);
+        ReflectionTestUtils.setField(nearCache, "prefixes", new String[]{"near_"});
+        ReflectionTestUtils.setField(nearCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(nearCache, "ttlSeconds", 600L);
+        nearCache.start();
+        ReflectionTestUtils.setField(redisUtils, "redisNearCache", nearCache);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        nearCache.stop();
+        redis.stop();
+    }
+
+    /**
+     * 写入被跟踪的 key 并等待其失效消息送达，避免消息晚于随后的读取到达、把刚缓存的值清掉
+     */
+    private static void writeAndAwaitInvalidation(Runnable write) throws InterruptedException {
+        double before = meterRegistry.counter("redis_near_invalidations").count();
+        write.run();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("redis_near_invalidations").count() == before && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static Function<String, Object> counting(AtomicInteger reads) {
+        return key -> {
+            reads.incrementAndGet();
+            return template.opsForValue().get(key);
+        };
+    }
+
+    @Test
+    void servesLocallyUntilAnotherWriterChangesTheKey() throws Exception {
+        writeAndAwaitInvalidation(() -> template.opsForValue().set("near_profile", "v1"));
+        AtomicInteger reads = new AtomicInteger();
+
+        assertEquals("v1", nearCache.get("near_profile", counting(reads)));
+        assertEquals("v1", nearCache.get("near_profile", counting(reads)));
+        assertEquals(1, reads.get());
+
+        // 其他节点写入，Redis 推送失效后本地重新读取
+        template.opsForValue().set("near_profile", "v2");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"v2".equals(nearCache.get("near_profile", counting(reads))) && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertEquals("v2", nearCache.get("near_profile", counting(reads)));
+
+        // 删除同样会失效
+        int before = reads.get();
+        template.delete("near_profile");
+        deadline = System.currentTimeMillis() + 5000;
+        while (nearCache.get("near_profile", counting(reads)) != null && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertTrue(reads.get() > before);
+    }
+
+    @Test
+    void keysOutsideTrackedPrefixesAlwaysReadRedis() {
+        template.opsForValue().set("other_key", "value");
+        AtomicInteger reads = new AtomicInteger();
+        assertFalse(nearCache.accepts("other_key"));
+        nearCache.get("other_key", counting(reads));
+        nearCache.get("other_key", counting(reads));
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void doesNotKeepValueInvalidatedDuringRead() throws Exception {
+        writeAndAwaitInvalidation(() -> template.opsForValue().set("near_race", "old"));
+        AtomicInteger reads = new AtomicInteger();
+        // 读到旧值之后、写入本地之前，其他节点修改了 key
+        Object value = nearCache.get("near_race", key -> {
+            reads.incrementAndGet();
+            Object old = template.opsForValue().get(key);
+            template.opsForValue().set(key, "new");
+            try {
+                TimeUnit.MILLISECONDS.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return old;
+        });
+        assertEquals("old", value);
+        assertEquals("new", nearCache.get("near_race", counting(reads)));
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void hashReadsGoThroughNearCache() throws Exception {
+        writeAndAwaitInvalidation(() -> template.opsForHash().put("near_hash", "v", "value"));
+        Map<Object, Object> first = redisUtils.hashGetAll("near_hash");
+        Map<Object, Object> second = redisUtils.hashGetAll("near_hash");
+        assertEquals("value", first.get("v"));
+        // 第二次读取返回本地保存的同一对象
+        assertTrue(first == second);
+        assertTrue(redisUtils.hashGetAll("near_missing").isEmpty());
+    }
+}
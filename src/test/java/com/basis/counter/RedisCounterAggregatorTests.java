@@ -0,0 +1,107 @@
+package com.basis.counter;
+
+import com.basis.utils.EmbeddedRedis;
+import com.basis.utils.RedisUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 高频计数聚合测试
+ */
+class RedisCounterAggregatorTests {
+
+    private static EmbeddedRedis redis;
+
+    private static RedisUtils redisUtils;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        redisUtils = redis.redisUtils();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        redis.stop();
+    }
+
+    private RedisCounterAggregator newAggregator(long flushIntervalMs) {
+        RedisCounterAggregator aggregator = new RedisCounterAggregator();
+        ReflectionTestUtils.setField(aggregator, "redisUtils", redisUtils);
+        ReflectionTestUtils.setField(aggregator, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(aggregator, "flushIntervalMs", flushIntervalMs);
+        aggregator.start();
+        return aggregator;
+    }
+
+    @Test
+    void concurrentIncrementsAreNeitherLostNorDuplicated() throws Exception {
+        // 刷新间隔很短，写入过程中条目会被反复刷新、摘除和重建
+        RedisCounterAggregator aggregator = newAggregator(1);
+        int threads = 8;
+        int perThread = 20000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    aggregator.increment("counter_hot");
+                    aggregator.add("counter_user_" + (i % 50), 1, 0);
+                    if (i % 1000 == 0) {
+                        // 让部分条目空闲到被摘除后再写入
+                        Thread.yield();
+                    }
+                }
+                aggregator.incrementScore("counter_rank", "member_" + id, 0.5);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        pool.shutdown();
+        aggregator.stop();
+
+        assertEquals((long) threads * perThread, ((Number) redisUtils.getValue("counter_hot")).longValue());
+        long users = 0;
+        for (int i = 0; i < 50; i++) {
+            users += ((Number) redisUtils.getValue("counter_user_" + i)).longValue();
+        }
+        assertEquals((long) threads * perThread, users);
+        assertEquals(0.5, redisUtils.zsetSetGetSource("counter_rank", "member_3"));
+    }
+
+    @Test
+    void flushAppliesTtlAndEvictsIdleKeys() throws Exception {
+        RedisCounterAggregator aggregator = newAggregator(3600_000);
+        aggregator.add("counter_ttl", 3, 120);
+        assertEquals(3, aggregator.get("counter_ttl"));
+        assertEquals(1, aggregator.flush());
+
+        assertEquals(0, aggregator.pending("counter_ttl"));
+        assertEquals(3, aggregator.get("counter_ttl"));
+        long ttl = redisUtils.getRedisTemplate().getExpire("counter_ttl");
+        assertTrue(ttl > 0 && ttl <= 120);
+
+        // 两次空刷新后条目被摘除，再次写入仍能正常累加
+        aggregator.flush();
+        aggregator.flush();
+        assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(aggregator, "counts")).size());
+        aggregator.add("counter_ttl", 2, 120);
+        aggregator.stop();
+        assertEquals(5, aggregator.get("counter_ttl"));
+    }
+}
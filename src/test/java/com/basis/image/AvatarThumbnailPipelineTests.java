@@ -0,0 +1,96 @@
+package com.basis.image;
+
+import com.basis.storage.LocalFileStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像缩略图测试
+ */
+class AvatarThumbnailPipelineTests {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void localAvatarGetsSquareVariantsNextToOriginal() throws Exception {
+        // 非正方形原图，左右两侧为红色，中间为蓝色，裁剪后只剩蓝色
+        BufferedImage original = new BufferedImage(1600, 1000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = original.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 1600, 1000);
+        g.setColor(Color.BLUE);
+        g.fillRect(300, 0, 1000, 1000);
+        g.dispose();
+        Files.createDirectories(root.resolve("avatar"));
+        ImageIO.write(original, "jpeg", root.resolve("avatar/a.jpg").toFile());
+
+        AvatarVariants variants = variants();
+        AvatarThumbnailPipeline pipeline = pipeline(variants);
+        pipeline.submit("/files/avatar/a.jpg");
+
+        for (int size : new int[]{48, 128, 512}) {
+            Path variant = root.resolve("avatar/a_" + size + ".jpg");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!Files.exists(variant) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            BufferedImage thumbnail = ImageIO.read(variant.toFile());
+            assertEquals(size, thumbnail.getWidth());
+            assertEquals(size, thumbnail.getHeight());
+            Color edge = new Color(thumbnail.getRGB(0, size / 2));
+            assertTrue(edge.getBlue() > 200 && edge.getRed() < 60, "center crop expected, got " + edge);
+        }
+        pipeline.stop();
+    }
+
+    @Test
+    void urlMapUsesLocalVariantsOrOssProcessing() {
+        AvatarVariants variants = variants();
+
+        Map<String, String> local = variants.urls("http://h:80", "/files/avatar/a.png");
+        assertEquals("http://h:80/files/avatar/a_48.png", local.get("48"));
+        assertEquals("http://h:80/files/avatar/a.png", local.get(AvatarVariants.ORIGINAL));
+
+        Map<String, String> oss = variants.urls("http://h:80", "/avatar/b.jpg");
+        assertEquals("http://h:80/avatar/b.jpg?x-oss-process=image/resize,m_fill,w_128,h_128", oss.get("128"));
+        assertTrue(variants.urls("http://h:80", null).isEmpty());
+    }
+
+    private static AvatarVariants variants() {
+        AvatarVariants variants = new AvatarVariants();
+        ReflectionTestUtils.setField(variants, "sizes", new int[]{48, 128, 512});
+        return variants;
+    }
+
+    private AvatarThumbnailPipeline pipeline(AvatarVariants variants) throws Exception {
+        LocalFileStore store = new LocalFileStore();
+        ReflectionTestUtils.setField(store, "path", root.toString());
+        store.init();
+        AvatarThumbnailPipeline pipeline = new AvatarThumbnailPipeline();
+        ReflectionTestUtils.setField(pipeline, "localFileStore", store);
+        ReflectionTestUtils.setField(pipeline, "avatarVariants", variants);
+        ReflectionTestUtils.setField(pipeline, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pipeline, "workers", 1);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 10);
+        ReflectionTestUtils.setField(pipeline, "maxPixels", 50_000_000L);
+        ReflectionTestUtils.setField(pipeline, "jpegQuality", 0.85f);
+        pipeline.start();
+        return pipeline;
+    }
+}
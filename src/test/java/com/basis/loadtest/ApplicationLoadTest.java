@@ -0,0 +1,418 @@
+package com.basis.loadtest;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.basis.mapper.UserMapper;
+import com.basis.model.entity.User;
+import com.basis.model.vo.SendVo;
+import com.basis.service.IUserService;
+import com.basis.utils.RedisUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.basis.model.constant.BasicConstant.AVATAR_UPDATE_STREAM_KEY;
+import static com.basis.model.constant.BasicConstant.CAPTCHA_CODE_FIELD;
+import static com.basis.model.constant.BasicConstant.EMAIL_CODE_PREFIX;
+import static com.basis.model.constant.BasicConstant.PHONE_CODE_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 端到端压测，应用连接本地的 Redis、H2、GreenMail 以及微信、STS 和 OSS 桩，无需任何外部账号
+ * 固定数量的虚拟用户按权重循环执行登录（全部登录方式）、注册、获取资料和头像上传，预热后开始统计，
+ * 输出每个接口的吞吐量、p50/p99 延迟和错误率，以及回调之后异步头像更新的成功、失败次数，并写入 target/loadtest 下的 JSON 文件供不同版本对比。
+ * 验证码发送接口未开放，邮箱和手机号登录前在进程内调用发送逻辑（同样经过邮件队列和短信网关），再从 Redis 读取验证码
+ * 运行方式：mvn test -Dtest=ApplicationLoadTest -Dloadtest=true，可选参数：
+ * -Dloadtest.users 虚拟用户数，-Dloadtest.accounts 预先注册的账号数，-Dloadtest.warmup-seconds、-Dloadtest.duration-seconds，
+ * -Dloadtest.stub-latency-ms 微信和 STS 桩的响应延迟，-Dloadtest.baseline 上一版本的结果文件
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@ExtendWith(LocalStandIns.Lifecycle.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@DirtiesContext
+class ApplicationLoadTest {
+
+    private static final String TOKEN_HEADER = "deepfakeToken";
+
+    private static final String PASSWORD = "Loadtest#2026";
+
+    /**
+     * 头像更新的结果，对应 avatar_update 指标的 result 标签
+     */
+    private static final String[] AVATAR_UPDATE_RESULTS = {"success", "failure", "skipped", "dropped"};
+
+    private final int users = Integer.getInteger("loadtest.users", 16);
+
+    private final int accounts = Math.max(users, Integer.getInteger("loadtest.accounts", 64));
+
+    private final long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 10);
+
+    private final long durationSeconds = Long.getLong("loadtest.duration-seconds", 60);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    /**
+     * 模拟上传的头像内容
+     */
+    private final byte[][] images = images(4, 20480);
+
+    /**
+     * 预先注册的账号，第 i 个账号只由第 i % users 个虚拟用户使用，避免验证码被其他虚拟用户消费
+     */
+    private final List<Account> seeded = new ArrayList<>();
+
+    /**
+     * 登录得到的 token，获取资料和头像上传随机使用
+     */
+    private final List<String> tokens = new CopyOnWriteArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void standIns(DynamicPropertyRegistry registry) {
+        LocalStandIns.current().register(registry);
+    }
+
+    /**
+     * 各场景的权重
+     */
+    private enum Scenario {
+
+        LOGIN_NORMAL(15), LOGIN_EMLPSW(15), LOGIN_EMAIL(5), LOGIN_PHONE(5), LOGIN_WECHAT(10),
+        REGISTER(5), GET_PROFILE(35), AVATAR_UPLOAD(10);
+
+        private final int weight;
+
+        Scenario(int weight) {
+            this.weight = weight;
+        }
+
+        static Scenario pick() {
+            int total = 0;
+            for (Scenario scenario : values()) {
+                total += scenario.weight;
+            }
+            int ticket = ThreadLocalRandom.current().nextInt(total);
+            for (Scenario scenario : values()) {
+                ticket -= scenario.weight;
+                if (ticket < 0) {
+                    return scenario;
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    private static final class Account {
+
+        private final String email;
+
+        private final String username;
+
+        private Account(String email, String username) {
+            this.email = email;
+            this.username = username;
+        }
+    }
+
+    @Test
+    void mixedTraffic() throws Exception {
+        seed();
+        log.info("Seeded {} accounts, warming up {} virtual users for {}s", accounts, users, warmupSeconds);
+        drive(new LoadReport(), warmupSeconds);
+
+        LoadReport report = new LoadReport();
+        log.info("Measuring for {}s", durationSeconds);
+        Map<String, Long> avatarUpdatesBefore = avatarUpdates();
+        drive(report, durationSeconds);
+        // 头像回调只负责入队，等待异步更新处理完再统计结果
+        awaitAvatarUpdates();
+        Map<String, Long> avatarUpdates = avatarUpdates();
+        avatarUpdates.replaceAll((result, count) -> count - avatarUpdatesBefore.get(result));
+
+        Map<String, Map<String, Object>> summary = report.summary();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("time", LocalDateTime.now().toString());
+        result.put("users", users);
+        result.put("accounts", accounts);
+        result.put("duration_seconds", durationSeconds);
+        result.put("stub_latency_ms", Long.getLong("loadtest.stub-latency-ms", 20));
+        result.put("endpoints", summary);
+        result.put("stub_calls", LocalStandIns.current().stubCalls());
+        result.put("mails_received", LocalStandIns.current().receivedMails());
+        result.put("avatar_updates", avatarUpdates);
+        File file = new File("target/loadtest/report-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        report.write(file, result);
+        log.info("{}Avatar updates: {}, stub calls: {}, mails received: {}, report: {}", report.format(summary), avatarUpdates,
+                LocalStandIns.current().stubCalls(), LocalStandIns.current().receivedMails(), file.getAbsolutePath());
+        String baseline = System.getProperty("loadtest.baseline");
+        if (StrUtil.isNotEmpty(baseline)) {
+            log.info(report.compare(new File(baseline), summary));
+        }
+        assertFalse(summary.isEmpty());
+    }
+
+    private static byte[][] images(int count, int size) {
+        Random random = new Random(2026);
+        byte[][] images = new byte[count][size];
+        for (byte[] image : images) {
+            random.nextBytes(image);
+        }
+        return images;
+    }
+
+    /**
+     * @return 头像更新各结果的累计次数
+     */
+    private Map<String, Long> avatarUpdates() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String result : AVATAR_UPDATE_RESULTS) {
+            Counter counter = meterRegistry.find("avatar_update").tag("result", result).counter();
+            counts.put(result, counter == null ? 0L : (long) counter.count());
+        }
+        return counts;
+    }
+
+    /**
+     * 等待头像更新队列清空，失败的消息会留在队列中等待重试，因此最多等待 30 秒
+     */
+    private void awaitAvatarUpdates() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            Long size = redisUtils.getRedisTemplate().opsForStream().size(AVATAR_UPDATE_STREAM_KEY);
+            if (size == null || size == 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    /**
+     * 注册账号并各登录一次，为获取资料和头像上传准备 token
+     */
+    private void seed() throws Exception {
+        for (int i = 0; i < accounts; i++) {
+            String email = "seed" + i + "@loadtest.local";
+            JsonNode registered = post("/auth/register", null, body("email", email, "password", PASSWORD));
+            if (registered.path("code").asInt() != 0) {
+                throw new IllegalStateException("Seeding failed: " + registered);
+            }
+            User user = userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getEmail, email).last("LIMIT 1"));
+            seeded.add(new Account(email, user.getUserName()));
+            JsonNode login = post("/auth/login", null, body("login_type", "EMLPSW", "email", email, "password", PASSWORD));
+            tokens.add(login.path("message").asText());
+        }
+    }
+
+    private void drive(LoadReport report, long seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        report.start();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            final int vu = i;
+            futures.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    run(vu, Scenario.pick(), report);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        report.stop();
+        executor.shutdown();
+    }
+
+    private void run(int vu, Scenario scenario, LoadReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (scenario) {
+            case LOGIN_NORMAL: {
+                Account account = accountOf(vu);
+                login(report, "NORMAL", body("login_type", "NORMAL", "username", account.username, "password", PASSWORD));
+                break;
+            }
+            case LOGIN_EMLPSW: {
+                Account account = accountOf(vu);
+                login(report, "EMLPSW", body("login_type", "EMLPSW", "email", account.email, "password", PASSWORD));
+                break;
+            }
+            case LOGIN_EMAIL: {
+                Account account = accountOf(vu);
+                String code = sendCaptcha("EMAIL_CODE", account.email, null, StrUtil.join(EMAIL_CODE_PREFIX, account.email));
+                login(report, "EMAIL", body("login_type", "EMAIL", "email", account.email, "code", code));
+                break;
+            }
+            case LOGIN_PHONE: {
+                // 每个虚拟用户固定一个手机号，首次登录时创建用户
+                String phone = String.format("139%08d", vu);
+                String code = sendCaptcha("PHONE_CODE", null, phone, StrUtil.join(PHONE_CODE_PREFIX, phone));
+                login(report, "PHONE", body("login_type", "PHONE", "phone", phone, "code", code));
+                break;
+            }
+            case LOGIN_WECHAT:
+                // 桩返回的 openid 由授权码决定，大部分登录命中已存在的用户
+                login(report, "WECHAT", body("login_type", "WECHAT", "wechat_code", "vu" + vu + "-" + random.nextInt(10)));
+                break;
+            case REGISTER:
+                timed(report, "POST /auth/register", () -> post("/auth/register", null,
+                        body("email", "new" + registrations.incrementAndGet() + "-" + System.nanoTime() + "@loadtest.local", "password", PASSWORD)));
+                break;
+            case GET_PROFILE:
+                timed(report, "GET /user/get-profile", () -> get("/user/get-profile", randomToken()));
+                break;
+            case AVATAR_UPLOAD: {
+                String token = randomToken();
+                JsonNode init = timed(report, "POST /user/avatar-upload/init", () -> post("/user/avatar-upload/init", token,
+                        body("mime_type", "image/png", "file_size", 20480, "width", 256, "height", 256)));
+                String objectPath = init == null ? "" : init.path("data").path("object_path").asText();
+                if (!objectPath.isEmpty()) {
+                    // 模拟客户端直传 OSS，再由 OSS 发起回调，对象名不带开头的 /；从少量图片中选取，部分上传按内容去重
+                    LocalStandIns.current().putObject(StrUtil.removePrefix(objectPath, "/"), images[random.nextInt(images.length)]);
+                    timed(report, "POST /user/avatar-upload/callback", () -> post("/user/avatar-upload/callback", null,
+                            body("bucket_name", LocalStandIns.OSS_BUCKET, "object", StrUtil.removePrefix(objectPath, "/"))));
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException(scenario.name());
+        }
+    }
+
+    private void login(LoadReport report, String type, Map<String, Object> body) {
+        JsonNode result = timed(report, "POST /auth/login [" + type + "]", () -> post("/auth/login", null, body));
+        if (result != null && result.path("code").asInt() == 0 && tokens.size() < accounts * 4) {
+            tokens.add(result.path("message").asText());
+        }
+    }
+
+    /**
+     * 在进程内调用验证码发送逻辑，返回写入 Redis 的验证码
+     */
+    private String sendCaptcha(String sendType, String email, String phone, String key) {
+        SendVo vo = new SendVo();
+        vo.setSendType(sendType);
+        vo.setEmail(email);
+        vo.setPhone(phone);
+        userService.sendCaptcha(vo);
+        return (String) redisUtils.hashGet(key, CAPTCHA_CODE_FIELD);
+    }
+
+    private Account accountOf(int vu) {
+        int rounds = accounts / users;
+        return seeded.get(vu + users * ThreadLocalRandom.current().nextInt(rounds));
+    }
+
+    private String randomToken() {
+        return tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+    }
+
+    private interface Call {
+        JsonNode call() throws Exception;
+    }
+
+    /**
+     * 执行并记录一次请求，HTTP 状态不是 200 或业务状态码不为 0 都计为错误
+     *
+     * @return 响应体，请求异常时返回 null
+     */
+    private JsonNode timed(LoadReport report, String endpoint, Call call) {
+        long start = System.nanoTime();
+        JsonNode result = null;
+        try {
+            result = call.call();
+        } catch (Exception e) {
+            log.debug("{} failed: {}", endpoint, e.getMessage());
+        }
+        report.record(endpoint, System.nanoTime() - start, result != null && result.path("code").asInt(-1) == 0);
+        return result;
+    }
+
+    private JsonNode get(String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        return send(request, token);
+    }
+
+    private JsonNode post(String path, String token, Map<String, Object> body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        return send(request, token);
+    }
+
+    private JsonNode send(HttpRequest.Builder request, String token) throws Exception {
+        if (token != null) {
+            request.header(TOKEN_HEADER, token);
+        }
+        HttpResponse<byte[]> response = client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static Map<String, Object> body(Object... pairs) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            body.put((String) pairs[i], pairs[i + 1]);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,127 @@
+package com.basis.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 压测结果统计，按接口记录每次请求的耗时和是否出错，输出吞吐量、p50/p99 延迟和错误率
+ * 结果同时写入 JSON 文件，指定上一版本的结果文件时打印两次结果的差异
+ */
+final class LoadReport {
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    private long startNanos;
+
+    private long endNanos;
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    void record(String endpoint, long nanos, boolean ok) {
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStats()).record(nanos, ok);
+    }
+
+    /**
+     * @return 接口名到统计结果的映射，按接口名排序
+     */
+    Map<String, Map<String, Object>> summary() {
+        double seconds = (endNanos - startNanos) / 1e9;
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        endpoints.keySet().stream().sorted().forEach(name -> summary.put(name, endpoints.get(name).summary(seconds)));
+        return summary;
+    }
+
+    String format(Map<String, Map<String, Object>> summary) {
+        StringBuilder out = new StringBuilder(String.format("%n%-32s %9s %9s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "error%", "req/s", "p50(ms)", "p99(ms)", "max(ms)"));
+        summary.forEach((name, row) -> out.append(String.format("%-32s %9d %9d %8.2f %10.1f %10.2f %10.2f %10.2f%n", name,
+                row.get("requests"), row.get("errors"), row.get("error_rate"), row.get("throughput"),
+                row.get("p50_ms"), row.get("p99_ms"), row.get("max_ms"))));
+        return out.toString();
+    }
+
+    void write(File file, Map<String, Object> report) throws IOException {
+        file.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+    }
+
+    /**
+     * 与上一版本的结果对比吞吐量和 p99，正数表示本次更高
+     */
+    String compare(File baseline, Map<String, Map<String, Object>> summary) throws IOException {
+        JsonNode previous = new ObjectMapper().readTree(baseline).path("endpoints");
+        StringBuilder out = new StringBuilder(String.format("%nCompared with %s%n%-32s %12s %12s%n",
+                baseline.getName(), "endpoint", "req/s chg%", "p99 chg%"));
+        summary.forEach((name, row) -> {
+            JsonNode old = previous.path(name);
+            if (old.isMissingNode()) {
+                return;
+            }
+            out.append(String.format("%-32s %+12.1f %+12.1f%n", name,
+                    change(old.path("throughput").asDouble(), (Double) row.get("throughput")),
+                    change(old.path("p99_ms").asDouble(), (Double) row.get("p99_ms"))));
+        });
+        return out.toString();
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static final class EndpointStats {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        synchronized void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", (long) count);
+            row.put("errors", errors);
+            row.put("error_rate", count == 0 ? 0.0 : errors * 100.0 / count);
+            row.put("throughput", count / seconds);
+            row.put("p50_ms", percentile(sorted, 0.50));
+            row.put("p99_ms", percentile(sorted, 0.99));
+            row.put("max_ms", count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+            return row;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
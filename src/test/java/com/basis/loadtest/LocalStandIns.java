@@ -0,0 +1,384 @@
+package com.basis.loadtest;
+
+import com.basis.utils.EmbeddedRedis;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import redis.embedded.RedisServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 压测用的本地外部依赖：内嵌 Redis、H2（MySQL 兼容模式）、GreenMail SMTP，以及微信接口、阿里云 STS 和 OSS 的 HTTP 桩
+ * 桩按固定延迟返回合法响应，模拟远程调用的耗时；OSS 桩在内存中保存对象，支持头像更新调度用到的读取和删除。
+ * H2 不支持迁移脚本中 MySQL 特有的字符集、排序规则、表选项和一条 ALTER 多个子句，启动前去掉这些部分后依次执行正式的迁移脚本，
+ * 表结构与线上保持一致；压测环境因此关闭 Flyway。
+ * 通过 {@link Lifecycle} 扩展管理启停
+ */
+final class LocalStandIns {
+
+    static final String OSS_BUCKET = "user-images-bucket";
+
+    private static final String JDBC_URL = "jdbc:h2:mem:dfdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static volatile LocalStandIns current;
+
+    private final RedisServer redis;
+
+    /**
+     * 保持一个连接，内存数据库在应用关闭前不会被回收
+     */
+    private final Connection database;
+
+    private final GreenMail greenMail;
+
+    private final HttpServer stubs;
+
+    /**
+     * STS 桩单独监听：JDK HttpServer 会把响应头改写为 Content-type，
+     * 而阿里云 SDK 区分大小写读取 Content-Type，读不到时无法解析响应
+     */
+    private final ServerSocket sts;
+
+    private final ExecutorService stubExecutor;
+
+    private final long stubLatencyMs;
+
+    /**
+     * OSS 桩中的对象，对象名到内容
+     */
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    /**
+     * 各桩接口的调用次数
+     */
+    private final Map<String, LongAdder> stubCalls = new ConcurrentHashMap<>();
+
+    /**
+     * @param stubLatencyMs 微信和 STS 桩的响应延迟
+     */
+    private LocalStandIns(long stubLatencyMs) throws IOException {
+        this.stubLatencyMs = stubLatencyMs;
+        database = createDatabase();
+        redis = new RedisServer(EmbeddedRedis.freePort());
+        redis.start();
+        greenMail = new GreenMail(new ServerSetup(EmbeddedRedis.freePort(), "localhost", ServerSetup.PROTOCOL_SMTP));
+        // 账号与 application-loadtest.yml 中的 spring.mail 一致
+        greenMail.setUser("loadtest@example.com", "loadtest@example.com", "loadtest");
+        greenMail.start();
+        stubExecutor = Executors.newCachedThreadPool();
+        stubs = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        stubs.setExecutor(stubExecutor);
+        stubs.createContext("/sns/jscode2session", exchange -> respond(exchange, "wechat_jscode2session",
+                "{\"openid\":\"openid-" + query(exchange).get("js_code") + "\",\"session_key\":\"loadtest\"}"));
+        stubs.createContext("/cgi-bin/token", exchange -> respond(exchange, "wechat_token",
+                "{\"access_token\":\"loadtest-" + UUID.randomUUID() + "\",\"expires_in\":7200}"));
+        stubs.createContext("/wxa/msg_sec_check", exchange -> respond(exchange, "wechat_msg_sec_check",
+                "{\"errcode\":0,\"result\":{\"suggest\":\"pass\",\"label\":100}}"));
+        // 端点为 IP 时 OSS SDK 使用路径风格访问：/{bucket}/{object}
+        stubs.createContext("/" + OSS_BUCKET + "/", this::ossObject);
+        stubs.start();
+        sts = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        stubExecutor.execute(this::acceptSts);
+    }
+
+    /**
+     * @return 当前测试类使用的本地服务
+     */
+    static LocalStandIns current() {
+        return current;
+    }
+
+    /**
+     * 把本地服务的地址注入应用配置
+     */
+    void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> JDBC_URL);
+        registry.add("spring.redis.host", () -> "127.0.0.1");
+        registry.add("spring.redis.port", () -> redis.ports().get(0));
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> greenMail.getSmtp().getPort());
+        registry.add("we-chat.api-base-url", () -> "http://127.0.0.1:" + stubs.getAddress().getPort());
+        registry.add("aliyun.oss.avatar.endpoint", () -> "http://127.0.0.1:" + stubs.getAddress().getPort());
+        registry.add("aliyun.sts-endpoint", () -> "127.0.0.1:" + sts.getLocalPort());
+    }
+
+    /**
+     * 模拟客户端直传 OSS，之后再由压测发起上传回调
+     */
+    void putObject(String key, byte[] content) {
+        objects.put(key, content);
+    }
+
+    int receivedMails() {
+        return greenMail.getReceivedMessages().length;
+    }
+
+    Map<String, Long> stubCalls() {
+        Map<String, Long> calls = new TreeMap<>();
+        stubCalls.forEach((name, count) -> calls.put(name, count.sum()));
+        return calls;
+    }
+
+    private void stop() throws IOException {
+        stubs.stop(0);
+        sts.close();
+        stubExecutor.shutdownNow();
+        greenMail.stop();
+        redis.stop();
+        try {
+            database.close();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static Connection createDatabase() throws IOException {
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:database/migration/V*__*.sql");
+        // 按版本号逐段排序，V1_1 在 V1 之后、V2 之前，V10 在 V9 之后
+        Arrays.sort(scripts, Comparator.comparing(LocalStandIns::version, LocalStandIns::compareVersions));
+        try {
+            Connection connection = DriverManager.getConnection(JDBC_URL, "sa", "");
+            for (Resource script : scripts) {
+                String sql = new String(script.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                try (Statement statement = connection.createStatement()) {
+                    for (String ddl : toH2(sql)) {
+                        statement.execute(ddl);
+                    }
+                }
+            }
+            return connection;
+        } catch (SQLException e) {
+            throw new IOException("Apply migrations to H2 failed", e);
+        }
+    }
+
+    private static int[] version(Resource script) {
+        String filename = script.getFilename();
+        return Arrays.stream(filename.substring(1, filename.indexOf("__")).split("[._]")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static int compareVersions(int[] left, int[] right) {
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            int diff = Integer.compare(i < left.length ? left[i] : 0, i < right.length ? right[i] : 0);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 去掉 H2 不支持的 MySQL 语法，并把 ALTER TABLE 的多个 ADD 子句拆成多条语句
+     */
+    private static String[] toH2(String sql) {
+        String stripped = sql.replaceAll("(?m)^--.*$", "")
+                .replaceAll("(?i)\\s+CHARACTER SET \\w+", "")
+                .replaceAll("(?i)\\s+COLLATE \\w+", "")
+                .replaceAll("(?i)\\s+USING BTREE", "")
+                .replaceAll("(?i)\\)\\s*ENGINE=[^;]*;", ");");
+        return Arrays.stream(stripped.split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .flatMap(statement -> {
+                    if (!statement.toUpperCase().startsWith("ALTER TABLE")) {
+                        return Arrays.stream(new String[]{statement});
+                    }
+                    String table = statement.split("\\s+")[2];
+                    String clauses = statement.substring(statement.indexOf(table) + table.length());
+                    return Arrays.stream(clauses.split(",\\s*(?=ADD\\s)")).map(clause -> "ALTER TABLE " + table + " " + clause.trim());
+                })
+                .toArray(String[]::new);
+    }
+
+    private void acceptSts() {
+        while (!sts.isClosed()) {
+            try {
+                Socket socket = sts.accept();
+                stubExecutor.execute(() -> assumeRole(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * STS 为 RPC 风格接口，所有请求都发往根路径，以 Action 参数区分；每个连接只处理一个请求
+     */
+    private void assumeRole(Socket socket) {
+        try (Socket connection = socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.ISO_8859_1));
+            String target = in.readLine().split(" ")[1];
+            int contentLength = 0;
+            for (String header = in.readLine(); header != null && !header.isEmpty(); header = in.readLine()) {
+                if (header.toLowerCase().startsWith("content-length:")) {
+                    contentLength = Integer.parseInt(header.substring(header.indexOf(':') + 1).trim());
+                }
+            }
+            char[] body = new char[contentLength];
+            for (int read = 0; read < contentLength; ) {
+                read += in.read(body, read, contentLength - read);
+            }
+            Map<String, String> params = parse(target.contains("?") ? target.substring(target.indexOf('?') + 1) : null);
+            params.putAll(parse(new String(body)));
+
+            String response;
+            int status = 200;
+            if ("AssumeRole".equals(params.get("Action"))) {
+                long duration = Long.parseLong(params.getOrDefault("DurationSeconds", "3600"));
+                Instant expiration = Instant.now().plusSeconds(duration).truncatedTo(ChronoUnit.SECONDS);
+                response = reply("sts_assume_role", "{\"RequestId\":\"" + UUID.randomUUID() + "\","
+                        + "\"AssumedRoleUser\":{\"Arn\":\"" + params.get("RoleArn") + "/" + params.get("RoleSessionName") + "\",\"AssumedRoleId\":\"loadtest\"},"
+                        + "\"Credentials\":{\"AccessKeyId\":\"STS.loadtest\",\"AccessKeySecret\":\"loadtest-secret\","
+                        + "\"SecurityToken\":\"loadtest-" + UUID.randomUUID() + "\",\"Expiration\":\"" + expiration + "\"}}");
+            } else {
+                status = 404;
+                response = reply("sts_unknown", "{\"Code\":\"InvalidAction.NotFound\"}");
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            OutputStream out = connection.getOutputStream();
+            out.write(("HTTP/1.1 " + status + (status == 200 ? " OK" : " Not Found") + "\r\n"
+                    + "Content-Type: application/json\r\n"
+                    + "Content-Length: " + bytes.length + "\r\n"
+                    + "Connection: close\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.write(bytes);
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            stubCalls.computeIfAbsent("sts_broken", key -> new LongAdder()).increment();
+        }
+    }
+
+    private void ossObject(HttpExchange exchange) throws IOException {
+        String key = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(OSS_BUCKET.length() + 2), StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("x-oss-request-id", UUID.randomUUID().toString());
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            reply("oss_delete_object", "");
+            objects.remove(key);
+            // JDK HttpServer 返回 204 后连接无法复用，OSS SDK 复用时报 target server failed to respond，因此要求客户端关闭连接
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+            return;
+        }
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            ossError(exchange, "oss_unsupported", 405, "MethodNotAllowed");
+            return;
+        }
+        byte[] content = objects.get(key);
+        if (content == null) {
+            ossError(exchange, "oss_get_object_missing", 404, "NoSuchKey");
+            return;
+        }
+        reply("oss_get_object", "");
+        exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+        exchange.getResponseHeaders().set("ETag", "\"" + Integer.toHexString(Arrays.hashCode(content)) + "\"");
+        exchange.sendResponseHeaders(200, content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+    }
+
+    private void ossError(HttpExchange exchange, String name, int status, String code) throws IOException {
+        byte[] bytes = reply(name, "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code + "</Code><Message>" + code
+                + "</Message><RequestId>loadtest</RequestId><HostId>127.0.0.1</HostId></Error>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void respond(HttpExchange exchange, String name, String body) throws IOException {
+        byte[] bytes = reply(name, body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * 记录调用次数并按配置的延迟等待，返回响应内容
+     */
+    private String reply(String name, String body) {
+        stubCalls.computeIfAbsent(name, key -> new LongAdder()).increment();
+        try {
+            TimeUnit.MILLISECONDS.sleep(stubLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return body;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        return parse(exchange.getRequestURI().getRawQuery());
+    }
+
+    private static Map<String, String> parse(String form) {
+        Map<String, String> params = new HashMap<>();
+        if (form == null || form.isEmpty()) {
+            return params;
+        }
+        for (String pair : form.split("&")) {
+            int index = pair.indexOf('=');
+            if (index > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, index), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * JUnit 扩展，需声明在 @SpringBootTest 之前：测试类开始前启动本地服务，
+     * 配合 @DirtiesContext 在应用上下文关闭之后再停止，避免应用关闭时连不上 Redis 和数据库
+     */
+    static final class Lifecycle implements BeforeAllCallback, AfterAllCallback {
+
+        @Override
+        public void beforeAll(ExtensionContext context) throws IOException {
+            current = new LocalStandIns(Long.getLong("loadtest.stub-latency-ms", 20));
+        }
+
+        @Override
+        public void afterAll(ExtensionContext context) throws IOException {
+            current.stop();
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.basis.mail;
+
+import com.basis.utils.EmbeddedRedis;
+import com.basis.utils.RedisUtils;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.mail.internet.MimeMessage;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static com.basis.model.constant.BasicConstant.MAIL_DEAD_LETTER_KEY;
+import static com.basis.model.constant.BasicConstant.MAIL_STREAM_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 邮件队列测试，使用内嵌 Redis 和 GreenMail，无需外部服务
+ */
+class MailDispatcherTests {
+
+    private EmbeddedRedis redis;
+
+    private GreenMail greenMail;
+
+    private MailTransportPool transportPool;
+
+    private MailDispatcher dispatcher;
+
+    private MailQueue mailQueue;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        greenMail = new GreenMail(new ServerSetup(EmbeddedRedis.freePort(), "localhost", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+        mailQueue = new MailQueue();
+        ReflectionTestUtils.setField(mailQueue, "redisUtils", redis.redisUtils());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dispatcher.stop();
+        transportPool.destroy();
+        greenMail.stop();
+        redis.stop();
+    }
+
+    @Test
+    void queuedMailIsDelivered() throws Exception {
+        startDispatcher(greenMail.getSmtp().getPort(), 5);
+        for (int i = 0; i < 20; i++) {
+            mailQueue.enqueue("user" + i + "@example.com", "Deepfake", "<p>" + i + "</p>");
+        }
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 20));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(20, received.length);
+        assertEquals("Deepfake", received[0].getSubject());
+        // 发送成功的消息已确认并删除
+        waitUntil(() -> streamSize(MAIL_STREAM_KEY) == 0);
+    }
+
+    @Test
+    void failingMailIsRetriedThenDeadLettered() throws Exception {
+        // 指向没有服务监听的端口，发送必然失败
+        startDispatcher(EmbeddedRedis.freePort(), 3);
+        mailQueue.enqueue("user@example.com", "Deepfake", "<p>0</p>");
+        // 先写死信再确认删除原消息，两者都完成后再检查
+        waitUntil(() -> streamSize(MAIL_DEAD_LETTER_KEY) == 1 && streamSize(MAIL_STREAM_KEY) == 0);
+        List<MapRecord<String, Object, Object>> dead = redis.redisUtils().getRedisTemplate().opsForStream()
+                .read(StreamOffset.fromStart(MAIL_DEAD_LETTER_KEY));
+        assertEquals("user@example.com", dead.get(0).getValue().get(MailQueue.FIELD_TO));
+        assertEquals(3, dead.get(0).getValue().get(MailQueue.FIELD_ATTEMPTS));
+    }
+
+    private void startDispatcher(int smtpPort, int maxAttempts) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+        transportPool = new MailTransportPool();
+        ReflectionTestUtils.setField(transportPool, "mailSender", mailSender);
+        ReflectionTestUtils.setField(transportPool, "workers", 4);
+        transportPool.init();
+
+        dispatcher = new MailDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(dispatcher, "transportPool", transportPool);
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "from", "noreply@example.com");
+        ReflectionTestUtils.setField(dispatcher, "workers", 4);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(dispatcher, "retryBaseMs", 100L);
+        ReflectionTestUtils.setField(dispatcher, "retryScanMs", 100L);
+        ReflectionTestUtils.setField(dispatcher, "deadLetterMaxLen", 100L);
+        dispatcher.start();
+    }
+
+    private long streamSize(String key) {
+        RedisUtils redisUtils = redis.redisUtils();
+        Long size = redisUtils.getRedisTemplate().opsForStream().size(key);
+        return size == null ? 0 : size;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 10s");
+            Thread.sleep(50);
+        }
+    }
+}
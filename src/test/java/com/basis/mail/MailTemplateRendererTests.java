@@ -0,0 +1,36 @@
+package com.basis.mail;
+
+import com.basis.model.enums.MailTemplateEnums;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 验证码邮件渲染测试
+ */
+class MailTemplateRendererTests {
+
+    @Test
+    void renderFillsCodeAndLocalizedText() throws Exception {
+        MailTemplateRenderer renderer = new MailTemplateRenderer();
+        renderer.init();
+
+        String zh = renderer.render(MailTemplateEnums.RESET_PASSWORD, Locale.CHINA, "A7K2");
+        assertTrue(zh.contains("<button class=\"button\">A</button>"));
+        assertTrue(zh.contains("<button class=\"button\">2</button>"));
+        assertTrue(zh.contains("<span>重置密码</span>"));
+        assertFalse(zh.contains("${"));
+
+        String en = renderer.render(MailTemplateEnums.LOGIN_CODE, Locale.US, "A7K2");
+        assertTrue(en.contains("<span>email sign-in</span>"));
+        assertEquals("Deepfake registration code", renderer.subject(MailTemplateEnums.REGISTER_CODE, Locale.ENGLISH));
+        // 不支持的语言使用中文
+        assertEquals("Deepfake 登录验证码", renderer.subject(MailTemplateEnums.LOGIN_CODE, Locale.JAPANESE));
+    }
+}
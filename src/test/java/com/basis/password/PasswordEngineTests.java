@@ -0,0 +1,119 @@
+package com.basis.password;
+
+import com.basis.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.basis.common.ResponseCode.LOGIN_BUSY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 密码哈希引擎测试
+ */
+class PasswordEngineTests {
+
+    private static PasswordEngine newEngine(String algorithm, int workers, int queueCapacity) {
+        PasswordEngine engine = new PasswordEngine();
+        ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "algorithm", algorithm);
+        // 目标耗时极小，校准保持最低参数，测试不会太慢
+        ReflectionTestUtils.setField(engine, "targetMs", 1L);
+        ReflectionTestUtils.setField(engine, "workers", workers);
+        ReflectionTestUtils.setField(engine, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(engine, "maxWaitMs", 10_000L);
+        ReflectionTestUtils.setField(engine, "argon2MemoryKb", 19456);
+        engine.start();
+        return engine;
+    }
+
+    @Test
+    void hashAndMatchWithEveryAlgorithm() {
+        for (String algorithm : new String[]{Argon2idHasher.ID, BcryptHasher.ID, Pbkdf2Hasher.ID}) {
+            PasswordEngine engine = newEngine(algorithm, 1, 4);
+            try {
+                String first = engine.hash("correct horse");
+                String second = engine.hash("correct horse");
+                assertTrue(first.startsWith("$"), first);
+                // 每次哈希使用不同的盐
+                assertNotEquals(first, second);
+                assertTrue(engine.matches("correct horse", first, null), algorithm);
+                assertFalse(engine.matches("wrong horse", first, null), algorithm);
+                assertFalse(engine.needsRehash(first), algorithm);
+            } finally {
+                engine.stop();
+            }
+        }
+    }
+
+    @Test
+    void legacyMd5IsVerifiedAndUpgraded() throws Exception {
+        PasswordEngine engine = newEngine(Argon2idHasher.ID, 1, 4);
+        try {
+            // 旧版 PasswordEncoder 生成的哈希：md5("123456{salt}")
+            String legacy = LegacyMd5Verifier.hex(LegacyMd5Verifier.md5("123456{salt}"));
+            assertTrue(engine.matches("123456", legacy, "salt"));
+            assertFalse(engine.matches("123456", legacy, "other"));
+            assertTrue(engine.needsRehash(legacy));
+
+            CountDownLatch done = new CountDownLatch(1);
+            AtomicReference<String> upgraded = new AtomicReference<>();
+            engine.rehashAsync("123456", hash -> {
+                upgraded.set(hash);
+                done.countDown();
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertTrue(upgraded.get().startsWith("$argon2id$"));
+            assertTrue(engine.matches("123456", upgraded.get(), null));
+            assertFalse(engine.needsRehash(upgraded.get()));
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void weakerParametersNeedRehash() {
+        PasswordEngine engine = newEngine(Argon2idHasher.ID, 1, 4);
+        try {
+            // 其他算法或更低的参数
+            assertTrue(engine.needsRehash(new BcryptHasher().hash("123456")));
+            assertTrue(engine.needsRehash(new Argon2idHasher(8192, 1).hash("123456")));
+            assertTrue(engine.needsRehash("$argon2id$broken"));
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void busyExecutorFailsFast() throws Exception {
+        PasswordEngine engine = newEngine(Pbkdf2Hasher.ID, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // 占满唯一的线程和队列
+            for (int i = 0; i < 2; i++) {
+                engine.rehashAsync("123456", hash -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            BusinessException e = assertThrows(BusinessException.class, () -> engine.hash("123456"));
+            assertEquals(LOGIN_BUSY.getCode(), e.getCode());
+        } finally {
+            release.countDown();
+            engine.stop();
+        }
+    }
+}
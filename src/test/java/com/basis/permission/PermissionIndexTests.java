@@ -0,0 +1,66 @@
+package com.basis.permission;
+
+import com.basis.model.entity.Permission;
+import com.basis.model.entity.Role;
+import com.basis.model.entity.RolePermission;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionIndexTests {
+
+    @Test
+    void resolvesUnionOfRolePermissions() {
+        PermissionIndex index = PermissionIndex.build(
+                Arrays.asList(role(1, "SYS_ADMIN"), role(2, "USER")),
+                Arrays.asList(permission(10L, "per:add"), permission(11L, "per:del"), permission(12L, "per:view")),
+                Arrays.asList(relation(1L, 10L), relation(1L, 11L), relation(2L, 12L), relation(2L, 10L)));
+
+        BitSet bits = index.resolve(new long[]{1L, 2L});
+
+        assertEquals(Arrays.asList("per:add", "per:del", "per:view"), index.codesOf(bits));
+        assertEquals(Arrays.asList("SYS_ADMIN", "USER"), index.roleCodesOf(new long[]{1L, 2L}));
+        assertTrue(bits.get(index.bitOf("per:del")));
+    }
+
+    @Test
+    void ignoresUnknownRolesAndPermissions() {
+        PermissionIndex index = PermissionIndex.build(
+                Collections.singletonList(role(2, "USER")),
+                Collections.singletonList(permission(12L, "per:view")),
+                Arrays.asList(relation(2L, 12L), relation(2L, 99L), relation(3L, 12L)));
+
+        BitSet bits = index.resolve(new long[]{2L, 3L});
+
+        assertEquals(Collections.singletonList("per:view"), index.codesOf(bits));
+        assertEquals(-1, index.bitOf("per:add"));
+        assertFalse(index.containsRole(3L));
+    }
+
+    private static Role role(int id, String code) {
+        Role role = new Role();
+        role.setId(id);
+        role.setRoleCode(code);
+        return role;
+    }
+
+    private static Permission permission(Long id, String code) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setPCode(code);
+        return permission;
+    }
+
+    private static RolePermission relation(Long roleId, Long permissionId) {
+        RolePermission relation = new RolePermission();
+        relation.setRId(roleId);
+        relation.setPId(permissionId);
+        return relation;
+    }
+}
@@ -0,0 +1,201 @@
+package com.basis.service.impl;
+
+import cn.hutool.core.util.HexUtil;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.basis.context.UserContext;
+import com.basis.exception.BusinessException;
+import com.basis.mapper.AvatarContentMapper;
+import com.basis.model.entity.AvatarContent;
+import com.basis.model.vo.AvatarMetaVo;
+import com.basis.model.vo.AvatarUrlVo;
+import com.basis.model.vo.LocalUploadVo;
+import com.basis.storage.LocalFileStore;
+import com.basis.upload.AvatarContentIndex;
+import com.basis.upload.AvatarUpdateQueue;
+import com.basis.utils.EmbeddedRedis;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.basis.model.constant.BasicConstant.AVATAR_UPDATE_STREAM_KEY;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 本地存储上传测试，使用内嵌 Redis 和临时目录
+ */
+class LocalStorageServiceTests {
+
+    @TempDir
+    Path root;
+
+    private EmbeddedRedis redis;
+
+    private LocalStorageService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        LocalFileStore store = new LocalFileStore();
+        ReflectionTestUtils.setField(store, "path", root.toString());
+        store.init();
+        AvatarUpdateQueue queue = new AvatarUpdateQueue();
+        ReflectionTestUtils.setField(queue, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(queue, "idempotencyTtlSeconds", 60L);
+
+        AvatarContentIndex contentIndex = new AvatarContentIndex();
+        ReflectionTestUtils.setField(contentIndex, "avatarContentMapper", contentMapper());
+
+        service = new LocalStorageService();
+        ReflectionTestUtils.setField(service, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(service, "bucketName", "local");
+        ReflectionTestUtils.setField(service, "avatarPath", "avatar/");
+        ReflectionTestUtils.setField(service, "maxFileSize", 64 * 1024L);
+        ReflectionTestUtils.setField(service, "allowedFileTypes", new String[]{"jpg", "png"});
+        ReflectionTestUtils.setField(service, "localFileStore", store);
+        ReflectionTestUtils.setField(service, "avatarUpdateQueue", queue);
+        ReflectionTestUtils.setField(service, "avatarContentIndex", contentIndex);
+        ReflectionTestUtils.setField(service, "tokenExpireSeconds", 600L);
+        ((ThreadLocal<Long>) ReflectionTestUtils.getField(UserContext.class, "USER_ID")).set(7L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        UserContext.clear();
+        redis.stop();
+    }
+
+    @Test
+    void uploadIsStreamedToDiskAndQueuedOnce() throws Exception {
+        byte[] content = new byte[40 * 1024];
+        new Random(1).nextBytes(content);
+        String token = token(init());
+
+        AvatarUrlVo avatar = (AvatarUrlVo) service.receive(token, "image/png", content.length, channel(content)).getData();
+
+        Path stored = root.resolve(avatar.getAvatarUrl().substring("/files/".length()));
+        assertArrayEquals(content, Files.readAllBytes(stored));
+        assertEquals(1L, redis.redisUtils().getRedisTemplate().opsForStream().size(AVATAR_UPDATE_STREAM_KEY));
+        // 令牌只能使用一次
+        assertThrows(BusinessException.class, () -> service.receive(token, "image/png", content.length, channel(content)));
+    }
+
+    @Test
+    void oversizedOrMismatchedUploadIsRejected() throws Exception {
+        LocalUploadVo upload = init();
+        String token = token(upload);
+        byte[] oversized = new byte[64 * 1024 + 1];
+
+        // 未声明长度时按实际写入的字节数判断
+        assertThrows(BusinessException.class, () -> service.receive(token, "image/png", -1, channel(oversized)));
+        assertThrows(BusinessException.class, () -> service.receive(token, "image/gif", 10, channel(new byte[10])));
+        assertFalse(Files.exists(root.resolve(upload.getObjectPath().substring(1))));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void identicalContentIsStoredOnceAndReused() throws Exception {
+        byte[] content = new byte[10 * 1024];
+        new Random(2).nextBytes(content);
+
+        AvatarUrlVo first = (AvatarUrlVo) service.receive(token(init()), "image/png", content.length, channel(content)).getData();
+        AvatarUrlVo second = (AvatarUrlVo) service.receive(token(init()), "image/png", content.length, channel(content)).getData();
+
+        assertEquals(first.getAvatarUrl(), second.getAvatarUrl());
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+
+        // 客户端提供摘要时直接复用，不再签发上传令牌
+        AvatarMetaVo meta = meta();
+        meta.setFileSize((long) content.length);
+        meta.setSha256(HexUtil.encodeHexStr(MessageDigest.getInstance("SHA-256").digest(content)));
+        AvatarUrlVo reused = (AvatarUrlVo) service.getAvatarUploadCredentials(7L, "alice", meta).getData();
+        assertEquals("exists", reused.getStatus());
+        assertEquals(first.getAvatarUrl(), reused.getAvatarUrl());
+        assertEquals(3L, redis.redisUtils().getRedisTemplate().opsForStream().size(AVATAR_UPDATE_STREAM_KEY));
+    }
+
+    @Test
+    void avatarRegisteredWithDifferentContentIsRejected() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), AvatarContent.class);
+        AvatarContentIndex contentIndex = new AvatarContentIndex();
+        ReflectionTestUtils.setField(contentIndex, "avatarContentMapper", contentMapper());
+
+        assertEquals("/avatar/a.png", contentIndex.register("aa", "/avatar/a.png", 1));
+        assertEquals("/avatar/a.png", contentIndex.register("aa", "/avatar/b.png", 1));
+        // 同一路径登记不同内容时报错，不会无限重试
+        assertThrows(IllegalStateException.class, () -> contentIndex.register("bb", "/avatar/a.png", 1));
+    }
+
+    private LocalUploadVo init() {
+        return (LocalUploadVo) service.getAvatarUploadCredentials(7L, "alice", meta()).getData();
+    }
+
+    private static AvatarMetaVo meta() {
+        AvatarMetaVo meta = new AvatarMetaVo();
+        meta.setMimeType("image/png");
+        meta.setFileSize(1024L);
+        return meta;
+    }
+
+    /**
+     * 以 Map 代替 xx_avatar_content 表
+     */
+    private static AvatarContentMapper contentMapper() {
+        Map<String, AvatarContent> table = new ConcurrentHashMap<>();
+        AvatarContentMapper mapper = mock(AvatarContentMapper.class);
+        when(mapper.insertOrTouch(any())).thenAnswer(invocation -> {
+            AvatarContent content = invocation.getArgument(0);
+            // 摘要和头像路径均为唯一键
+            if (table.values().stream().anyMatch(existing -> existing.getAvatar().equals(content.getAvatar()))) {
+                return 2;
+            }
+            return table.putIfAbsent(content.getSha256(), content) == null ? 1 : 2;
+        });
+        when(mapper.selectCount(any())).thenAnswer(invocation -> {
+            // 仅用于按头像路径计数
+            Collection<Object> values = invocation.<LambdaQueryWrapper<AvatarContent>>getArgument(0).getParamNameValuePairs().values();
+            return table.values().stream().filter(existing -> values.contains(existing.getAvatar())).count();
+        });
+        when(mapper.touch(anyString())).thenAnswer(invocation -> table.containsKey(invocation.<String>getArgument(0)) ? 1 : 0);
+        when(mapper.selectById(anyString())).thenAnswer(invocation -> table.get(invocation.<String>getArgument(0)));
+        return mapper;
+    }
+
+    private static String token(LocalUploadVo upload) {
+        return upload.getUploadUrl().substring(LocalStorageService.UPLOAD_URL_PREFIX.length());
+    }
+
+    private static ReadableByteChannel channel(byte[] content) {
+        return Channels.newChannel(new ByteArrayInputStream(content));
+    }
+}
@@ -0,0 +1,153 @@
+package com.basis.service.impl;
+
+import com.basis.context.UserContext;
+import com.basis.exception.BusinessException;
+import com.basis.model.vo.MultipartInitVo;
+import com.basis.model.vo.MultipartUploadVo;
+import com.basis.storage.LocalFileStore;
+import com.basis.utils.EmbeddedRedis;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.basis.common.ResponseCode.UPLOAD_INCOMPLETE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 分片上传测试，使用内嵌 Redis 和临时目录
+ */
+class MultipartUploadServiceTests {
+
+    private static final int PART_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path root;
+
+    private EmbeddedRedis redis;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        bindUser();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        UserContext.clear();
+        redis.stop();
+    }
+
+    @Test
+    void partsUploadedConcurrentlyAreResumedAndConcatenated() throws Exception {
+        byte[] content = new byte[PART_SIZE * 3 + 12345];
+        new Random(1).nextBytes(content);
+        MultipartUploadServiceImpl service = service();
+        MultipartUploadVo upload = (MultipartUploadVo) service.init(initVo(content.length)).getData();
+        assertEquals(4, upload.getPartCount());
+
+        // 并发上传前 3 个分片，模拟中断后由另一个节点继续
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int part = 1; part <= 3; part++) {
+            int partNumber = part;
+            futures.add(executor.submit(() -> {
+                bindUser();
+                service.uploadPart(upload.getUploadId(), partNumber, part(content, partNumber));
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        BusinessException incomplete = assertThrows(BusinessException.class, () -> service.complete(upload.getUploadId()));
+        assertEquals(UPLOAD_INCOMPLETE.getCode(), incomplete.getCode());
+
+        MultipartUploadServiceImpl restarted = service();
+        MultipartUploadVo status = (MultipartUploadVo) restarted.status(upload.getUploadId()).getData();
+        assertEquals(Arrays.asList(1, 2, 3), status.getReceivedParts());
+        restarted.uploadPart(upload.getUploadId(), 4, part(content, 4));
+
+        MultipartUploadVo completed = (MultipartUploadVo) restarted.complete(upload.getUploadId()).getData();
+        assertEquals("/files/video/" + upload.getUploadId() + ".mp4", completed.getUrl());
+        assertArrayEquals(content, Files.readAllBytes(root.resolve("video/" + upload.getUploadId() + ".mp4")));
+        assertFalse(Files.exists(root.resolve(".multipart/" + upload.getUploadId())));
+        assertThrows(BusinessException.class, () -> restarted.status(upload.getUploadId()));
+    }
+
+    @Test
+    void partWithWrongSizeIsRejected() {
+        MultipartUploadServiceImpl service = service();
+        MultipartUploadVo upload = (MultipartUploadVo) service.init(initVo(PART_SIZE * 2)).getData();
+
+        assertThrows(BusinessException.class, () -> service.uploadPart(upload.getUploadId(), 1,
+                Channels.newChannel(new ByteArrayInputStream(new byte[PART_SIZE - 1]))));
+        assertThrows(BusinessException.class, () -> service.uploadPart(upload.getUploadId(), 3,
+                Channels.newChannel(new ByteArrayInputStream(new byte[PART_SIZE]))));
+        assertFalse(Files.exists(root.resolve(".multipart/" + upload.getUploadId() + "/1")));
+
+        service.abort(upload.getUploadId());
+        assertThrows(BusinessException.class, () -> service.status(upload.getUploadId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void bindUser() {
+        ((ThreadLocal<Long>) ReflectionTestUtils.getField(UserContext.class, "USER_ID")).set(7L);
+    }
+
+    private MultipartUploadServiceImpl service() {
+        LocalFileStore store = new LocalFileStore();
+        ReflectionTestUtils.setField(store, "path", root.toString());
+        try {
+            store.init();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        MultipartUploadServiceImpl service = new MultipartUploadServiceImpl();
+        ReflectionTestUtils.setField(service, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(service, "localFileStore", store);
+        ReflectionTestUtils.setField(service, "tempPath", ".multipart/");
+        ReflectionTestUtils.setField(service, "targetPath", "video/");
+        ReflectionTestUtils.setField(service, "maxFileSize", 64L * PART_SIZE);
+        ReflectionTestUtils.setField(service, "defaultPartSize", 8L * PART_SIZE);
+        ReflectionTestUtils.setField(service, "minPartSize", (long) PART_SIZE);
+        ReflectionTestUtils.setField(service, "maxPartSize", 8L * PART_SIZE);
+        ReflectionTestUtils.setField(service, "maxParts", 100);
+        ReflectionTestUtils.setField(service, "expireSeconds", 600L);
+        return service;
+    }
+
+    private static MultipartInitVo initVo(long size) {
+        MultipartInitVo vo = new MultipartInitVo();
+        vo.setFileName("detect.MP4");
+        vo.setFileSize(size);
+        vo.setContentType("video/mp4");
+        vo.setPartSize((long) PART_SIZE);
+        return vo;
+    }
+
+    private static ReadableByteChannel part(byte[] content, int partNumber) {
+        int offset = (partNumber - 1) * PART_SIZE;
+        int length = Math.min(PART_SIZE, content.length - offset);
+        return Channels.newChannel(new ByteArrayInputStream(content, offset, length));
+    }
+}
@@ -0,0 +1,114 @@
+package com.basis.service.impl;
+
+import com.basis.common.Result;
+import com.basis.context.UserContext;
+import com.basis.model.vo.AvatarMetaVo;
+import com.basis.model.vo.AvatarUrlVo;
+import com.basis.model.vo.CallbackBodyVo;
+import com.basis.model.vo.PostPolicyVo;
+import com.basis.utils.EmbeddedRedis;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: PostObject 本地签名模式测试，按 OSS 文档的算法独立计算签名并比对
+ */
+class PostPolicyStorageServiceTests {
+
+    private static final String SECRET = "test-secret";
+
+    private EmbeddedRedis redis;
+
+    private PostPolicyStorageService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        service = service(redis);
+        @SuppressWarnings("unchecked")
+        ThreadLocal<Long> userId = (ThreadLocal<Long>) ReflectionTestUtils.getField(UserContext.class, "USER_ID");
+        userId.set(7L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        UserContext.clear();
+        redis.stop();
+    }
+
+    @Test
+    void policyIsSignedAndRestrictedToOneObject() throws Exception {
+        PostPolicyVo vo = grant();
+
+        assertEquals("https://avatars.oss-cn-guangzhou.aliyuncs.com", vo.getHost());
+        assertEquals("/" + vo.getKey(), vo.getObjectPath());
+        assertTrue(vo.getKey().startsWith("avatar/avatar-alice"));
+
+        Mac mac = Mac.getInstance("HmacSHA1");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+        String expected = Base64.getEncoder().encodeToString(mac.doFinal(vo.getPolicy().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expected, vo.getSignature());
+
+        JsonNode policy = new ObjectMapper().readTree(Base64.getDecoder().decode(vo.getPolicy()));
+        assertTrue(policy.get("expiration").asText().matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z"));
+        JsonNode conditions = policy.get("conditions");
+        assertEquals("[\"content-length-range\",0,1024]", conditions.get(0).toString());
+        assertEquals("[\"eq\",\"$key\",\"" + vo.getKey() + "\"]", conditions.get(1).toString());
+        assertEquals("[\"eq\",\"$content-type\",\"image/png\"]", conditions.get(2).toString());
+        assertEquals("{\"bucket\":\"avatars\"}", conditions.get(3).toString());
+
+        JsonNode callback = new ObjectMapper().readTree(Base64.getDecoder().decode(vo.getCallback()));
+        assertEquals("http://localhost/user/avatar-upload/callback", callback.get("callbackUrl").asText());
+    }
+
+    @Test
+    void callbackFindsUploadRecordedBySignedGrant() {
+        PostPolicyVo vo = grant();
+
+        CallbackBodyVo callback = new CallbackBodyVo();
+        callback.setBucketName("avatars");
+        callback.setObject(vo.getKey());
+        AvatarUrlVo avatar = (AvatarUrlVo) service.handleUploadCallback(callback).getData();
+
+        assertEquals(vo.getObjectPath(), avatar.getAvatarUrl());
+        assertEquals(7L, avatar.getUserId());
+    }
+
+    private PostPolicyVo grant() {
+        AvatarMetaVo meta = new AvatarMetaVo();
+        meta.setMimeType("image/png");
+        meta.setFileSize(512L);
+        Result<?> result = service.getAvatarUploadCredentials(7L, "alice", meta);
+        return (PostPolicyVo) result.getData();
+    }
+
+    static PostPolicyStorageService service(EmbeddedRedis redis) {
+        PostPolicyStorageService service = new PostPolicyStorageService();
+        ReflectionTestUtils.setField(service, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(service, "bucketName", "avatars");
+        ReflectionTestUtils.setField(service, "avatarPath", "avatar/");
+        ReflectionTestUtils.setField(service, "maxFileSize", 1024L);
+        ReflectionTestUtils.setField(service, "allowedFileTypes", new String[]{"jpg", "png"});
+        ReflectionTestUtils.setField(service, "accessKeyId", "test-ak");
+        ReflectionTestUtils.setField(service, "accessKeySecret", SECRET);
+        ReflectionTestUtils.setField(service, "ossEndpoint", "https://oss-cn-guangzhou.aliyuncs.com");
+        ReflectionTestUtils.setField(service, "callbackUrl", "http://localhost/user/avatar-upload/callback");
+        ReflectionTestUtils.setField(service, "policyExpireSeconds", 600L);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,105 @@
+package com.basis.service.impl;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.basis.cache.UserProfileCache;
+import com.basis.context.UserContext;
+import com.basis.image.AvatarThumbnailPipeline;
+import com.basis.mapper.UserMapper;
+import com.basis.model.entity.User;
+import com.basis.model.vo.ProfileVo;
+import com.basis.upload.AvatarContentIndex;
+import com.basis.upload.AvatarUpdateDispatcher;
+import com.basis.upload.AvatarUpdateQueue;
+import com.basis.utils.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 修改个人资料与头像调度并发写同一用户行的测试
+ */
+class UserProfileUpdateTests {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void profileEditDoesNotRevertConcurrentAvatarUpdate() throws Exception {
+        EmbeddedRedis redis = new EmbeddedRedis();
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), User.class);
+        // 以内存中的一行模拟 xx_user，updateById 与数据库一致只写入非空字段
+        User row = new User();
+        row.setId(7L);
+        row.setNickName("alice");
+        row.setAvatar("/avatar/default_avatar.png");
+        AtomicReference<User> stored = new AtomicReference<>(row);
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.selectOne(any())).thenAnswer(invocation -> BeanUtil.copyProperties(stored.get(), User.class));
+        when(userMapper.updateById(any(User.class))).thenAnswer(invocation -> {
+            synchronized (stored) {
+                User next = BeanUtil.copyProperties(stored.get(), User.class);
+                BeanUtil.copyProperties(invocation.getArgument(0), next, CopyOptions.create().ignoreNullValue());
+                stored.set(next);
+            }
+            return 1;
+        });
+        UserProfileCache profileCache = mock(UserProfileCache.class);
+        AvatarContentIndex contentIndex = mock(AvatarContentIndex.class);
+        when(contentIndex.canonicalize(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AvatarUpdateQueue queue = new AvatarUpdateQueue();
+        ReflectionTestUtils.setField(queue, "redisUtils", redis.redisUtils());
+        AvatarUpdateDispatcher dispatcher = new AvatarUpdateDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(dispatcher, "userMapper", userMapper);
+        ReflectionTestUtils.setField(dispatcher, "userProfileCache", profileCache);
+        ReflectionTestUtils.setField(dispatcher, "thumbnailPipeline", mock(AvatarThumbnailPipeline.class));
+        ReflectionTestUtils.setField(dispatcher, "avatarContentIndex", contentIndex);
+        ReflectionTestUtils.setField(dispatcher, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "retryMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+
+        // 修改资料读取用户行之后、写回之前，头像调度线程完成头像更新
+        when(userMapper.selectById(7L)).thenAnswer(invocation -> {
+            User snapshot = BeanUtil.copyProperties(stored.get(), User.class);
+            queue.enqueue(7L, "/avatar/avatar-alice1234.png");
+            verify(profileCache, timeout(5000)).invalidate(7L);
+            return snapshot;
+        });
+        UserServiceImpl service = new UserServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", userMapper);
+        ReflectionTestUtils.setField(service, "userProfileCache", profileCache);
+        ((ThreadLocal<Long>) ReflectionTestUtils.getField(UserContext.class, "USER_ID")).set(7L);
+        try {
+            dispatcher.start();
+            ProfileVo vo = new ProfileVo();
+            vo.setNickname("bob");
+            service.updateProfile(vo);
+
+            assertEquals("bob", stored.get().getNickName());
+            assertEquals("/avatar/avatar-alice1234.png", stored.get().getAvatar());
+        } finally {
+            UserContext.clear();
+            dispatcher.stop();
+            redis.stop();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.basis.sms;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 短信网关测试
+ */
+class SmsGatewayTests {
+
+    @Test
+    void messagesAreBatchedPerTemplate() throws Exception {
+        List<List<SmsMessage>> batches = Collections.synchronizedList(new ArrayList<>());
+        SmsGateway gateway = gateway((template, messages) -> batches.add(new ArrayList<>(messages)), 1000);
+        for (int i = 0; i < 250; i++) {
+            assertTrue(gateway.submit("1380000" + String.format("%04d", i), "{\"code\":\"1234\"}"));
+        }
+        assertTrue(gateway.submit(new SmsMessage("13900000000", "SMS_OTHER", "{}")));
+        gateway.stop();
+
+        int total = 0;
+        for (List<SmsMessage> batch : batches) {
+            assertTrue(batch.size() <= 100);
+            assertEquals(1, batch.stream().map(SmsMessage::getTemplateCode).distinct().count());
+            total += batch.size();
+        }
+        assertEquals(251, total);
+        assertTrue(batches.size() < 251);
+    }
+
+    @Test
+    void submitIsRejectedWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SmsGateway gateway = gateway((template, messages) -> release.await(), 2);
+        boolean rejected = false;
+        // 两个发送线程各自最多取走一批（100 条）后阻塞，之后队列才会被填满
+        for (int i = 0; i < 1000 && !rejected; i++) {
+            rejected = !gateway.submit("13800000000", "{}");
+        }
+        assertTrue(rejected);
+        release.countDown();
+        gateway.stop();
+    }
+
+    private SmsGateway gateway(SmsSender sender, int queueCapacity) {
+        SmsGateway gateway = new SmsGateway();
+        ReflectionTestUtils.setField(gateway, "smsSender", sender);
+        ReflectionTestUtils.setField(gateway, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(gateway, "templateCode", "SMS_CODE");
+        ReflectionTestUtils.setField(gateway, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(gateway, "workers", 2);
+        ReflectionTestUtils.setField(gateway, "batchSize", 100);
+        ReflectionTestUtils.setField(gateway, "batchWaitMs", 20L);
+        gateway.start();
+        return gateway;
+    }
+}
@@ -0,0 +1,93 @@
+package com.basis.sts;
+
+import com.basis.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: STS 临时凭证缓存测试，使用本地 STS 替身
+ */
+class StsCredentialBrokerTests {
+
+    @Test
+    void concurrentRequestsShareOneAssumeRole() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        StsCredentialBroker broker = broker((policy, session, duration) -> {
+            calls.incrementAndGet();
+            Thread.sleep(100);
+            return token("AK" + calls.get(), Instant.now().plusSeconds(duration));
+        });
+
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<StsToken>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return broker.getToken("policy", "session");
+            }));
+        }
+        start.countDown();
+        StsToken first = futures.get(0).get();
+        for (Future<StsToken> future : futures) {
+            assertSame(first, future.get());
+        }
+        executor.shutdown();
+        assertEquals(1, calls.get());
+
+        // 其他策略单独申请
+        assertNotEquals(first.getAccessKeyId(), broker.getToken("other-policy", "session").getAccessKeyId());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void tokenIsRefreshedWithinSafetyMarginAndFailuresAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        StsCredentialBroker broker = broker((policy, session, duration) -> {
+            int n = calls.incrementAndGet();
+            if (n == 2) {
+                throw new IllegalStateException("sts unavailable");
+            }
+            // 第一次返回的凭证已进入安全余量，需要重新申请
+            return token("AK" + n, Instant.now().plusSeconds(n == 1 ? 100 : duration));
+        });
+
+        assertEquals("AK1", broker.getToken("policy", "session").getAccessKeyId());
+        assertThrows(BusinessException.class, () -> broker.getToken("policy", "session"));
+        assertEquals("AK3", broker.getToken("policy", "session").getAccessKeyId());
+        assertEquals("AK3", broker.getToken("policy", "session").getAccessKeyId());
+        assertEquals(3, calls.get());
+    }
+
+    private static StsCredentialBroker broker(StsClient client) {
+        StsCredentialBroker broker = new StsCredentialBroker();
+        ReflectionTestUtils.setField(broker, "stsClient", client);
+        ReflectionTestUtils.setField(broker, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(broker, "durationSeconds", 3600L);
+        ReflectionTestUtils.setField(broker, "refreshMarginSeconds", 600L);
+        broker.init();
+        return broker;
+    }
+
+    private static StsToken token(String accessKeyId, Instant expiration) {
+        return new StsToken(accessKeyId, "secret", "security-token", expiration);
+    }
+}
@@ -0,0 +1,153 @@
+package com.basis.upload;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.basis.image.AvatarVariants;
+import com.basis.mapper.AvatarContentMapper;
+import com.basis.mapper.UserMapper;
+import com.basis.model.entity.AvatarContent;
+import com.basis.model.entity.User;
+import com.basis.storage.LocalFileStore;
+import com.basis.utils.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+
+import static com.basis.model.constant.BasicConstant.AVATAR_GC_LOCK_KEY;
+import static com.basis.model.constant.BasicConstant.AVATAR_UPLOAD_PREFIX;
+import static com.basis.model.constant.BasicConstant.MULTIPART_MANIFEST_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 头像存储清理测试，本地存储模式，数据库以 mock 代替
+ */
+class AvatarStorageSweeperTests {
+
+    private static final Instant OLD = Instant.now().minus(2, ChronoUnit.DAYS);
+
+    @TempDir
+    Path root;
+
+    private EmbeddedRedis redis;
+
+    private AvatarStorageSweeper sweeper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // 未启动 MyBatis 时手动注册实体元数据，供 Lambda 条件构造器解析列名
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, User.class);
+        TableInfoHelper.initTableInfo(assistant, AvatarContent.class);
+
+        redis = new EmbeddedRedis();
+        LocalFileStore store = new LocalFileStore();
+        ReflectionTestUtils.setField(store, "path", root.toString());
+        store.init();
+        AvatarVariants variants = new AvatarVariants();
+        ReflectionTestUtils.setField(variants, "sizes", new int[]{48, 128});
+
+        User user = new User();
+        user.setAvatar("/files/avatar/referenced.png");
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.selectList(any())).thenReturn(Collections.singletonList(user));
+        // indexed.png 最近被复用过，索引删除不成功
+        AvatarContent content = new AvatarContent();
+        content.setAvatar("/files/avatar/indexed.png");
+        AvatarContentMapper contentMapper = mock(AvatarContentMapper.class);
+        when(contentMapper.selectList(any())).thenReturn(Collections.singletonList(content));
+        when(contentMapper.delete(any())).thenReturn(0);
+
+        sweeper = new AvatarStorageSweeper();
+        ReflectionTestUtils.setField(sweeper, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(sweeper, "userMapper", userMapper);
+        ReflectionTestUtils.setField(sweeper, "avatarContentMapper", contentMapper);
+        ReflectionTestUtils.setField(sweeper, "localFileStore", store);
+        ReflectionTestUtils.setField(sweeper, "avatarVariants", variants);
+        ReflectionTestUtils.setField(sweeper, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sweeper, "uploadMode", "local");
+        ReflectionTestUtils.setField(sweeper, "avatarPath", "avatar/");
+        ReflectionTestUtils.setField(sweeper, "multipartTempPath", ".multipart/");
+        ReflectionTestUtils.setField(sweeper, "intervalMs", 3600000L);
+        ReflectionTestUtils.setField(sweeper, "pageSize", 3);
+        ReflectionTestUtils.setField(sweeper, "graceSeconds", 86400L);
+        ReflectionTestUtils.setField(sweeper, "deletePerSecond", 1000);
+        ReflectionTestUtils.setField(sweeper, "keepNames", new String[]{"default_avatar.png"});
+        sweeper.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        sweeper.stop();
+        redis.stop();
+    }
+
+    @Test
+    void onlyUnreferencedExpiredObjectsAreDeleted() throws Exception {
+        file("avatar/referenced.png", 10, OLD);
+        file("avatar/referenced_48.png", 5, OLD);
+        file("avatar/orphan.jpg", 100, OLD);
+        file("avatar/orphan_48.jpg", 20, OLD);
+        file("avatar/fresh.png", 10, Instant.now());
+        file("avatar/pending.png", 10, OLD);
+        file("avatar/indexed.png", 10, OLD);
+        file("avatar/default_avatar.png", 10, OLD);
+        redis.redisUtils().setValueTimeout(AVATAR_UPLOAD_PREFIX + "avatar/pending.png", "pending", 60);
+        file(".multipart/abandoned/1", 1000, OLD);
+        Files.setLastModifiedTime(root.resolve(".multipart/abandoned"), FileTime.from(OLD));
+        file(".multipart/active/1", 1000, OLD);
+        Files.setLastModifiedTime(root.resolve(".multipart/active"), FileTime.from(OLD));
+        redis.redisUtils().setValueTimeout(MULTIPART_MANIFEST_PREFIX + "active", "manifest", 60);
+
+        AvatarStorageSweeper.Report report = sweeper.sweep();
+
+        assertEquals(3, report.getDeleted());
+        assertEquals(1120, report.getReclaimedBytes());
+        assertFalse(Files.exists(root.resolve("avatar/orphan.jpg")));
+        assertFalse(Files.exists(root.resolve("avatar/orphan_48.jpg")));
+        assertFalse(Files.exists(root.resolve(".multipart/abandoned")));
+        for (String kept : new String[]{"referenced.png", "referenced_48.png", "fresh.png", "pending.png", "indexed.png", "default_avatar.png"}) {
+            assertTrue(Files.exists(root.resolve("avatar/" + kept)), kept);
+        }
+        assertTrue(Files.exists(root.resolve(".multipart/active/1")));
+    }
+
+    @Test
+    void scheduledSweepHoldsAndReleasesOnlyItsOwnLock() throws Exception {
+        file("avatar/orphan.jpg", 100, OLD);
+        // 其他节点持有锁时不清理，也不删除对方的锁
+        redis.redisUtils().setValueTimeout(AVATAR_GC_LOCK_KEY, "other-node", 60);
+        ReflectionTestUtils.invokeMethod(sweeper, "scheduledSweep");
+        assertTrue(Files.exists(root.resolve("avatar/orphan.jpg")));
+        assertEquals("other-node", redis.redisUtils().getValue(AVATAR_GC_LOCK_KEY));
+
+        redis.redisUtils().getRedisTemplate().delete(AVATAR_GC_LOCK_KEY);
+        ReflectionTestUtils.invokeMethod(sweeper, "scheduledSweep");
+        assertFalse(Files.exists(root.resolve("avatar/orphan.jpg")));
+        assertFalse(redis.redisUtils().doesItExist(AVATAR_GC_LOCK_KEY));
+    }
+
+    private void file(String relative, int size, Instant modified) throws Exception {
+        Path file = root.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+    }
+}
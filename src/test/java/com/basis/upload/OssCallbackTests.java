@@ -0,0 +1,200 @@
+package com.basis.upload;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.basis.cache.UserProfileCache;
+import com.basis.image.AvatarThumbnailPipeline;
+import com.basis.mapper.UserMapper;
+import com.basis.model.dto.OssCallbackDto;
+import com.basis.model.entity.User;
+import com.basis.utils.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.basis.model.constant.BasicConstant.AVATAR_UPDATE_STREAM_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: OSS 上传回调测试：签名校验、重复回调去重与异步更新头像
+ */
+class OssCallbackTests {
+
+    private static final String PATH = "/user/avatar-upload/callback";
+
+    private static final String BODY = "{\"bucket_name\":\"avatars\",\"object\":\"avatar/avatar-alice1234.png\"}";
+
+    @Test
+    void signatureIsVerifiedWithCachedPublicKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        KeyPair keyPair = generator.generateKeyPair();
+        String pem = "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n";
+        AtomicInteger downloads = new AtomicInteger();
+        OssCallbackVerifier verifier = verifier(url -> {
+            downloads.incrementAndGet();
+            return pem;
+        });
+
+        Signature signer = Signature.getInstance("MD5withRSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update((PATH + "\n" + BODY).getBytes(StandardCharsets.UTF_8));
+        String authorization = Base64.getEncoder().encodeToString(signer.sign());
+
+        assertTrue(verifier.verify(callback(authorization, "https://gosspublic.alicdn.com/callback_pub_key_v1.pem", BODY)));
+        assertTrue(verifier.verify(callback(authorization, "https://gosspublic.alicdn.com/callback_pub_key_v1.pem", BODY)));
+        assertEquals(1, downloads.get());
+
+        // 请求体被篡改
+        assertFalse(verifier.verify(callback(authorization, "https://gosspublic.alicdn.com/callback_pub_key_v1.pem", BODY + " ")));
+        // 公钥地址不在白名单
+        assertFalse(verifier.verify(callback(authorization, "https://attacker.example.com/pub_key.pem", BODY)));
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    void retriedCallbackUpdatesAvatarOnce() throws Exception {
+        EmbeddedRedis redis = new EmbeddedRedis();
+        UserMapper userMapper = mock(UserMapper.class);
+        UserProfileCache profileCache = mock(UserProfileCache.class);
+        AvatarThumbnailPipeline thumbnailPipeline = mock(AvatarThumbnailPipeline.class);
+        // 未启动 MyBatis 时手动注册实体元数据，供 Lambda 条件构造器解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), User.class);
+        AvatarContentIndex contentIndex = mock(AvatarContentIndex.class);
+        when(contentIndex.canonicalize(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        User current = new User();
+        current.setId(7L);
+        current.setAvatar("/avatar/default_avatar.png");
+        when(userMapper.selectOne(any())).thenReturn(current);
+        AvatarUpdateDispatcher dispatcher = new AvatarUpdateDispatcher();
+        try {
+            AvatarUpdateQueue queue = new AvatarUpdateQueue();
+            ReflectionTestUtils.setField(queue, "redisUtils", redis.redisUtils());
+            ReflectionTestUtils.setField(queue, "idempotencyTtlSeconds", 60L);
+
+            assertTrue(queue.enqueueOnce("avatar/avatar-alice1234.png", 7L, "/avatar/avatar-alice1234.png"));
+            assertFalse(queue.enqueueOnce("avatar/avatar-alice1234.png", 7L, "/avatar/avatar-alice1234.png"));
+
+            start(dispatcher, redis, userMapper, profileCache, thumbnailPipeline, contentIndex);
+
+            ArgumentCaptor<User> user = ArgumentCaptor.forClass(User.class);
+            verify(profileCache, timeout(5000)).invalidate(7L);
+            verify(userMapper, times(1)).updateById(user.capture());
+            assertEquals(7L, user.getValue().getId());
+            assertEquals("/avatar/avatar-alice1234.png", user.getValue().getAvatar());
+            verify(thumbnailPipeline).submit("/avatar/avatar-alice1234.png");
+            verify(contentIndex).transfer("/avatar/default_avatar.png", "/avatar/avatar-alice1234.png");
+
+            // 已处理的消息确认后删除
+            assertEquals(0L, awaitQueueDrained(redis));
+            verify(userMapper, times(1)).updateById(any(User.class));
+        } finally {
+            dispatcher.stop();
+            redis.stop();
+        }
+    }
+
+    @Test
+    void olderUpdateDoesNotOverwriteNewerAvatar() throws Exception {
+        EmbeddedRedis redis = new EmbeddedRedis();
+        UserMapper userMapper = mock(UserMapper.class);
+        UserProfileCache profileCache = mock(UserProfileCache.class);
+        AvatarThumbnailPipeline thumbnailPipeline = mock(AvatarThumbnailPipeline.class);
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), User.class);
+        AvatarContentIndex contentIndex = mock(AvatarContentIndex.class);
+        when(contentIndex.canonicalize(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        // 用户行已应用了更晚的消息，例如失败后被重新认领的旧消息晚于新消息处理
+        User current = new User();
+        current.setId(7L);
+        current.setAvatar("/avatar/avatar-newer123.png");
+        current.setAvatarSeq(Long.MAX_VALUE);
+        when(userMapper.selectOne(any())).thenReturn(current);
+        AvatarUpdateDispatcher dispatcher = new AvatarUpdateDispatcher();
+        try {
+            AvatarUpdateQueue queue = new AvatarUpdateQueue();
+            ReflectionTestUtils.setField(queue, "redisUtils", redis.redisUtils());
+            queue.enqueue(7L, "/avatar/avatar-older12.png");
+
+            start(dispatcher, redis, userMapper, profileCache, thumbnailPipeline, contentIndex);
+
+            // 旧消息同样确认删除，不再重试
+            assertEquals(0L, awaitQueueDrained(redis));
+            verify(userMapper, never()).updateById(any(User.class));
+            verify(contentIndex, never()).transfer(any(), any());
+            verify(profileCache, never()).invalidate(7L);
+        } finally {
+            dispatcher.stop();
+            redis.stop();
+        }
+    }
+
+    private static void start(AvatarUpdateDispatcher dispatcher, EmbeddedRedis redis, UserMapper userMapper, UserProfileCache profileCache,
+                              AvatarThumbnailPipeline thumbnailPipeline, AvatarContentIndex contentIndex) {
+        ReflectionTestUtils.setField(dispatcher, "redisUtils", redis.redisUtils());
+        ReflectionTestUtils.setField(dispatcher, "userMapper", userMapper);
+        ReflectionTestUtils.setField(dispatcher, "userProfileCache", profileCache);
+        ReflectionTestUtils.setField(dispatcher, "thumbnailPipeline", thumbnailPipeline);
+        ReflectionTestUtils.setField(dispatcher, "avatarContentIndex", contentIndex);
+        ReflectionTestUtils.setField(dispatcher, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "retryMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        dispatcher.start();
+    }
+
+    private static long awaitQueueDrained(EmbeddedRedis redis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (redis.redisUtils().getRedisTemplate().opsForStream().size(AVATAR_UPDATE_STREAM_KEY) > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        return redis.redisUtils().getRedisTemplate().opsForStream().size(AVATAR_UPDATE_STREAM_KEY);
+    }
+
+    private static OssCallbackVerifier verifier(Function<String, String> loader) {
+        OssCallbackVerifier verifier = new OssCallbackVerifier();
+        ReflectionTestUtils.setField(verifier, "verifySignature", true);
+        ReflectionTestUtils.setField(verifier, "publicKeyHosts", new String[]{"gosspublic.alicdn.com"});
+        ReflectionTestUtils.setField(verifier, "publicKeyCacheSeconds", 60L);
+        ReflectionTestUtils.setField(verifier, "publicKeyTimeoutMs", 1000);
+        ReflectionTestUtils.setField(verifier, "publicKeyLoader", loader);
+        verifier.init();
+        return verifier;
+    }
+
+    private static OssCallbackDto callback(String authorization, String publicKeyUrl, String body) {
+        return OssCallbackDto.builder()
+                .authorization(authorization)
+                .publicKeyUrl(Base64.getEncoder().encodeToString(publicKeyUrl.getBytes(StandardCharsets.UTF_8)))
+                .path(PATH)
+                .body(body)
+                .build();
+    }
+}
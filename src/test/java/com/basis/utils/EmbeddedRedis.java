@@ -0,0 +1,65 @@
+package com.basis.utils;
+
+import com.basis.cache.CompactRedisSerializer;
+import com.basis.configuration.RedisConfig;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 测试用内嵌 Redis，RedisTemplate 与 RedisConfig 使用相同的序列化方式和连接池
+ */
+public final class EmbeddedRedis {
+
+    private final RedisServer server;
+
+    private final LettuceConnectionFactory connectionFactory;
+
+    private final RedisUtils redisUtils;
+
+    public EmbeddedRedis() throws IOException {
+        int port = freePort();
+        server = new RedisServer(port);
+        server.start();
+
+        // 与 spring.redis.lettuce.pool 配置一致，pipeline 从连接池取连接
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port),
+                LettucePoolingClientConfiguration.builder().poolConfig(new GenericObjectPoolConfig<>()).build());
+        connectionFactory.afterPropertiesSet();
+        RedisConfig config = new RedisConfig();
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        CompactRedisSerializer valueSerializer = config.redisValueSerializer(config.jackson2JsonRedisSerializer(), "smile");
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
+        template.afterPropertiesSet();
+        redisUtils = new RedisUtils(template);
+        redisUtils.loadScripts();
+    }
+
+    public RedisUtils redisUtils() {
+        return redisUtils;
+    }
+
+    public void stop() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
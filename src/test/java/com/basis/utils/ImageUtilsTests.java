@@ -0,0 +1,89 @@
+package com.basis.utils;
+
+import com.basis.exception.BusinessException;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 图片 base64 流式编解码测试
+ */
+class ImageUtilsTests {
+
+    @TempDir
+    Path root;
+
+    private ImageUtils imageUtils;
+
+    private UploadUtil uploadUtil;
+
+    @BeforeEach
+    void setUp() {
+        imageUtils = new ImageUtils();
+        ReflectionTestUtils.setField(imageUtils, "path", root + "/");
+        ReflectionTestUtils.setField(imageUtils, "cacheMaxBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(imageUtils, "cacheMaxEntryBytes", 512L * 1024);
+        imageUtils.init();
+        uploadUtil = new UploadUtil();
+        ReflectionTestUtils.setField(uploadUtil, "path", root + "/");
+    }
+
+    @Test
+    void encodeMatchesStreamAndRoundTripsThroughDecode() throws Exception {
+        // 长度覆盖多个编码块且不是 3 的倍数，验证块边界和末尾填充
+        byte[] image = new byte[200 * 1024 + 1];
+        new Random(42).nextBytes(image);
+        Files.createDirectories(root.resolve("img"));
+        Files.write(root.resolve("img/a.jpg"), image);
+
+        String dataUri = imageUtils.convertImageToBase64("img/a.jpg");
+        assertEquals("data:image/jpeg;base64," + Base64.getEncoder().encodeToString(image), dataUri);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        imageUtils.writeImageAsBase64("img/a.jpg", out);
+        assertEquals(dataUri, out.toString(StandardCharsets.US_ASCII));
+
+        Pair<String, String> saved = uploadUtil.downloadImage(dataUri, "decoded");
+        assertArrayEquals(image, Files.readAllBytes(root.resolve(saved.getLeft())));
+    }
+
+    @Test
+    void nonAsciiBase64IsRejected() throws Exception {
+        // U+0141 截断为字节后是 'A'，不显式拒绝会被当作合法 base64 解码
+        assertThrows(BusinessException.class, () -> uploadUtil.downloadImage("\u0141QID", "decoded"));
+        try (Stream<Path> files = Files.list(root.resolve("decoded"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void cachedUntilFileChanges() throws Exception {
+        Path file = root.resolve("b.png");
+        Files.write(file, new byte[]{1, 2, 3});
+        String first = imageUtils.convertImageToBase64("b.png");
+        assertSame(first, imageUtils.convertImageToBase64("b.png"));
+
+        Files.write(file, new byte[]{1, 2, 3, 4});
+        String changed = imageUtils.convertImageToBase64("b.png");
+        assertNotSame(first, changed);
+        assertEquals("data:image/png;base64,AQIDBA==", changed);
+    }
+}
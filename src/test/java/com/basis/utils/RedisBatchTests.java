@@ -0,0 +1,85 @@
+package com.basis.utils;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: Redis 批量与异步操作测试
+ */
+class RedisBatchTests {
+
+    private static EmbeddedRedis redis;
+
+    private static RedisUtils redisUtils;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        redisUtils = redis.redisUtils();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        redis.stop();
+    }
+
+    @Test
+    void batchReturnsResultsInOrder() {
+        List<Object> results = redisUtils.batch()
+                .setTimeout("batch_a", "alpha", 60)
+                .get("batch_a")
+                .increment("batch_counter")
+                .hashPut("batch_h", "field", 42L)
+                .hashGet("batch_h", "field")
+                .exists("batch_missing")
+                .delete("batch_a", "batch_counter")
+                .execute();
+
+        assertEquals(7, results.size());
+        assertEquals("alpha", results.get(1));
+        assertEquals(1L, results.get(2));
+        assertEquals(42L, ((Number) results.get(4)).longValue());
+        assertEquals(false, results.get(5));
+        assertEquals(2L, results.get(6));
+    }
+
+    @Test
+    void multiKeyAndHashTimeoutHelpers() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("multi_a", "a");
+        values.put("multi_b", "b");
+        redisUtils.multiSetTimeout(values, 60);
+        assertEquals(Arrays.asList("a", "b", null), redisUtils.multiGet(Arrays.asList("multi_a", "multi_b", "multi_missing")));
+        assertTrue(redisUtils.getRedisTemplate().getExpire("multi_b", TimeUnit.SECONDS) > 0);
+
+        redisUtils.hashPutTimeout("multi_h", "code", "1234", 60);
+        assertEquals("1234", redisUtils.hashGet("multi_h", "code"));
+        assertTrue(redisUtils.getRedisTemplate().getExpire("multi_h", TimeUnit.SECONDS) > 0);
+    }
+
+    @Test
+    void asyncCommandsShareSerialization() throws Exception {
+        assertTrue(redisUtils.setValueTimeoutAsync("async_a", "value", 60).get(5, TimeUnit.SECONDS));
+        // 异步写入的值可以被同步接口读取，反之亦然
+        assertEquals("value", redisUtils.getValue("async_a"));
+        redisUtils.setValueTimeout("async_b", "sync", 60);
+        assertEquals(Arrays.asList("value", "sync", null),
+                redisUtils.multiGetAsync(Arrays.asList("async_a", "async_b", "async_missing")).get(5, TimeUnit.SECONDS));
+        assertTrue(redisUtils.expireAsync("async_b", 120).get(5, TimeUnit.SECONDS));
+        assertEquals(2L, redisUtils.delKeysAsync(Arrays.asList("async_a", "async_b")).get(5, TimeUnit.SECONDS));
+        assertNull(redisUtils.getValueAsync("async_a").get(5, TimeUnit.SECONDS));
+    }
+}
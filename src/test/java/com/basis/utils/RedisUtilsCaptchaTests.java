@@ -0,0 +1,106 @@
+package com.basis.utils;
+
+import com.basis.model.enums.CaptchaVerifyResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.basis.model.constant.BasicConstant.CAPTCHA_CODE_FIELD;
+import static com.basis.model.constant.BasicConstant.CAPTCHA_MAX_ATTEMPTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @Author: IT 派同学
+ * @Date: 2026/10/18
+ * @Description: 验证码原子校验脚本测试
+ */
+class RedisUtilsCaptchaTests {
+
+    private static EmbeddedRedis redis;
+
+    private static RedisUtils redisUtils;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        redis = new EmbeddedRedis();
+        redisUtils = redis.redisUtils();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        redis.stop();
+    }
+
+    @Test
+    void verifyConsumesOnMatchAndLocksAfterMaxAttempts() {
+        redisUtils.hashPutTimeout("captcha_match", CAPTCHA_CODE_FIELD, "123456", 60);
+        assertEquals(CaptchaVerifyResult.MISMATCH, redisUtils.verifyCaptcha("captcha_match", "000000", CAPTCHA_MAX_ATTEMPTS));
+        assertEquals(CaptchaVerifyResult.MATCH, redisUtils.verifyCaptcha("captcha_match", "123456", CAPTCHA_MAX_ATTEMPTS));
+        assertEquals(CaptchaVerifyResult.EXPIRED, redisUtils.verifyCaptcha("captcha_match", "123456", CAPTCHA_MAX_ATTEMPTS));
+
+        redisUtils.hashPutTimeout("captcha_lock", CAPTCHA_CODE_FIELD, "123456", 60);
+        for (int i = 1; i < CAPTCHA_MAX_ATTEMPTS; i++) {
+            assertEquals(CaptchaVerifyResult.MISMATCH, redisUtils.verifyCaptcha("captcha_lock", "000000", CAPTCHA_MAX_ATTEMPTS));
+        }
+        assertEquals(CaptchaVerifyResult.LOCKED, redisUtils.verifyCaptcha("captcha_lock", "000000", CAPTCHA_MAX_ATTEMPTS));
+        assertFalse(redisUtils.doesItExist("captcha_lock"));
+
+        // 旧格式（字符串）的验证码视为过期
+        redisUtils.setValueTimeout("captcha_legacy", "123456", 60);
+        assertEquals(CaptchaVerifyResult.EXPIRED, redisUtils.verifyCaptcha("captcha_legacy", "123456", CAPTCHA_MAX_ATTEMPTS));
+    }
+
+    @Test
+    void legacyStringCaptchaIsTreatedAsAbsent() {
+        redisUtils.hashPutTimeout("captcha_hash", CAPTCHA_CODE_FIELD, "123456", 60);
+        assertEquals("123456", redisUtils.getCaptcha("captcha_hash"));
+        assertNull(redisUtils.getCaptcha("captcha_missing"));
+
+        // 旧版本节点写入的字符串验证码，读取时删除，之后可以按 hash 重新写入
+        redisUtils.setValueTimeout("captcha_string", "123456", 60);
+        assertNull(redisUtils.getCaptcha("captcha_string"));
+        redisUtils.hashPutTimeout("captcha_string", CAPTCHA_CODE_FIELD, "654321", 60);
+        assertEquals("654321", redisUtils.getCaptcha("captcha_string"));
+    }
+
+    @Test
+    void concurrentVerifyMatchesOnlyOnce() throws Exception {
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                String key = "captcha_race_" + round;
+                redisUtils.hashPutTimeout(key, CAPTCHA_CODE_FIELD, "654321", 60);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<CaptchaVerifyResult>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    Callable<CaptchaVerifyResult> task = () -> {
+                        start.await();
+                        return redisUtils.verifyCaptcha(key, "654321", CAPTCHA_MAX_ATTEMPTS);
+                    };
+                    futures.add(executor.submit(task));
+                }
+                start.countDown();
+                int matched = 0;
+                for (Future<CaptchaVerifyResult> future : futures) {
+                    if (future.get() == CaptchaVerifyResult.MATCH) {
+                        matched++;
+                    }
+                }
+                assertEquals(1, matched);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}